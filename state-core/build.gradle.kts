@@ -1,7 +1,12 @@
 plugins {
     id("state.base-conventions")
     id("state.publishing-conventions")
+    alias(libs.plugins.jmh)
 }
 
 dependencies {
 }
+
+jmh {
+    jmhVersion = libs.versions.jmh
+}
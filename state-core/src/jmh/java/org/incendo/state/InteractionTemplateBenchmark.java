@@ -0,0 +1,116 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares executing the same interaction using a new {@link StateInteraction.Builder} per call, against executing a
+ * reusable {@link InteractionTemplate}.
+ *
+ * <p>Run with {@code -prof gc} to compare the allocation rate of the paths.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InteractionTemplateBenchmark {
+
+    private static final States<StatefulContentionBenchmark.Toggle> TOGGLES = States.ofEnum(
+            StatefulContentionBenchmark.Toggle.ON,
+            StatefulContentionBenchmark.Toggle.OFF
+    );
+
+    private StatefulContentionBenchmark.LockableStateful stateful;
+    private InteractionTemplate<StatefulContentionBenchmark.Toggle, StatefulContentionBenchmark.LockableStateful> template;
+    private InteractionTemplate.Outcome<StatefulContentionBenchmark.Toggle, StatefulContentionBenchmark.LockableStateful> outcome;
+
+    /**
+     * Creates the instance and the template.
+     */
+    @Setup
+    public void setup() {
+        this.stateful = new StatefulContentionBenchmark.LockableStateful();
+        this.template = InteractionTemplate.<StatefulContentionBenchmark.Toggle, StatefulContentionBenchmark.LockableStateful>builder()
+                .incomingStates(TOGGLES)
+                .outgoingStates(TOGGLES)
+                .interaction(InteractionTemplateBenchmark::flip)
+                .build();
+        this.outcome = new InteractionTemplate.Outcome<>();
+    }
+
+    /**
+     * Builds and executes a new interaction.
+     *
+     * @return the result
+     */
+    @Benchmark
+    public Object builder() {
+        return this.stateful.interact()
+                .incomingStates(TOGGLES)
+                .outgoingStates(TOGGLES)
+                .interaction(InteractionTemplateBenchmark::flip)
+                .execute();
+    }
+
+    /**
+     * Executes the template, and only reports the status.
+     *
+     * @return the status
+     */
+    @Benchmark
+    public Object template() {
+        return this.template.execute(this.stateful);
+    }
+
+    /**
+     * Executes the template, and stores the result in a reusable outcome.
+     *
+     * @return the status
+     */
+    @Benchmark
+    public Object templateWithOutcome() {
+        return this.template.execute(this.stateful, this.outcome);
+    }
+
+    private static StatefulContentionBenchmark.LockableStateful flip(final StatefulContentionBenchmark.LockableStateful stateful) {
+        return stateful.transitionTo(
+                stateful.state() == StatefulContentionBenchmark.Toggle.ON
+                        ? StatefulContentionBenchmark.Toggle.OFF
+                        : StatefulContentionBenchmark.Toggle.ON
+        );
+    }
+}
@@ -0,0 +1,120 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reads and transitions of a single stateful instance that is shared between all available cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(Threads.MAX)
+@Fork(1)
+public class StatefulContentionBenchmark {
+
+    @Param({"synchronized", "lockable", "atomic"})
+    private String implementation;
+
+    private MutableStateful<Toggle, ?> stateful;
+
+    /**
+     * Creates the shared instance.
+     */
+    @Setup
+    public void setup() {
+        this.stateful = switch (this.implementation) {
+            case "synchronized" -> new SynchronizedStateful();
+            case "lockable" -> new LockableStateful();
+            case "atomic" -> new AtomicStateful();
+            default -> throw new IllegalArgumentException(this.implementation);
+        };
+    }
+
+    /**
+     * Reads the current state.
+     *
+     * @return the state
+     */
+    @Benchmark
+    public Toggle read() {
+        return this.stateful.state();
+    }
+
+    /**
+     * Flips the current state.
+     *
+     * @return the instance
+     */
+    @Benchmark
+    public Object transitionTo() {
+        return this.stateful.transitionTo(this.stateful.state() == Toggle.ON ? Toggle.OFF : Toggle.ON);
+    }
+
+    enum Toggle implements org.incendo.state.State<Toggle> {
+        ON,
+        OFF;
+
+        @Override
+        public States<Toggle> allowedTransitions() {
+            return States.ofEnum(ON, OFF);
+        }
+    }
+
+    static final class SynchronizedStateful extends AbstractStateful<Toggle, SynchronizedStateful> {
+
+        SynchronizedStateful() {
+            super(Toggle.OFF);
+        }
+    }
+
+    static final class LockableStateful extends AbstractLockableStateful<Toggle, LockableStateful> {
+
+        LockableStateful() {
+            super(Toggle.OFF);
+        }
+    }
+
+    static final class AtomicStateful extends AbstractAtomicStateful<Toggle, AtomicStateful> {
+
+        AtomicStateful() {
+            super(Toggle.OFF);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link States#contains(org.incendo.state.State)} as the number of outgoing edges of a state grows.
+ *
+ * <p>{@code list} is the linear {@link List#contains(Object)} scan that {@code States.of(S...)} used to perform,
+ * and acts as the baseline.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatesContainsBenchmark {
+
+    @Param({"2", "4", "8", "16", "32", "48"})
+    private int size;
+
+    private List<NodeState> list;
+    private States<NodeState> states;
+    private States<EnumState> enumStates;
+
+    private NodeState hit;
+    private NodeState miss;
+    private EnumState enumHit;
+    private EnumState enumMiss;
+
+    /**
+     * Creates the state sets.
+     */
+    @Setup
+    public void setup() {
+        final List<NodeState> nodes = new ArrayList<>();
+        for (int id = 0; id < this.size; id++) {
+            nodes.add(new NodeState(id));
+        }
+        this.list = List.copyOf(nodes);
+        this.states = States.of(nodes);
+        // Equal, but not identical, so that the identity fast path is not hit.
+        this.hit = new NodeState(this.size - 1);
+        this.miss = new NodeState(this.size);
+
+        final EnumState[] universe = EnumState.values();
+        this.enumStates = States.ofEnum(universe[0], Arrays.copyOfRange(universe, 1, this.size));
+        this.enumHit = universe[this.size - 1];
+        this.enumMiss = universe[universe.length - 1];
+    }
+
+    /**
+     * Baseline: linear scan of a list.
+     *
+     * @return whether the state was found
+     */
+    @Benchmark
+    public boolean listHit() {
+        return this.list.contains(this.hit);
+    }
+
+    /**
+     * Baseline: linear scan of a list.
+     *
+     * @return whether the state was found
+     */
+    @Benchmark
+    public boolean listMiss() {
+        return this.list.contains(this.miss);
+    }
+
+    /**
+     * Contains check on the implementation picked by {@link States#of(java.util.Collection)}.
+     *
+     * @return whether the state was found
+     */
+    @Benchmark
+    public boolean statesHit() {
+        return this.states.contains(this.hit);
+    }
+
+    /**
+     * Contains check on the implementation picked by {@link States#of(java.util.Collection)}.
+     *
+     * @return whether the state was found
+     */
+    @Benchmark
+    public boolean statesMiss() {
+        return this.states.contains(this.miss);
+    }
+
+    /**
+     * Contains check on the enum bitmask implementation.
+     *
+     * @return whether the state was found
+     */
+    @Benchmark
+    public boolean enumHit() {
+        return this.enumStates.contains(this.enumHit);
+    }
+
+    /**
+     * Contains check on the enum bitmask implementation.
+     *
+     * @return whether the state was found
+     */
+    @Benchmark
+    public boolean enumMiss() {
+        return this.enumStates.contains(this.enumMiss);
+    }
+
+
+    record NodeState(int id) implements org.incendo.state.State<NodeState> {
+    }
+
+    enum EnumState implements org.incendo.state.State<EnumState> {
+        S0, S1, S2, S3, S4, S5, S6, S7, S8, S9,
+        S10, S11, S12, S13, S14, S15, S16, S17, S18, S19,
+        S20, S21, S22, S23, S24, S25, S26, S27, S28, S29,
+        S30, S31, S32, S33, S34, S35, S36, S37, S38, S39,
+        S40, S41, S42, S43, S44, S45, S46, S47, S48, S49,
+        S50, S51, S52, S53, S54, S55, S56, S57, S58, S59,
+        S60, S61, S62, S63
+    }
+}
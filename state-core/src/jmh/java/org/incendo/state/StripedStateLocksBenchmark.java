@@ -0,0 +1,124 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures transitions of random instances, shared between all available cores, as the number of lock stripes grows.
+ *
+ * <p>A stripe count of {@code 0} gives every instance its own lock, and acts as the baseline. Run {@link #create()} with
+ * {@code -prof gc} to compare the memory allocated per instance.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(Threads.MAX)
+@Fork(1)
+public class StripedStateLocksBenchmark {
+
+    private static final int INSTANCES = 4096;
+
+    @Param({"0", "1", "4", "16", "64", "256"})
+    private int stripes;
+
+    private StripedStateLocks locks;
+    private ToggleStateful[] instances;
+
+    /**
+     * Creates the instances.
+     */
+    @Setup
+    public void setup() {
+        this.locks = this.stripes == 0 ? null : StripedStateLocks.create(this.stripes);
+        this.instances = new ToggleStateful[INSTANCES];
+        for (int index = 0; index < INSTANCES; index++) {
+            this.instances[index] = this.create();
+        }
+    }
+
+    /**
+     * Creates an instance, with its own lock or a pooled one.
+     *
+     * @return the instance
+     */
+    @Benchmark
+    public ToggleStateful create() {
+        return this.locks == null ? new ToggleStateful() : new ToggleStateful(this.locks);
+    }
+
+    /**
+     * Flips the state of a random instance.
+     *
+     * @return the instance
+     */
+    @Benchmark
+    public Object transitionTo() {
+        final ToggleStateful instance = this.instances[ThreadLocalRandom.current().nextInt(INSTANCES)];
+        return instance.transitionTo(instance.state() == StatefulContentionBenchmark.Toggle.ON
+                ? StatefulContentionBenchmark.Toggle.OFF
+                : StatefulContentionBenchmark.Toggle.ON);
+    }
+
+    /**
+     * Flips the state of a random instance inside an interaction, which holds the lock for the whole interaction.
+     *
+     * @return the result
+     */
+    @Benchmark
+    public Object interaction() {
+        return this.instances[ThreadLocalRandom.current().nextInt(INSTANCES)].interact()
+                .incomingStates(States.ofEnum(StatefulContentionBenchmark.Toggle.ON, StatefulContentionBenchmark.Toggle.OFF))
+                .interaction(instance -> instance.transitionTo(instance.state() == StatefulContentionBenchmark.Toggle.ON
+                        ? StatefulContentionBenchmark.Toggle.OFF
+                        : StatefulContentionBenchmark.Toggle.ON))
+                .execute();
+    }
+
+    static final class ToggleStateful extends AbstractLockableStateful<StatefulContentionBenchmark.Toggle, ToggleStateful> {
+
+        ToggleStateful() {
+            super(StatefulContentionBenchmark.Toggle.OFF);
+        }
+
+        ToggleStateful(final StripedStateLocks locks) {
+            super(locks, StatefulContentionBenchmark.Toggle.OFF);
+        }
+    }
+}
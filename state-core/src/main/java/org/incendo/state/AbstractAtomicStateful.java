@@ -0,0 +1,298 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.common.returnsreceiver.qual.This;
+
+/**
+ * A lock-free implementation of {@link MutableStateful}.
+ *
+ * <p>The state is read with acquire semantics and updated using compare-and-set, so that no thread ever blocks
+ * another. {@link #transition(State, State)} is a single compare-and-set, and {@link #transitionTo(State)} validates
+ * the transition and retries if the state was changed concurrently.</p>
+ *
+ * <p>Unlike {@link AbstractStateful}, this does not support exclusive access to the state while performing other work.
+ * Use {@link AbstractLockableStateful} if the instance is going to be used in a {@link StateInteraction}.</p>
+ *
+ * @param <U> state type
+ * @param <V> self-referencing type
+ * @since 1.1.0
+ */
+@API(status = API.Status.STABLE, since = "1.1.0")
+public abstract class AbstractAtomicStateful<U extends State<U>, V extends AbstractAtomicStateful<U, V>> implements MutableStateful<U, V> {
+
+    private static final VarHandle STATE;
+    private static final VarHandle WAITERS;
+
+    static {
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            STATE = lookup.findVarHandle(AbstractAtomicStateful.class, "state", State.class);
+            WAITERS = lookup.findVarHandle(AbstractAtomicStateful.class, "waiters", StateWaiters.class);
+        } catch (final ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final @Nullable StateMachine<U> stateMachine;
+    private volatile U state;
+    private volatile @Nullable StateWaiters<U> waiters;
+    private volatile @Nullable TransitionListeners<U> listeners;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param initialState initial state
+     */
+    protected AbstractAtomicStateful(final @NonNull U initialState) {
+        this.stateMachine = null;
+        this.state = Objects.requireNonNull(initialState, "initialState");
+    }
+
+    /**
+     * Creates a new instance that validates transitions using the given {@code stateMachine}.
+     *
+     * @param stateMachine state machine
+     * @param initialState initial state
+     * @throws IllegalArgumentException if the initial state is not part of the state machine
+     */
+    protected AbstractAtomicStateful(final @NonNull StateMachine<U> stateMachine, final @NonNull U initialState) {
+        this.stateMachine = Objects.requireNonNull(stateMachine, "stateMachine");
+        this.state = Objects.requireNonNull(initialState, "initialState");
+        if (!stateMachine.contains(initialState)) {
+            throw new IllegalArgumentException(String.format("State %s is not part of %s", initialState, stateMachine));
+        }
+    }
+
+    /**
+     * Returns the state machine that is used to validate transitions, if any.
+     *
+     * @return the state machine, or {@code null}
+     */
+    public final @Nullable StateMachine<U> stateMachine() {
+        return this.stateMachine;
+    }
+
+    /**
+     * Returns the listeners that are invoked when this instance transitions, in addition to the global listeners of
+     * the {@link #stateMachine()}.
+     *
+     * @return the listeners, or {@code null}
+     */
+    public final @Nullable TransitionListeners<U> listeners() {
+        return this.listeners;
+    }
+
+    /**
+     * Sets the listeners that are invoked when this instance transitions, in addition to the global listeners of
+     * the {@link #stateMachine()}.
+     *
+     * @param listeners listeners, or {@code null} to remove them
+     * @return {@code this}
+     */
+    @SuppressWarnings("unchecked")
+    public final @This @NonNull V listeners(final @Nullable TransitionListeners<U> listeners) {
+        this.listeners = listeners;
+        return (V) this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @NonNull U state() {
+        return (U) STATE.getAcquire(this);
+    }
+
+    @Override
+    public boolean canTransitionTo(final @NonNull U state) {
+        return this.canTransition(this.state(), state);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @This @NonNull V transitionTo(final @NonNull U state) throws IllegalStateTransitionException {
+        Objects.requireNonNull(state, "state");
+        while (true) {
+            final U currentState = this.state();
+            if (!this.canTransition(currentState, state)) {
+                throw new IllegalStateTransitionException(currentState, state, this);
+            }
+            if (STATE.compareAndSet(this, currentState, state)) {
+                this.transitioned(currentState, state);
+                return (V) this;
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @This @NonNull V transition(final @NonNull U currentState, final @NonNull U newState)
+            throws UnexpectedStateException, IllegalStateTransitionException {
+        Objects.requireNonNull(currentState, "currentState");
+        Objects.requireNonNull(newState, "newState");
+        while (true) {
+            final U actualState = this.state();
+            if (!actualState.equals(currentState)) {
+                throw new UnexpectedStateException(States.of(currentState), actualState, this);
+            }
+            if (!this.canTransition(actualState, newState)) {
+                throw new IllegalStateTransitionException(actualState, newState, this);
+            }
+            if (STATE.compareAndSet(this, actualState, newState)) {
+                this.transitioned(actualState, newState);
+                return (V) this;
+            }
+        }
+    }
+
+    @Override
+    public @NonNull TransitionResult tryTransitionTo(final @NonNull U state) {
+        Objects.requireNonNull(state, "state");
+        while (true) {
+            final U currentState = this.state();
+            if (!this.canTransition(currentState, state)) {
+                return TransitionResult.ILLEGAL_TRANSITION;
+            }
+            if (STATE.compareAndSet(this, currentState, state)) {
+                this.transitioned(currentState, state);
+                return TransitionResult.SUCCESS;
+            }
+        }
+    }
+
+    @Override
+    public @NonNull TransitionResult tryTransition(final @NonNull U currentState, final @NonNull U newState) {
+        Objects.requireNonNull(currentState, "currentState");
+        Objects.requireNonNull(newState, "newState");
+        while (true) {
+            final U actualState = this.state();
+            if (!actualState.equals(currentState)) {
+                return TransitionResult.UNEXPECTED_STATE;
+            }
+            if (!this.canTransition(actualState, newState)) {
+                return TransitionResult.ILLEGAL_TRANSITION;
+            }
+            if (STATE.compareAndSet(this, actualState, newState)) {
+                this.transitioned(actualState, newState);
+                return TransitionResult.SUCCESS;
+            }
+        }
+    }
+
+    /**
+     * Transitions into the {@code newState} if the current state is the {@code currentState}, without validating the
+     * transition.
+     *
+     * <p>The caller must have validated the transition using {@link #canTransition(State, State)}. Unlike
+     * {@link #transition(State, State)}, this never constructs an exception.</p>
+     *
+     * @param currentState expected current state
+     * @param newState     new state
+     * @return {@code true} if the state was transitioned, {@code false} if the actual state is not the {@code currentState}
+     */
+    final boolean tryTransitionUnchecked(final @NonNull U currentState, final @NonNull U newState) {
+        while (true) {
+            final U actualState = this.state();
+            if (!actualState.equals(currentState)) {
+                return false;
+            }
+            if (STATE.compareAndSet(this, actualState, newState)) {
+                this.transitioned(actualState, newState);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns a future that is completed once this instance reaches any of the given {@code states}.
+     *
+     * <p>If the current state is one of the given states then the returned future is already completed. Otherwise, it
+     * is completed by the thread that performs the transition. Cancelling the returned future unregisters it.</p>
+     *
+     * @param states states to wait for
+     * @return future completed with the state that was reached
+     */
+    public final @NonNull CompletableFuture<U> onState(final @NonNull States<U> states) {
+        return this.waiters().register(states, this::state);
+    }
+
+    /**
+     * Blocks until this instance reaches any of the given {@code states}, or until the {@code timeout} expires.
+     *
+     * <p>The waiting thread is woken by the transition into the state, and does not poll the state.</p>
+     *
+     * @param states  states to wait for
+     * @param timeout maximum time to wait
+     * @return the state that was reached
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     * @throws TimeoutException     if none of the states was reached before the timeout expired
+     */
+    public final @NonNull U awaitState(final @NonNull States<U> states, final @NonNull Duration timeout)
+            throws InterruptedException, TimeoutException {
+        Objects.requireNonNull(timeout, "timeout");
+        return StateWaiters.await(this.onState(states), timeout);
+    }
+
+    @SuppressWarnings("unchecked")
+    private @NonNull StateWaiters<U> waiters() {
+        final StateWaiters<U> waiters = this.waiters;
+        if (waiters != null) {
+            return waiters;
+        }
+        final StateWaiters<U> createdWaiters = new StateWaiters<>();
+        final StateWaiters<U> witness = (StateWaiters<U>) WAITERS.compareAndExchange(this, null, createdWaiters);
+        return witness == null ? createdWaiters : witness;
+    }
+
+    private void transitioned(final @NonNull U from, final @NonNull U to) {
+        final StateWaiters<U> waiters = this.waiters;
+        if (waiters != null) {
+            waiters.notify(to);
+        }
+        TransitionListeners.dispatch(this.stateMachine, this.listeners, this, from, to);
+    }
+
+    /**
+     * Returns whether the state {@code from} can transition into the state {@code to}.
+     *
+     * @param from current state
+     * @param to   new state
+     * @return {@code true} if the state transition is allowed, {@code false} if not
+     */
+    final boolean canTransition(final @NonNull U from, final @NonNull U to) {
+        final StateMachine<U> stateMachine = this.stateMachine;
+        if (stateMachine == null) {
+            return from.allowedTransitions().contains(to);
+        }
+        return stateMachine.canTransition(from, to);
+    }
+}
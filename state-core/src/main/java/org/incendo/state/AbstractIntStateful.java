@@ -0,0 +1,179 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.common.returnsreceiver.qual.This;
+
+/**
+ * A thread-safe implementation of {@link MutableStateful} that stores its state as an int id.
+ *
+ * <p>The ids are resolved using the {@link #stateSpace()}, and transitions are validated using the transition table of
+ * the space. Apart from the object header, the only per-instance storage is a single {@code int}, which makes this
+ * suitable for very large numbers of entities. The state is decoded when {@link #state()} is invoked.</p>
+ *
+ * <p>The id is updated using compare-and-set, so no thread ever blocks.</p>
+ *
+ * @param <U> state type
+ * @param <V> self-referencing type
+ * @since 1.1.0
+ */
+@API(status = API.Status.STABLE, since = "1.1.0")
+public abstract class AbstractIntStateful<U extends State<U>, V extends AbstractIntStateful<U, V>> implements MutableStateful<U, V> {
+
+    private static final VarHandle STATE_ID;
+
+    static {
+        try {
+            STATE_ID = MethodHandles.lookup().findVarHandle(AbstractIntStateful.class, "stateId", int.class);
+        } catch (final ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile int stateId;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param initialState initial state
+     * @throws IllegalArgumentException if the initial state is not part of the {@link #stateSpace()}
+     */
+    protected AbstractIntStateful(final @NonNull U initialState) {
+        Objects.requireNonNull(initialState, "initialState");
+        final StateSpace<U> stateSpace = this.stateSpace();
+        final int stateId = stateSpace.id(initialState);
+        if (stateId < 0) {
+            throw new IllegalArgumentException(String.format("State %s is not part of %s", initialState, stateSpace));
+        }
+        this.stateId = stateId;
+    }
+
+    /**
+     * Returns the state space that the state is encoded with.
+     *
+     * <p>This is invoked from the constructor, and should return a shared instance, such as a constant, rather than
+     * depending on any instance fields. It must return the same instance every time it is invoked.</p>
+     *
+     * @return the state space
+     */
+    protected abstract @NonNull StateSpace<U> stateSpace();
+
+    /**
+     * Returns the id of the current state in the {@link #stateSpace()}.
+     *
+     * @return the state id
+     */
+    public final int stateId() {
+        return this.stateId;
+    }
+
+    @Override
+    public @NonNull U state() {
+        return this.stateSpace().state(this.stateId);
+    }
+
+    @Override
+    public boolean canTransitionTo(final @NonNull U state) {
+        final StateSpace<U> stateSpace = this.stateSpace();
+        final int stateId = stateSpace.id(state);
+        return stateId >= 0 && stateSpace.canTransition(this.stateId, stateId);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @This @NonNull V transitionTo(final @NonNull U state) throws IllegalStateTransitionException {
+        Objects.requireNonNull(state, "state");
+        final StateSpace<U> stateSpace = this.stateSpace();
+        final int stateId = stateSpace.id(state);
+        while (true) {
+            final int currentStateId = this.stateId;
+            if (stateId < 0 || !stateSpace.canTransition(currentStateId, stateId)) {
+                throw new IllegalStateTransitionException(stateSpace.state(currentStateId), state, this);
+            }
+            if (STATE_ID.compareAndSet(this, currentStateId, stateId)) {
+                return (V) this;
+            }
+        }
+    }
+
+    @Override
+    public @NonNull TransitionResult tryTransitionTo(final @NonNull U state) {
+        Objects.requireNonNull(state, "state");
+        final StateSpace<U> stateSpace = this.stateSpace();
+        final int stateId = stateSpace.id(state);
+        while (true) {
+            final int currentStateId = this.stateId;
+            if (stateId < 0 || !stateSpace.canTransition(currentStateId, stateId)) {
+                return TransitionResult.ILLEGAL_TRANSITION;
+            }
+            if (STATE_ID.compareAndSet(this, currentStateId, stateId)) {
+                return TransitionResult.SUCCESS;
+            }
+        }
+    }
+
+    @Override
+    public @NonNull TransitionResult tryTransition(final @NonNull U currentState, final @NonNull U newState) {
+        Objects.requireNonNull(currentState, "currentState");
+        Objects.requireNonNull(newState, "newState");
+        final StateSpace<U> stateSpace = this.stateSpace();
+        final int currentStateId = stateSpace.id(currentState);
+        final int newStateId = stateSpace.id(newState);
+        do {
+            if (this.stateId != currentStateId) {
+                return TransitionResult.UNEXPECTED_STATE;
+            }
+            if (newStateId < 0 || !stateSpace.canTransition(currentStateId, newStateId)) {
+                return TransitionResult.ILLEGAL_TRANSITION;
+            }
+        } while (!STATE_ID.compareAndSet(this, currentStateId, newStateId));
+        return TransitionResult.SUCCESS;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @This @NonNull V transition(final @NonNull U currentState, final @NonNull U newState)
+            throws UnexpectedStateException, IllegalStateTransitionException {
+        Objects.requireNonNull(currentState, "currentState");
+        Objects.requireNonNull(newState, "newState");
+        final StateSpace<U> stateSpace = this.stateSpace();
+        final int currentStateId = stateSpace.id(currentState);
+        final int newStateId = stateSpace.id(newState);
+        do {
+            final int actualStateId = this.stateId;
+            if (actualStateId != currentStateId) {
+                throw new UnexpectedStateException(States.of(currentState), stateSpace.state(actualStateId), this);
+            }
+            if (newStateId < 0 || !stateSpace.canTransition(currentStateId, newStateId)) {
+                throw new IllegalStateTransitionException(currentState, newState, this);
+            }
+        } while (!STATE_ID.compareAndSet(this, currentStateId, newStateId));
+        return (V) this;
+    }
+}
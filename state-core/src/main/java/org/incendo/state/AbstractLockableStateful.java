@@ -23,14 +23,18 @@
 //
 package org.incendo.state;
 
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.Objects;
 import org.apiguardian.api.API;
 import org.checkerframework.checker.nullness.qual.NonNull;
-import org.checkerframework.common.returnsreceiver.qual.This;
 
 /**
- * Implementation of {@link AbstractStateful} which can be locked using a {@link ReentrantReadWriteLock}.
+ * Implementation of {@link AbstractStateful} which is guarded by a lock that can be held exclusively, for example while
+ * executing a {@link StateInteraction}.
+ *
+ * <p>{@link #state()} uses an optimistic read, and only blocks while another thread holds the lock, so that readers
+ * never observe the intermediate states of an interaction. Every operation acquires at most one lock.</p>
+ *
+ * <p>Every instance owns a lock, unless it is created using a {@link StripedStateLocks} pool.</p>
  *
  * @param <U> state type
  * @param <V> self-referencing type
@@ -40,56 +44,71 @@ import org.checkerframework.common.returnsreceiver.qual.This;
 public abstract class AbstractLockableStateful<U extends State<U>, V extends AbstractLockableStateful<U, V>>
         extends AbstractStateful<U, V> {
 
-    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-    private final Lock readLock = this.lock.readLock();
-    private final Lock writeLock = this.lock.writeLock();
-
     /**
      * Creates a new instance.
      *
      * @param initialState initial state
      */
     protected AbstractLockableStateful(final @NonNull U initialState) {
-        super(initialState);
+        super(new StateLock(), null, initialState);
     }
 
-    @Override
-    public @This @NonNull V transition(final @NonNull U currentState, final @NonNull U newState) throws UnexpectedStateException,
-            IllegalStateTransitionException {
-        this.writeLock.lock();
-        try {
-            return super.transition(currentState, newState);
-        } finally {
-            this.writeLock.unlock();
-        }
+    /**
+     * Creates a new instance that validates transitions using the given {@code stateMachine}.
+     *
+     * @param stateMachine state machine
+     * @param initialState initial state
+     * @throws IllegalArgumentException if the initial state is not part of the state machine
+     * @since 1.1.0
+     */
+    protected AbstractLockableStateful(final @NonNull StateMachine<U> stateMachine, final @NonNull U initialState) {
+        super(new StateLock(), Objects.requireNonNull(stateMachine, "stateMachine"), initialState);
     }
 
-    @Override
-    public @This @NonNull V transitionTo(final @NonNull U state) throws IllegalStateTransitionException {
-        this.writeLock.lock();
-        try {
-            return super.transitionTo(state);
-        } finally {
-            this.writeLock.unlock();
-        }
+    /**
+     * Creates a new instance that uses a lock from the given {@code locks}, picked using the identity hash code of the
+     * instance.
+     *
+     * @param locks        lock pool
+     * @param initialState initial state
+     * @since 1.1.0
+     */
+    protected AbstractLockableStateful(final @NonNull StripedStateLocks locks, final @NonNull U initialState) {
+        super(Objects.requireNonNull(locks, "locks"), null, initialState);
+    }
+
+    /**
+     * Creates a new instance that uses a lock from the given {@code locks}, picked using the hash code of the given
+     * {@code key}.
+     *
+     * <p>Instances with equal keys always share a lock.</p>
+     *
+     * @param locks        lock pool
+     * @param key          key used to pick the lock
+     * @param initialState initial state
+     * @since 1.1.0
+     */
+    protected AbstractLockableStateful(final @NonNull StripedStateLocks locks, final @NonNull Object key, final @NonNull U initialState) {
+        super(Objects.requireNonNull(locks, "locks").lock(Objects.requireNonNull(key, "key").hashCode()), null, initialState);
     }
 
     @Override
     public @NonNull U state() {
-        this.readLock.lock();
+        final StateLock lock = this.lock();
+        final long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            final U state = this.unsynchronizedState();
+            if (lock.validate(stamp)) {
+                return state;
+            }
+        } else if (lock.isHeldByCurrentThread()) {
+            return this.unsynchronizedState();
+        }
+        final long readStamp = lock.readLock(this.metrics());
         try {
-            return super.state();
+            return this.unsynchronizedState();
         } finally {
-            this.readLock.unlock();
+            lock.unlockRead(readStamp);
         }
     }
-
-    /**
-     * Returns the lock.
-     *
-     * @return the lock
-     */
-    @NonNull ReentrantReadWriteLock lock() {
-        return this.lock;
-    }
 }
@@ -23,6 +23,8 @@
 //
 package org.incendo.state;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.Objects;
 import org.apiguardian.api.API;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -30,6 +32,16 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 @API(status = API.Status.STABLE, since = "1.0.0")
 public abstract class AbstractState<S extends AbstractState<S>> implements State<S> {
 
+    private static final VarHandle ALLOWED_TRANSITIONS;
+
+    static {
+        try {
+            ALLOWED_TRANSITIONS = MethodHandles.lookup().findVarHandle(AbstractState.class, "allowedTransitions", States.class);
+        } catch (final ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private States<S> allowedTransitions;
 
     /**
@@ -50,19 +62,45 @@ public abstract class AbstractState<S extends AbstractState<S>> implements State
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public @NonNull States<S> allowedTransitions() {
-        if (this.allowedTransitions == null) {
-            synchronized (this) {
-                this.allowedTransitions = Objects.requireNonNull(this.configureAllowedTransitions(), "allowedTransitions");
-            }
+        final States<S> allowedTransitions = (States<S>) ALLOWED_TRANSITIONS.getAcquire(this);
+        if (allowedTransitions != null) {
+            return allowedTransitions;
+        }
+        return this.initializeAllowedTransitions();
+    }
+
+    @SuppressWarnings("unchecked")
+    private @NonNull States<S> initializeAllowedTransitions() {
+        final States<S> configuredTransitions = Objects.requireNonNull(this.configureAllowedTransitions(), "allowedTransitions");
+        final States<S> witness = (States<S>) ALLOWED_TRANSITIONS.compareAndExchangeRelease(this, null, configuredTransitions);
+        return witness == null ? configuredTransitions : witness;
+    }
+
+    /**
+     * Replaces the allowed transitions with their {@link States#canonical(States) canonical} instance.
+     *
+     * <p>This is invoked by {@link StateMachine} once it has resolved the transitions of the state, so that states that
+     * share a transition set share one instance without resolving lazy transitions any earlier.</p>
+     */
+    final void internAllowedTransitions() {
+        final States<S> allowedTransitions = this.allowedTransitions();
+        final States<S> canonical = States.canonical(allowedTransitions);
+        if (canonical != allowedTransitions) {
+            ALLOWED_TRANSITIONS.compareAndSet(this, allowedTransitions, canonical);
         }
-        return this.allowedTransitions;
     }
 
     /**
      * Returns the allowed transitions for this state.
      *
-     * <p>This is invoked the first time {@link #allowedTransitions()} is invoked.</p>
+     * <p>This is invoked the first time {@link #allowedTransitions()} is invoked. If multiple threads race to
+     * initialize the transitions then this may be invoked more than once, but only the first result is ever
+     * published.</p>
+     *
+     * <p>The returned states are {@link States#canonical(States) interned} once the state is compiled into a
+     * {@link StateMachine}.</p>
      *
      * @return allowed transitions
      */
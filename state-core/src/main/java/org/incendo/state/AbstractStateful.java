@@ -23,14 +23,34 @@
 //
 package org.incendo.state;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 import org.apiguardian.api.API;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.common.returnsreceiver.qual.This;
 
 /**
  * A thread-safe implementation of {@link MutableStateful}.
  *
+ * <p>Transitions are validated against {@link State#allowedTransitions()}, unless the instance is created with a
+ * {@link StateMachine}, in which case they are validated using the compiled transition table of the machine.</p>
+ *
+ * <p>The state is read without locking. Transitions are serialized using a lock that is owned by the instance, and
+ * created the first time the instance is transitioned. The lock is not a monitor, so threads that block while holding
+ * it, including virtual threads, never pin their carrier thread. Likewise, transitions do not synchronize on the
+ * instance, so subclasses that synchronize on {@code this} are not mutually exclusive with transitions.</p>
+ *
+ * <p>Instances of {@link AbstractLockableStateful} may instead share locks from a {@link StripedStateLocks pool}.</p>
+ *
+ * <p>If a subclass overrides {@link #transitionTo(State)}, then {@link #transition(State, State)} validates the current
+ * state and invokes the override while holding the lock, so that listeners of such transitions are notified before the
+ * lock is released.</p>
+ *
  * @param <U> state type
  * @param <V> self-referencing type
  * @since 1.0.0
@@ -39,7 +59,34 @@ import org.checkerframework.common.returnsreceiver.qual.This;
 @API(status = API.Status.STABLE, since = "1.0.0")
 public abstract class AbstractStateful<U extends State<U>, V extends AbstractStateful<U, V>> implements MutableStateful<U, V> {
 
-    private U state;
+    private static final VarHandle LOCK;
+    private static final VarHandle WAITERS;
+    private static final ClassValue<Boolean> OVERRIDES_TRANSITION_TO = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(final @NonNull Class<?> type) {
+            try {
+                return type.getMethod("transitionTo", State.class).getDeclaringClass() != AbstractStateful.class;
+            } catch (final NoSuchMethodException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    };
+
+    static {
+        try {
+            LOCK = MethodHandles.lookup().findVarHandle(AbstractStateful.class, "lock", StateLock.class);
+            WAITERS = MethodHandles.lookup().findVarHandle(AbstractStateful.class, "waiters", StateWaiters.class);
+        } catch (final ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile @Nullable StateLock lock;
+    private final @Nullable StateMachine<U> stateMachine;
+    private volatile U state;
+    private volatile @Nullable StateWaiters<U> waiters;
+    private volatile @Nullable TransitionListeners<U> listeners;
+    private volatile @Nullable TransitionHistory<U> history;
 
     /**
      * Creates a new instance.
@@ -47,32 +94,461 @@ public abstract class AbstractStateful<U extends State<U>, V extends AbstractSta
      * @param initialState initial state
      */
     protected AbstractStateful(final @NonNull U initialState) {
-        this.state = Objects.requireNonNull(initialState, "initialState");
+        this((StateLock) null, null, initialState);
+    }
+
+    /**
+     * Creates a new instance that validates transitions using the given {@code stateMachine}.
+     *
+     * @param stateMachine state machine
+     * @param initialState initial state
+     * @throws IllegalArgumentException if the initial state is not part of the state machine
+     * @since 1.1.0
+     */
+    protected AbstractStateful(final @NonNull StateMachine<U> stateMachine, final @NonNull U initialState) {
+        this((StateLock) null, Objects.requireNonNull(stateMachine, "stateMachine"), initialState);
+    }
+
+    /**
+     * Creates a new instance that is guarded by a lock from the given {@code locks}, picked using the identity hash
+     * code of the instance.
+     *
+     * @param locks        lock pool
+     * @param stateMachine state machine, or {@code null} to validate transitions using {@link State#allowedTransitions()}
+     * @param initialState initial state
+     * @throws IllegalArgumentException if the initial state is not part of the state machine
+     */
+    AbstractStateful(
+            final @NonNull StripedStateLocks locks,
+            final @Nullable StateMachine<U> stateMachine,
+            final @NonNull U initialState
+    ) {
+        this.lock = locks.lock(System.identityHashCode(this));
+        this.stateMachine = stateMachine;
+        this.state = this.validateInitialState(initialState);
+    }
+
+    /**
+     * Creates a new instance that is guarded by the given {@code lock}.
+     *
+     * @param lock         lock, or {@code null} to create a lock for this instance the first time it is needed
+     * @param stateMachine state machine, or {@code null} to validate transitions using {@link State#allowedTransitions()}
+     * @param initialState initial state
+     * @throws IllegalArgumentException if the initial state is not part of the state machine
+     */
+    AbstractStateful(final @Nullable StateLock lock, final @Nullable StateMachine<U> stateMachine, final @NonNull U initialState) {
+        this.lock = lock;
+        this.stateMachine = stateMachine;
+        this.state = this.validateInitialState(initialState);
+    }
+
+    private @NonNull U validateInitialState(final @NonNull U initialState) {
+        Objects.requireNonNull(initialState, "initialState");
+        if (this.stateMachine != null && !this.stateMachine.contains(initialState)) {
+            throw new IllegalArgumentException(String.format("State %s is not part of %s", initialState, this.stateMachine));
+        }
+        return initialState;
+    }
+
+    /**
+     * Returns the state machine that is used to validate transitions, if any.
+     *
+     * @return the state machine, or {@code null}
+     * @since 1.1.0
+     */
+    public final @Nullable StateMachine<U> stateMachine() {
+        return this.stateMachine;
+    }
+
+    /**
+     * Returns the listeners that are invoked when this instance transitions, in addition to the global listeners of
+     * the {@link #stateMachine()}.
+     *
+     * @return the listeners, or {@code null}
+     * @since 1.1.0
+     */
+    public final @Nullable TransitionListeners<U> listeners() {
+        return this.listeners;
+    }
+
+    /**
+     * Sets the listeners that are invoked when this instance transitions, in addition to the global listeners of
+     * the {@link #stateMachine()}.
+     *
+     * @param listeners listeners, or {@code null} to remove them
+     * @return {@code this}
+     * @since 1.1.0
+     */
+    @SuppressWarnings("unchecked")
+    public final @This @NonNull V listeners(final @Nullable TransitionListeners<U> listeners) {
+        this.listeners = listeners;
+        return (V) this;
     }
 
     @Override
-    public synchronized @NonNull U state() {
+    public @NonNull U state() {
         return this.state;
     }
 
+    @Override
+    public boolean canTransitionTo(final @NonNull U state) {
+        final StateMachine<U> stateMachine = this.stateMachine;
+        if (stateMachine == null) {
+            return MutableStateful.super.canTransitionTo(state);
+        }
+        return stateMachine.canTransition(this.state(), state);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
-    public synchronized @This @NonNull V transitionTo(final @NonNull U state) throws IllegalStateTransitionException {
-        Objects.requireNonNull(state, "state");
-        if (!this.canTransitionTo(state)) {
-            throw new IllegalStateTransitionException(this.state, state, this);
+    public @This @NonNull V transitionTo(final @NonNull U state) throws IllegalStateTransitionException {
+        final U previousState;
+        this.lock().lock(this.metrics());
+        try {
+            previousState = this.unsynchronizedTransitionTo(state);
+        } finally {
+            this.lock().unlock();
         }
-        this.state = state;
+        this.transitioned(previousState, state);
         return (V) this;
     }
 
     @Override
-    public synchronized @This @NonNull V transition(final @NonNull U currentState, final @NonNull U newState)
+    @SuppressWarnings("unchecked")
+    public @This @NonNull V transition(final @NonNull U currentState, final @NonNull U newState)
+            throws UnexpectedStateException, IllegalStateTransitionException {
+        if (OVERRIDES_TRANSITION_TO.get(this.getClass())) {
+            return this.transitionUsingOverride(currentState, newState);
+        }
+        final U previousState;
+        this.lock().lock(this.metrics());
+        try {
+            previousState = this.unsynchronizedTransition(currentState, newState);
+        } finally {
+            this.lock().unlock();
+        }
+        this.transitioned(previousState, newState);
+        return (V) this;
+    }
+
+    /**
+     * Performs {@link #transition(State, State)} by invoking the {@link #transitionTo(State)} override of the subclass
+     * while holding the lock.
+     *
+     * @param currentState expected current state
+     * @param newState     new state
+     * @return {@code this}
+     * @throws UnexpectedStateException        if the actual state is different form the {@code currentState}
+     * @throws IllegalStateTransitionException if the state transition is not possible
+     */
+    private @NonNull V transitionUsingOverride(final @NonNull U currentState, final @NonNull U newState)
             throws UnexpectedStateException, IllegalStateTransitionException {
+        this.lock().lock(this.metrics());
+        try {
+            this.validateCurrentState(currentState);
+            return this.transitionTo(newState);
+        } finally {
+            this.lock().unlock();
+        }
+    }
+
+    @Override
+    public @NonNull TransitionResult tryTransitionTo(final @NonNull U state) {
+        Objects.requireNonNull(state, "state");
+        final U previousState;
+        this.lock().lock(this.metrics());
+        try {
+            previousState = this.state;
+            if (!this.isAllowed(previousState, state)) {
+                this.metrics().onIllegalTransition(previousState, state);
+                return TransitionResult.ILLEGAL_TRANSITION;
+            }
+            this.setState(previousState, state);
+        } finally {
+            this.lock().unlock();
+        }
+        this.transitioned(previousState, state);
+        return TransitionResult.SUCCESS;
+    }
+
+    @Override
+    public @NonNull TransitionResult tryTransition(final @NonNull U currentState, final @NonNull U newState) {
         Objects.requireNonNull(currentState, "currentState");
+        Objects.requireNonNull(newState, "newState");
+        this.lock().lock(this.metrics());
+        try {
+            final U actualState = this.state;
+            if (!actualState.equals(currentState)) {
+                this.metrics().onUnexpectedState(actualState);
+                return TransitionResult.UNEXPECTED_STATE;
+            }
+            if (!this.isAllowed(currentState, newState)) {
+                this.metrics().onIllegalTransition(currentState, newState);
+                return TransitionResult.ILLEGAL_TRANSITION;
+            }
+            this.setState(currentState, newState);
+        } finally {
+            this.lock().unlock();
+        }
+        this.transitioned(currentState, newState);
+        return TransitionResult.SUCCESS;
+    }
+
+    /**
+     * Starts recording the most recent transitions of this instance in a {@link TransitionHistory}.
+     *
+     * <p>The states are encoded using the {@link #stateMachine()}, or, if there is none, a machine compiled from the
+     * current state. Any previously recorded history is discarded. Instances that do not record their history do not
+     * perform any additional work when they transition.</p>
+     *
+     * @param capacity minimum number of transitions to retain
+     * @return the history
+     * @throws IllegalArgumentException if {@code capacity} is not positive, or greater than {@code 2^30}
+     * @since 1.1.0
+     */
+    public final @NonNull TransitionHistory<U> enableHistory(final int capacity) {
+        this.lock().lock();
+        try {
+            final StateMachine<U> stateMachine = this.stateMachine;
+            final TransitionHistory<U> history = new TransitionHistory<>(
+                    stateMachine == null ? StateMachine.compile(this.state) : stateMachine,
+                    capacity
+            );
+            this.history = history;
+            return history;
+        } finally {
+            this.lock().unlock();
+        }
+    }
+
+    /**
+     * Stops recording the transitions of this instance.
+     *
+     * @since 1.1.0
+     */
+    public final void disableHistory() {
+        this.history = null;
+    }
+
+    /**
+     * Returns the history of the most recent transitions of this instance, if it is being recorded.
+     *
+     * @return the history, or {@code null}
+     * @since 1.1.0
+     */
+    public final @Nullable TransitionHistory<U> history() {
+        return this.history;
+    }
+
+    /**
+     * Returns a future that is completed once this instance reaches any of the given {@code states}.
+     *
+     * <p>If the current state is one of the given states then the returned future is already completed. Otherwise, it
+     * is completed by the thread that performs the transition. Cancelling the returned future unregisters it.</p>
+     *
+     * @param states states to wait for
+     * @return future completed with the state that was reached
+     * @since 1.1.0
+     */
+    public final @NonNull CompletableFuture<U> onState(final @NonNull States<U> states) {
+        return this.waiters().register(states, this::state);
+    }
+
+    /**
+     * Blocks until this instance reaches any of the given {@code states}, or until the {@code timeout} expires.
+     *
+     * <p>The waiting thread is woken by the transition into the state, and does not poll the state.</p>
+     *
+     * @param states  states to wait for
+     * @param timeout maximum time to wait
+     * @return the state that was reached
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     * @throws TimeoutException     if none of the states was reached before the timeout expired
+     * @since 1.1.0
+     */
+    public final @NonNull U awaitState(final @NonNull States<U> states, final @NonNull Duration timeout)
+            throws InterruptedException, TimeoutException {
+        Objects.requireNonNull(timeout, "timeout");
+        return StateWaiters.await(this.onState(states), timeout);
+    }
+
+    @SuppressWarnings("unchecked")
+    private @NonNull StateWaiters<U> waiters() {
+        final StateWaiters<U> waiters = this.waiters;
+        if (waiters != null) {
+            return waiters;
+        }
+        final StateWaiters<U> createdWaiters = new StateWaiters<>();
+        final StateWaiters<U> witness = (StateWaiters<U>) WAITERS.compareAndExchange(this, null, createdWaiters);
+        return witness == null ? createdWaiters : witness;
+    }
+
+    /**
+     * Invoked after the state has transitioned, once the {@link #lock()} has been released by the transition.
+     *
+     * @param from previous state
+     * @param to   new state
+     */
+    final void transitioned(final @NonNull U from, final @NonNull U to) {
+        final StateWaiters<U> waiters = this.waiters;
+        if (waiters != null) {
+            waiters.notify(to);
+        }
+        TransitionListeners.dispatch(this.stateMachine, this.listeners, this, from, to);
+    }
+
+    /**
+     * Returns the lock that guards the state, creating it if the instance owns its lock and has not been locked before.
+     *
+     * @return the lock
+     */
+    @NonNull StateLock lock() {
+        final StateLock lock = this.lock;
+        if (lock != null) {
+            return lock;
+        }
+        final StateLock createdLock = new StateLock();
+        final StateLock witness = (StateLock) LOCK.compareAndExchange(this, null, createdLock);
+        return witness == null ? createdLock : witness;
+    }
+
+    /**
+     * Returns the metrics of the {@link #stateMachine()}, or {@link TransitionMetrics#noop()} if there is none.
+     *
+     * @return the metrics
+     */
+    final @NonNull TransitionMetrics<U> metrics() {
+        final StateMachine<U> stateMachine = this.stateMachine;
+        return stateMachine == null ? TransitionMetrics.noop() : stateMachine.metrics();
+    }
+
+    /**
+     * Returns the current state without any synchronization.
+     *
+     * <p>Subclasses that block readers while the {@link #lock()} is held use this to read the state once they
+     * have established that no write is in progress.</p>
+     *
+     * @return the current state
+     */
+    final @NonNull U unsynchronizedState() {
+        return this.state;
+    }
+
+    /**
+     * Performs {@link #transitionTo(State)} without any synchronization.
+     *
+     * <p>The caller must hold the {@link #lock()}.</p>
+     *
+     * @param state new state
+     * @return the previous state
+     * @throws IllegalStateTransitionException if the state transition is not possible
+     */
+    final @NonNull U unsynchronizedTransitionTo(final @NonNull U state) throws IllegalStateTransitionException {
+        Objects.requireNonNull(state, "state");
+        final U previousState = this.state;
+        if (!this.isAllowed(previousState, state)) {
+            this.metrics().onIllegalTransition(previousState, state);
+            throw new IllegalStateTransitionException(previousState, state, this);
+        }
+        this.setState(previousState, state);
+        return previousState;
+    }
+
+    /**
+     * Sets the state, reports the transition to the {@link #metrics()}, and records it in the {@link #history()} if it is
+     * being recorded.
+     *
+     * <p>The caller must hold the {@link #lock()}.</p>
+     *
+     * @param from previous state
+     * @param to   new state
+     */
+    private void setState(final @NonNull U from, final @NonNull U to) {
+        this.state = to;
+        this.metrics().onTransition(from, to);
+        final TransitionHistory<U> history = this.history;
+        if (history != null) {
+            history.record(from, to);
+        }
+    }
+
+    /**
+     * Returns whether the current state {@code from} can transition into the state {@code to}, as validated by
+     * {@link #transitionTo(State)}.
+     *
+     * <p>The caller must hold the {@link #lock()}.</p>
+     *
+     * @param from current state
+     * @param to   new state
+     * @return {@code true} if the state transition is allowed, {@code false} if not
+     */
+    private boolean isAllowed(final @NonNull U from, final @NonNull U to) {
+        final StateMachine<U> stateMachine = this.stateMachine;
+        if (stateMachine == null) {
+            return this.canTransitionTo(to);
+        }
+        return stateMachine.canTransition(from, to);
+    }
+
+    /**
+     * Returns whether the state {@code from} can transition into the state {@code to}, according to the
+     * {@link #stateMachine()} or {@link State#allowedTransitions()}.
+     *
+     * @param from current state
+     * @param to   new state
+     * @return {@code true} if the state transition is allowed, {@code false} if not
+     */
+    final boolean canTransition(final @NonNull U from, final @NonNull U to) {
+        final StateMachine<U> stateMachine = this.stateMachine;
+        if (stateMachine == null) {
+            return from.allowedTransitions().contains(to);
+        }
+        return stateMachine.canTransition(from, to);
+    }
+
+    /**
+     * Transitions into the {@code newState} if the current state is the {@code currentState}, without validating the
+     * transition or any synchronization.
+     *
+     * <p>The caller must hold the {@link #lock()}, must have validated the transition using
+     * {@link #canTransition(State, State)}, and must invoke {@link #transitioned(State, State)} once it has released
+     * the lock. Unlike {@link #unsynchronizedTransition(State, State)}, this never constructs an exception.</p>
+     *
+     * @param currentState expected current state
+     * @param newState     new state
+     * @return {@code true} if the state was transitioned, {@code false} if the actual state is not the {@code currentState}
+     */
+    final boolean unsynchronizedTryTransition(final @NonNull U currentState, final @NonNull U newState) {
         if (!this.state.equals(currentState)) {
-            throw new UnexpectedStateException(States.of(currentState), newState, this);
+            return false;
+        }
+        this.setState(currentState, newState);
+        return true;
+    }
+
+    /**
+     * Performs {@link #transition(State, State)} without any synchronization.
+     *
+     * <p>The caller must hold the {@link #lock()}.</p>
+     *
+     * @param currentState expected current state
+     * @param newState     new state
+     * @return the previous state
+     * @throws UnexpectedStateException        if the actual state is different form the {@code currentState}
+     * @throws IllegalStateTransitionException if the state transition is not possible
+     */
+    final @NonNull U unsynchronizedTransition(final @NonNull U currentState, final @NonNull U newState)
+            throws UnexpectedStateException, IllegalStateTransitionException {
+        this.validateCurrentState(currentState);
+        return this.unsynchronizedTransitionTo(newState);
+    }
+
+    private void validateCurrentState(final @NonNull U currentState) throws UnexpectedStateException {
+        Objects.requireNonNull(currentState, "currentState");
+        final U actualState = this.state;
+        if (!actualState.equals(currentState)) {
+            this.metrics().onUnexpectedState(actualState);
+            throw new UnexpectedStateException(States.of(currentState), actualState, this);
         }
-        return this.transitionTo(newState);
     }
 }
@@ -0,0 +1,106 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Base class for the immutable {@link States} implementations.
+ *
+ * <p>Two instances are equal if they contain the same states, regardless of the implementation.</p>
+ *
+ * @param <S> state type
+ */
+@API(status = API.Status.INTERNAL, since = "1.1.0")
+abstract class AbstractStates<S extends State<S>> implements States<S> {
+
+    /**
+     * Creates a new states instance from the given array, picking the implementation based on the number of
+     * states and the state type.
+     *
+     * <p>The states are only stored in an {@link EnumStates} if all of them are constants of the same enum type.</p>
+     *
+     * @param <S>    state type
+     * @param states states, owned by the returned instance
+     * @return the instance
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <S extends State<S>> @NonNull States<S> fromArray(final @NonNull State<?> @NonNull [] states) {
+        if (states.length == 0) {
+            return States.of();
+        }
+        if (states[0] instanceof Enum<?> state && constantsOf(state.getDeclaringClass(), states)) {
+            return EnumStates.copyOf((Class) state.getDeclaringClass(), (Iterable) Arrays.asList(states));
+        }
+        if (states.length <= StatesImpl.MAX_SIZE) {
+            return StatesImpl.copyOf((S[]) states);
+        }
+        return HashStates.copyOf((S[]) states);
+    }
+
+    private static boolean constantsOf(final @NonNull Class<?> type, final @NonNull State<?> @NonNull [] states) {
+        for (final State<?> state : states) {
+            if (!(state instanceof Enum<?> constant) || constant.getDeclaringClass() != type) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public abstract int size();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof States<?> other) || this.size() != other.size()) {
+            return false;
+        }
+        return this.containsAll((States<S>) other);
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+        for (final S state : this) {
+            hashCode += state.hashCode();
+        }
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        final StringJoiner joiner = new StringJoiner(", ", "(", ")");
+        for (final S state : this) {
+            joiner.add(state.toString());
+        }
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,89 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+@API(status = API.Status.INTERNAL, since = "1.1.0")
+record AsyncStateInteractionImpl<U extends State<U>, V extends Stateful<U, V>>(
+        @NonNull V instance,
+        @NonNull States<U> incomingStates,
+        @NonNull States<U> outgoingStates,
+        @NonNull States<U> shortcircuitStates,
+        @NonNull AsyncInteraction<U, V> interaction
+) implements StateInteraction<U, V> {
+
+    @Override
+    public @NonNull InteractionResult<U, V> execute() {
+        final StateLock lock = StateInteractionImpl.lock(this.instance);
+        // Queued interactions cannot start before the enclosing interaction completes.
+        if (InteractionQueue.isBusy(this.instance)
+                && ((lock != null && lock.isHeldByCurrentThread()) || InteractionQueue.isEntered(this.instance))) {
+            return InteractionQueue.join(CompletableFuture.completedFuture(null).thenCompose(ignored -> this.start()));
+        }
+        return InteractionQueue.join(this.executeAsync());
+    }
+
+    @Override
+    public @NonNull CompletableFuture<@NonNull InteractionResult<U, V>> executeAsync() {
+        return InteractionQueue.enqueue(this.instance, this::start);
+    }
+
+    private @NonNull CompletionStage<@NonNull InteractionResult<U, V>> start() {
+        final StateLock lock = StateInteractionImpl.lock(this.instance);
+
+        if (lock != null) {
+            lock.lock();
+        }
+
+        final CompletionStage<V> stage;
+        try {
+            final InteractionResult<U, V> incomingResult = StateInteractionImpl.validateIncoming(
+                    this.instance,
+                    this.incomingStates,
+                    this.shortcircuitStates
+            );
+            if (incomingResult != null) {
+                return CompletableFuture.completedFuture(incomingResult);
+            }
+
+            try {
+                stage = this.interaction.interact(this.instance);
+            } catch (final RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            } catch (final Throwable throwable) {
+                return CompletableFuture.failedFuture(new RuntimeException(throwable));
+            }
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+        }
+
+        return stage.thenApply(result -> StateInteractionImpl.validateOutgoing(this.instance, result, this.outgoingStates));
+    }
+}
@@ -0,0 +1,80 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * {@link StateStore} for state spaces with at most 256 states, backed by a {@code byte[]}.
+ *
+ * @param <S> state type
+ */
+@API(status = API.Status.INTERNAL, since = "1.1.0")
+final class ByteStateStore<S extends State<S>> extends StateStore<S> {
+
+    static final int MAX_STATES = 256;
+
+    private static final VarHandle STATES = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private final byte[] states;
+
+    ByteStateStore(final @NonNull StateSpace<S> stateSpace, final int size, final int initialStateId) {
+        super(stateSpace);
+        this.states = new byte[size];
+        Arrays.fill(this.states, (byte) initialStateId);
+    }
+
+    @Override
+    int load(final int index) {
+        return (byte) STATES.getAcquire(this.states, index) & 0xFF;
+    }
+
+    @Override
+    boolean compareAndSet(final int index, final int expected, final int stateId) {
+        return STATES.compareAndSet(this.states, index, (byte) expected, (byte) stateId);
+    }
+
+    @Override
+    int replaceAll(final int expected, final int stateId) {
+        final byte[] states = this.states;
+        final byte expectedValue = (byte) expected;
+        final byte value = (byte) stateId;
+        int count = 0;
+        for (int index = 0; index < states.length; index++) {
+            if (states[index] == expectedValue && STATES.compareAndSet(states, index, expectedValue, value)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int size() {
+        return this.states.length;
+    }
+}
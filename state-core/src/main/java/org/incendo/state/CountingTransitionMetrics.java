@@ -0,0 +1,374 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * {@link TransitionMetrics} that count events using striped {@link LongAdder counters}.
+ *
+ * <p>Transitions and illegal transitions are counted per edge, and unexpected states and short-circuits are counted per
+ * state, using the ids of the {@link StateSpace} the metrics were created for. Counters are allocated the first time an
+ * event is reported for them, so that unused edges of large machines do not take up any memory. Events for states that
+ * are not part of the state space are ignored.</p>
+ *
+ * <p>Every counter can be read at any time. Reads are not atomic with respect to concurrent updates, and are intended
+ * to be polled periodically, for example by a metrics exporter.</p>
+ *
+ * @param <S> state type
+ * @since 1.1.0
+ * @see TransitionMetrics#counting(StateSpace)
+ */
+@API(status = API.Status.STABLE, since = "1.1.0")
+public final class CountingTransitionMetrics<S extends State<S>> implements TransitionMetrics<S> {
+
+    private static final VarHandle ROWS = MethodHandles.arrayElementVarHandle(LongAdder[][].class);
+    private static final VarHandle ADDERS = MethodHandles.arrayElementVarHandle(LongAdder[].class);
+
+    private final StateSpace<S> stateSpace;
+    private final @Nullable LongAdder @NonNull [] @Nullable [] transitions;
+    private final @Nullable LongAdder @NonNull [] @Nullable [] illegalTransitions;
+    private final @Nullable LongAdder @NonNull [] unexpectedStates;
+    private final @Nullable LongAdder @NonNull [] shortCircuits;
+    private final LongAdder interactions = new LongAdder();
+    private final LongAdder interactionNanos = new LongAdder();
+    private final LongAccumulator maxInteractionNanos = new LongAccumulator(Math::max, 0L);
+    private final LongAdder lockAcquisitions = new LongAdder();
+    private final LongAdder contendedLockAcquisitions = new LongAdder();
+    private final LongAdder lockWaitNanos = new LongAdder();
+    private final LongAccumulator maxLockWaitNanos = new LongAccumulator(Math::max, 0L);
+
+    CountingTransitionMetrics(final @NonNull StateSpace<S> stateSpace) {
+        this.stateSpace = stateSpace;
+        this.transitions = new LongAdder[stateSpace.size()][];
+        this.illegalTransitions = new LongAdder[stateSpace.size()][];
+        this.unexpectedStates = new LongAdder[stateSpace.size()];
+        this.shortCircuits = new LongAdder[stateSpace.size()];
+    }
+
+    private static @NonNull LongAdder adder(final @Nullable LongAdder @NonNull [] adders, final int index) {
+        final LongAdder adder = (LongAdder) ADDERS.getAcquire(adders, index);
+        if (adder != null) {
+            return adder;
+        }
+        final LongAdder createdAdder = new LongAdder();
+        final LongAdder witness = (LongAdder) ADDERS.compareAndExchange(adders, index, null, createdAdder);
+        return witness == null ? createdAdder : witness;
+    }
+
+    private static @NonNull LongAdder adder(final @Nullable LongAdder @NonNull [] @Nullable [] rows, final int from, final int to) {
+        LongAdder[] row = (LongAdder[]) ROWS.getAcquire(rows, from);
+        if (row == null) {
+            final LongAdder[] createdRow = new LongAdder[rows.length];
+            final LongAdder[] witness = (LongAdder[]) ROWS.compareAndExchange(rows, from, null, createdRow);
+            row = witness == null ? createdRow : witness;
+        }
+        return adder(row, to);
+    }
+
+    private static long sum(final @Nullable LongAdder @NonNull [] adders, final int index) {
+        final LongAdder adder = (LongAdder) ADDERS.getAcquire(adders, index);
+        return adder == null ? 0L : adder.sum();
+    }
+
+    private static long sum(final @Nullable LongAdder @NonNull [] @Nullable [] rows, final int from, final int to) {
+        final LongAdder[] row = (LongAdder[]) ROWS.getAcquire(rows, from);
+        return row == null ? 0L : sum(row, to);
+    }
+
+    private static long sum(final @Nullable LongAdder @NonNull [] adders) {
+        long sum = 0L;
+        for (int index = 0; index < adders.length; index++) {
+            sum += sum(adders, index);
+        }
+        return sum;
+    }
+
+    private static long sum(final @Nullable LongAdder @NonNull [] @Nullable [] rows) {
+        long sum = 0L;
+        for (int from = 0; from < rows.length; from++) {
+            final LongAdder[] row = (LongAdder[]) ROWS.getAcquire(rows, from);
+            if (row != null) {
+                sum += sum(row);
+            }
+        }
+        return sum;
+    }
+
+    private static void reset(final @Nullable LongAdder @NonNull [] adders) {
+        for (int index = 0; index < adders.length; index++) {
+            final LongAdder adder = (LongAdder) ADDERS.getAcquire(adders, index);
+            if (adder != null) {
+                adder.reset();
+            }
+        }
+    }
+
+    @Override
+    public void onTransition(final @NonNull S from, final @NonNull S to) {
+        final int fromId = this.stateSpace.id(from);
+        final int toId = this.stateSpace.id(to);
+        if (fromId >= 0 && toId >= 0) {
+            adder(this.transitions, fromId, toId).increment();
+        }
+    }
+
+    @Override
+    public void onIllegalTransition(final @NonNull S from, final @NonNull S to) {
+        final int fromId = this.stateSpace.id(from);
+        final int toId = this.stateSpace.id(to);
+        if (fromId >= 0 && toId >= 0) {
+            adder(this.illegalTransitions, fromId, toId).increment();
+        }
+    }
+
+    @Override
+    public void onUnexpectedState(final @NonNull S state) {
+        final int id = this.stateSpace.id(state);
+        if (id >= 0) {
+            adder(this.unexpectedStates, id).increment();
+        }
+    }
+
+    @Override
+    public void onShortCircuit(final @NonNull S state) {
+        final int id = this.stateSpace.id(state);
+        if (id >= 0) {
+            adder(this.shortCircuits, id).increment();
+        }
+    }
+
+    @Override
+    public void onInteraction(final long durationNanos) {
+        this.interactions.increment();
+        this.interactionNanos.add(durationNanos);
+        this.maxInteractionNanos.accumulate(durationNanos);
+    }
+
+    @Override
+    public void onLockAcquired(final long waitNanos) {
+        this.lockAcquisitions.increment();
+        if (waitNanos > 0L) {
+            this.contendedLockAcquisitions.increment();
+            this.lockWaitNanos.add(waitNanos);
+            this.maxLockWaitNanos.accumulate(waitNanos);
+        }
+    }
+
+    /**
+     * Returns the number of transitions from the state {@code from} into the state {@code to}.
+     *
+     * @param from previous state
+     * @param to   new state
+     * @return the number of transitions
+     */
+    public long transitions(final @NonNull S from, final @NonNull S to) {
+        final int fromId = this.stateSpace.id(from);
+        final int toId = this.stateSpace.id(to);
+        if (fromId < 0 || toId < 0) {
+            return 0L;
+        }
+        return sum(this.transitions, fromId, toId);
+    }
+
+    /**
+     * Returns the total number of transitions.
+     *
+     * @return the number of transitions
+     */
+    public long transitions() {
+        return sum(this.transitions);
+    }
+
+    /**
+     * Returns the number of rejected transitions from the state {@code from} into the state {@code to}.
+     *
+     * @param from current state
+     * @param to   rejected state
+     * @return the number of illegal transitions
+     */
+    public long illegalTransitions(final @NonNull S from, final @NonNull S to) {
+        final int fromId = this.stateSpace.id(from);
+        final int toId = this.stateSpace.id(to);
+        if (fromId < 0 || toId < 0) {
+            return 0L;
+        }
+        return sum(this.illegalTransitions, fromId, toId);
+    }
+
+    /**
+     * Returns the total number of rejected transitions.
+     *
+     * @return the number of illegal transitions
+     */
+    public long illegalTransitions() {
+        return sum(this.illegalTransitions);
+    }
+
+    /**
+     * Returns the number of failures caused by the unexpected {@code state}.
+     *
+     * @param state actual state
+     * @return the number of failures
+     */
+    public long unexpectedStates(final @NonNull S state) {
+        final int id = this.stateSpace.id(state);
+        return id < 0 ? 0L : sum(this.unexpectedStates, id);
+    }
+
+    /**
+     * Returns the total number of failures caused by unexpected states.
+     *
+     * @return the number of failures
+     */
+    public long unexpectedStates() {
+        return sum(this.unexpectedStates);
+    }
+
+    /**
+     * Returns the number of interactions that were short-circuited in the given {@code state}.
+     *
+     * @param state actual state
+     * @return the number of short-circuits
+     */
+    public long shortCircuits(final @NonNull S state) {
+        final int id = this.stateSpace.id(state);
+        return id < 0 ? 0L : sum(this.shortCircuits, id);
+    }
+
+    /**
+     * Returns the total number of short-circuited interactions.
+     *
+     * @return the number of short-circuits
+     */
+    public long shortCircuits() {
+        return sum(this.shortCircuits);
+    }
+
+    /**
+     * Returns the number of completed interactions.
+     *
+     * @return the number of interactions
+     */
+    public long interactions() {
+        return this.interactions.sum();
+    }
+
+    /**
+     * Returns the total duration of all completed interactions.
+     *
+     * @return the duration in nanoseconds
+     */
+    public long interactionNanos() {
+        return this.interactionNanos.sum();
+    }
+
+    /**
+     * Returns the duration of the longest completed interaction.
+     *
+     * @return the duration in nanoseconds
+     */
+    public long maxInteractionNanos() {
+        return this.maxInteractionNanos.get();
+    }
+
+    /**
+     * Returns the number of times a lock was acquired.
+     *
+     * @return the number of acquisitions
+     */
+    public long lockAcquisitions() {
+        return this.lockAcquisitions.sum();
+    }
+
+    /**
+     * Returns the number of times a lock was acquired after waiting for another thread to release it.
+     *
+     * @return the number of contended acquisitions
+     */
+    public long contendedLockAcquisitions() {
+        return this.contendedLockAcquisitions.sum();
+    }
+
+    /**
+     * Returns the total time spent waiting for locks.
+     *
+     * @return the time in nanoseconds
+     */
+    public long lockWaitNanos() {
+        return this.lockWaitNanos.sum();
+    }
+
+    /**
+     * Returns the longest time spent waiting for a lock.
+     *
+     * @return the time in nanoseconds
+     */
+    public long maxLockWaitNanos() {
+        return this.maxLockWaitNanos.get();
+    }
+
+    /**
+     * Resets every counter to zero.
+     *
+     * <p>Events that are reported concurrently may or may not be counted.</p>
+     */
+    public void reset() {
+        for (int from = 0; from < this.transitions.length; from++) {
+            final LongAdder[] row = (LongAdder[]) ROWS.getAcquire(this.transitions, from);
+            if (row != null) {
+                reset(row);
+            }
+            final LongAdder[] illegalRow = (LongAdder[]) ROWS.getAcquire(this.illegalTransitions, from);
+            if (illegalRow != null) {
+                reset(illegalRow);
+            }
+        }
+        reset(this.unexpectedStates);
+        reset(this.shortCircuits);
+        this.interactions.reset();
+        this.interactionNanos.reset();
+        this.maxInteractionNanos.reset();
+        this.lockAcquisitions.reset();
+        this.contendedLockAcquisitions.reset();
+        this.lockWaitNanos.reset();
+        this.maxLockWaitNanos.reset();
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return "CountingTransitionMetrics{transitions=" + this.transitions()
+                + ", illegalTransitions=" + this.illegalTransitions()
+                + ", unexpectedStates=" + this.unexpectedStates()
+                + ", shortCircuits=" + this.shortCircuits()
+                + ", interactions=" + this.interactions()
+                + ", lockAcquisitions=" + this.lockAcquisitions() + '}';
+    }
+}
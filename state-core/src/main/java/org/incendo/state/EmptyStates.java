@@ -23,6 +23,11 @@
 //
 package org.incendo.state;
 
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 import java.util.stream.Stream;
 import org.apiguardian.api.API;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -42,11 +47,65 @@ record EmptyStates<S extends State<S>>() implements States<S> {
         return States.of(state);
     }
 
+    @Override
+    public @NonNull States<S> withoutState(final @NonNull S state) {
+        return this;
+    }
+
+    @Override
+    public boolean containsAll(final @NonNull States<S> states) {
+        return states.empty();
+    }
+
+    @Override
+    public @NonNull States<S> union(final @NonNull States<S> states) {
+        return Objects.requireNonNull(states, "states");
+    }
+
+    @Override
+    public @NonNull States<S> intersect(final @NonNull States<S> states) {
+        return this;
+    }
+
+    @Override
+    public @NonNull States<S> difference(final @NonNull States<S> states) {
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return 0;
+    }
+
+    @Override
+    public void forEach(final @NonNull Consumer<? super S> action) {
+    }
+
+    @Override
+    public @NonNull Iterator<S> iterator() {
+        return Collections.emptyIterator();
+    }
+
+    @Override
+    public @NonNull S @NonNull [] toArray(final @NonNull IntFunction<@NonNull S @NonNull []> generator) {
+        return generator.apply(0);
+    }
+
     @Override
     public boolean empty() {
         return true;
     }
 
+    @Override
+    public boolean equals(final Object object) {
+        return object instanceof States<?> states && states.empty();
+    }
+
+    @Override
+    public int hashCode() {
+        return 0;
+    }
+
     @Override
     public String toString() {
         return "()";
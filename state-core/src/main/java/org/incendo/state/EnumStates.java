@@ -0,0 +1,201 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.Objects;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * {@link States} implementation for enum states, backed by a bitmask indexed by {@link Enum#ordinal()}.
+ *
+ * <p>The enum constants are resolved from a universe array that is shared between all instances of the same
+ * enum type. The type parameter is not bound to {@link Enum}, so that states of a different type, which may share a
+ * state interface with the enum, can be passed to every method. Such states are never contained in the instance.</p>
+ *
+ * @param <S> state type
+ */
+@API(status = API.Status.INTERNAL, since = "1.1.0")
+abstract sealed class EnumStates<S extends State<S>> extends AbstractStates<S> permits RegularEnumStates, JumboEnumStates {
+
+    private static final ClassValue<Enum<?>[]> UNIVERSES = new ClassValue<>() {
+        @Override
+        protected Enum<?>[] computeValue(final @NonNull Class<?> type) {
+            return (Enum<?>[]) type.getEnumConstants();
+        }
+    };
+
+    /**
+     * Returns the shared universe of the given enum {@code type}.
+     *
+     * <p>The returned array must not be modified.</p>
+     *
+     * @param <S>  state type
+     * @param type enum type
+     * @return the enum constants, indexed by their ordinal
+     */
+    @SuppressWarnings("unchecked")
+    static <S extends Enum<S> & State<S>> @NonNull S @NonNull [] universe(final @NonNull Class<S> type) {
+        return (S[]) UNIVERSES.get(type);
+    }
+
+    /**
+     * Returns an empty instance for the given enum {@code type}.
+     *
+     * @param <S>  state type
+     * @param type enum type
+     * @return the instance
+     */
+    static <S extends Enum<S> & State<S>> @NonNull EnumStates<S> noneOf(final @NonNull Class<S> type) {
+        final S[] universe = universe(type);
+        return create(universe, new long[wordCount(universe.length)]);
+    }
+
+    /**
+     * Returns an instance containing the given states.
+     *
+     * @param <S>    state type
+     * @param state  first state
+     * @param states remaining states
+     * @return the instance
+     */
+    @SafeVarargs
+    static <S extends Enum<S> & State<S>> @NonNull EnumStates<S> of(final @NonNull S state, final @NonNull S @NonNull... states) {
+        final S[] universe = universe(state.getDeclaringClass());
+        final long[] words = new long[wordCount(universe.length)];
+        set(universe, words, state);
+        for (final S other : states) {
+            set(universe, words, Objects.requireNonNull(other, "state"));
+        }
+        return create(universe, words);
+    }
+
+    /**
+     * Returns an instance containing the given states.
+     *
+     * @param <S>    state type
+     * @param type   enum type
+     * @param states states
+     * @return the instance
+     */
+    static <S extends Enum<S> & State<S>> @NonNull EnumStates<S> copyOf(
+            final @NonNull Class<S> type,
+            final @NonNull Iterable<? extends S> states
+    ) {
+        final S[] universe = universe(type);
+        final long[] words = new long[wordCount(universe.length)];
+        for (final S state : states) {
+            set(universe, words, Objects.requireNonNull(state, "state"));
+        }
+        return create(universe, words);
+    }
+
+    static <S extends State<S>> @NonNull EnumStates<S> create(
+            final @NonNull S @NonNull [] universe,
+            final long @NonNull [] words
+    ) {
+        if (universe.length <= Long.SIZE) {
+            return new RegularEnumStates<>(universe, words.length == 0 ? 0L : words[0]);
+        }
+        return new JumboEnumStates<>(universe, words);
+    }
+
+    static int wordCount(final int universeSize) {
+        return (universeSize + Long.SIZE - 1) >>> 6;
+    }
+
+    /**
+     * Returns the ordinal of the given {@code state} in the {@code universe}.
+     *
+     * <p>The state is only a member of the universe if it is the very constant stored at its ordinal, so that
+     * constants of other enum types, as well as states that are not enum constants, are rejected.</p>
+     *
+     * @param universe universe
+     * @param state    state
+     * @return the ordinal, or {@code -1} if the state is not a member of the universe
+     */
+    static int ordinal(final @NonNull Object @NonNull [] universe, final @NonNull Object state) {
+        if (state instanceof Enum<?> constant) {
+            final int ordinal = constant.ordinal();
+            if (ordinal < universe.length && universe[ordinal] == state) {
+                return ordinal;
+            }
+        }
+        return -1;
+    }
+
+    private static void set(final @NonNull Object @NonNull [] universe, final long @NonNull [] words, final @NonNull Object state) {
+        final int ordinal = ordinal(universe, state);
+        if (ordinal < 0) {
+            throw new IllegalArgumentException(String.format(
+                    "State %s is not a constant of %s",
+                    state,
+                    universe.getClass().getComponentType().getName()
+            ));
+        }
+        words[ordinal >>> 6] |= 1L << ordinal;
+    }
+
+    private final S[] universe;
+
+    EnumStates(final @NonNull S @NonNull [] universe) {
+        this.universe = universe;
+    }
+
+    /**
+     * Returns the shared universe of the enum type.
+     *
+     * @return the universe
+     */
+    final @NonNull S @NonNull [] universe() {
+        return this.universe;
+    }
+
+    /**
+     * Returns the ordinal of the given {@code state}, if it is a member of the universe.
+     *
+     * @param state state
+     * @return the ordinal, or {@code -1} if the state is not a constant of the enum type
+     */
+    final int ordinal(final @NonNull S state) {
+        return ordinal(this.universe, state);
+    }
+
+    /**
+     * Returns a new instance containing the states of this instance and the given {@code state}, which is not a constant
+     * of the enum type.
+     *
+     * @param state foreign state
+     * @return the new instance
+     */
+    final @NonNull States<S> withForeignState(final @NonNull S state) {
+        final State<?>[] states = new State<?>[this.size() + 1];
+        int index = 0;
+        for (final S other : this) {
+            states[index++] = other;
+        }
+        states[index] = state;
+        return AbstractStates.fromArray(states);
+    }
+}
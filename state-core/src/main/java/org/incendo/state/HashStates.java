@@ -0,0 +1,170 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * {@link States} implementation for larger sets of states, backed by an open-addressing hash table with
+ * linear probing.
+ *
+ * <p>The table is kept at most half full, so that {@link #contains(State)} stays constant-time regardless of the
+ * number of states.</p>
+ *
+ * <p>Rebuilding the table is linear in the number of states, so {@link #withState(State)} and
+ * {@link #withoutState(State)} convert the set into a {@link TrieStates} that can then be modified incrementally.</p>
+ *
+ * @param <S> state type
+ */
+@API(status = API.Status.INTERNAL, since = "1.1.0")
+final class HashStates<S extends State<S>> extends AbstractStates<S> {
+
+    /**
+     * Returns an instance containing the distinct states in the given array.
+     *
+     * <p>The array is owned by the returned instance and must not be modified afterwards.</p>
+     *
+     * @param <S>    state type
+     * @param states non-empty array of states
+     * @return the instance
+     */
+    static <S extends State<S>> @NonNull HashStates<S> copyOf(final @NonNull S @NonNull [] states) {
+        final Object[] table = new Object[tableSize(states.length)];
+        int size = 0;
+        for (final S state : states) {
+            if (insert(table, Objects.requireNonNull(state, "state"))) {
+                states[size++] = state;
+            }
+        }
+        return new HashStates<>(size == states.length ? states : Arrays.copyOf(states, size), table);
+    }
+
+    private static int tableSize(final int size) {
+        return Integer.highestOneBit(Math.max(size, 2) - 1) << 2;
+    }
+
+    private static int index(final @NonNull Object state, final int mask) {
+        final int hash = state.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static boolean insert(final @NonNull Object @NonNull [] table, final @NonNull Object state) {
+        final int mask = table.length - 1;
+        for (int index = index(state, mask); ; index = (index + 1) & mask) {
+            final Object element = table[index];
+            if (element == null) {
+                table[index] = state;
+                return true;
+            }
+            if (element == state || element.equals(state)) {
+                return false;
+            }
+        }
+    }
+
+    private final S[] stateArray;
+    private final Object[] table;
+
+    private HashStates(final @NonNull S @NonNull [] stateArray, final @NonNull Object @NonNull [] table) {
+        this.stateArray = stateArray;
+        this.table = table;
+    }
+
+    @Override
+    public boolean contains(final @NonNull S state) {
+        final Object[] table = this.table;
+        final int mask = table.length - 1;
+        for (int index = index(state, mask); ; index = (index + 1) & mask) {
+            final Object element = table[index];
+            if (element == state) {
+                return true;
+            }
+            if (element == null) {
+                return false;
+            }
+            if (element.equals(state)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public @NonNull States<S> withState(final @NonNull S state) {
+        Objects.requireNonNull(state, "state");
+        if (this.contains(state)) {
+            return this;
+        }
+        return TrieStates.copyOf(this).withState(state);
+    }
+
+    @Override
+    public @NonNull States<S> withoutState(final @NonNull S state) {
+        Objects.requireNonNull(state, "state");
+        if (!this.contains(state)) {
+            return this;
+        }
+        return TrieStates.copyOf(this).withoutState(state);
+    }
+
+    @Override
+    public boolean empty() {
+        return this.stateArray.length == 0;
+    }
+
+    @Override
+    public @NonNull Stream<S> states() {
+        return Arrays.stream(this.stateArray);
+    }
+
+    @Override
+    public int size() {
+        return this.stateArray.length;
+    }
+
+    @Override
+    public void forEach(final @NonNull Consumer<? super S> action) {
+        for (final S state : this.stateArray) {
+            action.accept(state);
+        }
+    }
+
+    @Override
+    public @NonNull Iterator<S> iterator() {
+        return Arrays.asList(this.stateArray).iterator();
+    }
+
+    @Override
+    public @NonNull S @NonNull [] toArray(final @NonNull IntFunction<@NonNull S @NonNull []> generator) {
+        final S[] array = generator.apply(this.stateArray.length);
+        System.arraycopy(this.stateArray, 0, array, 0, this.stateArray.length);
+        return array;
+    }
+}
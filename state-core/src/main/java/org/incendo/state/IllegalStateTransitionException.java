@@ -25,10 +25,15 @@ package org.incendo.state;
 
 import org.apiguardian.api.API;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Exception thrown when an attempt is made to perform a state transition that is not allowed.
  *
+ * <p>The message is only formatted when it is first requested. If the system property
+ * {@code org.incendo.state.stacklessExceptions} is set to {@code true}, the exception does not capture a stack trace,
+ * which makes it cheap to construct when rejections are expected.</p>
+ *
  * @since 1.0.0
  */
 @API(status = API.Status.STABLE, since = "1.0.0")
@@ -37,6 +42,7 @@ public class IllegalStateTransitionException extends IllegalArgumentException {
     private final State<?> from;
     private final State<?> to;
     private final MutableStateful<?, ?> stateful;
+    private @Nullable String message;
 
     /**
      * Creates a new instance.
@@ -50,7 +56,6 @@ public class IllegalStateTransitionException extends IllegalArgumentException {
             final @NonNull State<?> to,
             final @NonNull MutableStateful<?, ?> stateful
     ) {
-        super(String.format("Cannot transition from state '%s' to state '%s'", from, to));
         this.from = from;
         this.to = to;
         this.stateful = stateful;
@@ -82,4 +87,28 @@ public class IllegalStateTransitionException extends IllegalArgumentException {
     public @NonNull MutableStateful<?, ?> stateful() {
         return this.stateful;
     }
+
+    @Override
+    public @NonNull String getMessage() {
+        String message = this.message;
+        if (message == null) {
+            message = String.format("Cannot transition from state '%s' to state '%s'", this.from, this.to);
+            this.message = message;
+        }
+        return message;
+    }
+
+    /**
+     * Captures the stack trace, unless stackless exceptions are enabled.
+     *
+     * @return {@code this}
+     * @since 1.1.0
+     */
+    @Override
+    public @NonNull Throwable fillInStackTrace() {
+        if (StateExceptions.stackless()) {
+            return this;
+        }
+        return super.fillInStackTrace();
+    }
 }
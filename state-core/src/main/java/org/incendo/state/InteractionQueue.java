@@ -0,0 +1,171 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Per-instance queues of interactions that are executed one at a time, without blocking a thread while an
+ * asynchronous interaction is in progress.
+ *
+ * <p>Only instances that have queued interactions are tracked, and an instance is removed once its queue has been
+ * drained.</p>
+ */
+@API(status = API.Status.INTERNAL, since = "1.1.0")
+final class InteractionQueue {
+
+    private static final ConcurrentMap<IdentityKey, CompletableFuture<Void>> TAILS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Entered> ENTERED = new ThreadLocal<>();
+
+    private InteractionQueue() {
+    }
+
+    /**
+     * Returns whether the given {@code instance} has queued interactions.
+     *
+     * @param instance stateful instance
+     * @return {@code true} if there are queued interactions, {@code false} if not
+     */
+    static boolean isBusy(final @NonNull Object instance) {
+        // Checking for emptiness first avoids allocating a key while no interaction is queued at all.
+        return !TAILS.isEmpty() && TAILS.containsKey(new IdentityKey(instance));
+    }
+
+    /**
+     * Returns a future that is completed once the tasks that are currently queued on the queue of the given
+     * {@code instance} have completed.
+     *
+     * @param instance stateful instance
+     * @return the future
+     */
+    static @NonNull CompletableFuture<Void> idle(final @NonNull Object instance) {
+        final CompletableFuture<Void> tail = TAILS.get(new IdentityKey(instance));
+        return tail == null ? CompletableFuture.completedFuture(null) : tail;
+    }
+
+    /**
+     * Returns whether the current thread is invoking a queued task of the given {@code instance}.
+     *
+     * <p>An interaction that is executed from within such a task must not wait for the queue, as the task that is
+     * executing it is queued ahead of it.</p>
+     *
+     * @param instance stateful instance
+     * @return {@code true} if the current thread is invoking a task of the instance, {@code false} if not
+     */
+    static boolean isEntered(final @NonNull Object instance) {
+        for (Entered entered = ENTERED.get(); entered != null; entered = entered.parent()) {
+            if (entered.instance() == instance) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Queues the given {@code task} on the queue of the given {@code instance}.
+     *
+     * <p>The task is invoked once all previously queued tasks have completed, and the next task is not invoked until the
+     * stage returned by this task has completed.</p>
+     *
+     * @param <T>      result type
+     * @param instance stateful instance
+     * @param task     task to queue
+     * @return future completed with the result of the task
+     */
+    static <T> @NonNull CompletableFuture<T> enqueue(
+            final @NonNull Object instance,
+            final @NonNull Supplier<? extends @NonNull CompletionStage<T>> task
+    ) {
+        final IdentityKey key = new IdentityKey(instance);
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        final CompletableFuture<Void> previous = TAILS.put(key, done);
+        final CompletableFuture<T> result = (previous == null ? CompletableFuture.<Void>completedFuture(null) : previous)
+                .thenCompose(ignored -> enter(instance, task));
+        result.whenComplete((value, throwable) -> {
+            TAILS.remove(key, done);
+            done.complete(null);
+        });
+        return result;
+    }
+
+    private static <T> @NonNull CompletionStage<T> enter(
+            final @NonNull Object instance,
+            final @NonNull Supplier<? extends @NonNull CompletionStage<T>> task
+    ) {
+        final Entered parent = ENTERED.get();
+        ENTERED.set(new Entered(instance, parent));
+        try {
+            return task.get();
+        } finally {
+            ENTERED.set(parent);
+        }
+    }
+
+    /**
+     * Waits for the given {@code future} to complete, and rethrows any failure the way
+     * {@link StateInteraction#execute()} does.
+     *
+     * @param <T>    result type
+     * @param future future
+     * @return the result
+     */
+    static <T> T join(final @NonNull CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private record Entered(@NonNull Object instance, @Nullable Entered parent) {
+    }
+
+    private record IdentityKey(@NonNull Object instance) {
+
+        @Override
+        public boolean equals(final Object object) {
+            return object instanceof IdentityKey other && other.instance == this.instance;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this.instance);
+        }
+    }
+}
@@ -0,0 +1,413 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.common.returnsreceiver.qual.This;
+
+/**
+ * A {@link StateInteraction} that is defined once, and executed against any number of instances.
+ *
+ * <p>Executing a template has the same semantics as executing an interaction built using {@link StateInteraction#on}
+ * with the same states and interaction. Instead of allocating an {@link StateInteraction.InteractionResult} the result
+ * is reported as a {@link Status}, optionally together with a reusable {@link Outcome}, so that executing a template
+ * does not allocate unless the instance has queued {@link StateInteraction#executeAsync() asynchronous interactions}.</p>
+ *
+ * @param <U> state type
+ * @param <V> stateful type
+ * @since 1.1.0
+ */
+@API(status = API.Status.STABLE, since = "1.1.0")
+public final class InteractionTemplate<U extends State<U>, V extends Stateful<U, V>> {
+
+    /**
+     * Returns a new builder.
+     *
+     * @param <U> state type
+     * @param <V> stateful type
+     * @return the builder
+     */
+    public static <U extends State<U>, V extends Stateful<U, V>> @NonNull Builder<U, V> builder() {
+        return new Builder<>();
+    }
+
+    private final States<U> incomingStates;
+    private final States<U> outgoingStates;
+    private final States<U> shortCircuitStates;
+    private final StateInteraction.Interaction<U, V> interaction;
+
+    private InteractionTemplate(
+            final @NonNull States<U> incomingStates,
+            final @NonNull States<U> outgoingStates,
+            final @NonNull States<U> shortCircuitStates,
+            final StateInteraction.@NonNull Interaction<U, V> interaction
+    ) {
+        this.incomingStates = incomingStates;
+        this.outgoingStates = outgoingStates;
+        this.shortCircuitStates = shortCircuitStates;
+        this.interaction = interaction;
+    }
+
+    /**
+     * Executes the template against the given {@code instance}.
+     *
+     * @param instance stateful instance
+     * @return the status of the interaction
+     */
+    public @NonNull Status execute(final @NonNull V instance) {
+        return this.execute(instance, null);
+    }
+
+    /**
+     * Executes the template against the given {@code instance}, and stores the details of the result in the given
+     * {@code outcome}.
+     *
+     * @param instance stateful instance
+     * @param outcome  outcome to store the result in, or {@code null}
+     * @return the status of the interaction
+     */
+    public @NonNull Status execute(final @NonNull V instance, final @Nullable Outcome<U, V> outcome) {
+        Objects.requireNonNull(instance, "instance");
+        final StateLock lock = StateInteractionImpl.lock(instance);
+        if (lock == null) {
+            if (!InteractionQueue.isBusy(instance)) {
+                return this.executeExclusively(instance, outcome);
+            }
+        } else if (lock.isHeldByCurrentThread()) {
+            // Queued interactions cannot start before the enclosing interaction releases the lock.
+            return this.executeExclusively(instance, outcome);
+        } else {
+            lock.lock(StateInteractionImpl.metrics(instance));
+            try {
+                if (!InteractionQueue.isBusy(instance)) {
+                    return this.executeExclusively(instance, outcome);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        // The enclosing interaction is queued ahead of this one, and cannot complete while this one waits for it.
+        if (InteractionQueue.isEntered(instance)) {
+            return this.executeExclusively(instance, outcome);
+        }
+        return InteractionQueue.join(InteractionQueue.enqueue(
+                instance,
+                () -> CompletableFuture.completedFuture(this.executeExclusively(instance, outcome))
+        ));
+    }
+
+    /**
+     * Returns an interaction that executes this template against the given {@code instance}, and reports the full
+     * {@link StateInteraction.InteractionResult}.
+     *
+     * @param instance stateful instance
+     * @return the interaction
+     */
+    public @NonNull StateInteraction<U, V> on(final @NonNull V instance) {
+        return new StateInteractionImpl<>(
+                Objects.requireNonNull(instance, "instance"),
+                this.incomingStates,
+                this.outgoingStates,
+                this.shortCircuitStates,
+                this.interaction
+        );
+    }
+
+    private @NonNull Status executeExclusively(final @NonNull V instance, final @Nullable Outcome<U, V> outcome) {
+        final StateLock lock = StateInteractionImpl.lock(instance);
+
+        final TransitionMetrics<U> metrics = StateInteractionImpl.metrics(instance);
+
+        if (lock != null) {
+            lock.lock(metrics);
+        }
+
+        try {
+            final U currentState = instance.state();
+
+            if (this.shortCircuitStates.contains(currentState)) {
+                metrics.onShortCircuit(currentState);
+                return Outcome.store(this, outcome, Status.SHORT_CIRCUITED, instance, instance, currentState);
+            }
+
+            if (!this.incomingStates.contains(currentState)) {
+                metrics.onUnexpectedState(currentState);
+                return Outcome.store(this, outcome, Status.ILLEGAL_INCOMING_STATE, instance, instance, currentState);
+            }
+
+            final V result;
+            final long start = metrics == NoopTransitionMetrics.INSTANCE ? 0L : System.nanoTime();
+
+            try {
+                result = this.interaction.interact(instance);
+            } catch (final RuntimeException e) {
+                throw e;
+            } catch (final Throwable throwable) {
+                throw new RuntimeException(throwable);
+            } finally {
+                if (metrics != NoopTransitionMetrics.INSTANCE) {
+                    metrics.onInteraction(System.nanoTime() - start);
+                }
+            }
+
+            final U newState = result.state();
+            if (!this.outgoingStates.contains(newState)) {
+                metrics.onUnexpectedState(newState);
+                return Outcome.store(this, outcome, Status.ILLEGAL_OUTGOING_STATE, instance, result, newState);
+            }
+            return Outcome.store(this, outcome, Status.SUCCEEDED, instance, result, newState);
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * The status of an executed {@link InteractionTemplate}.
+     *
+     * @since 1.1.0
+     */
+    @API(status = API.Status.STABLE, since = "1.1.0")
+    public enum Status {
+        /**
+         * The interaction was performed, and the instance is in one of the outgoing states.
+         */
+        SUCCEEDED,
+        /**
+         * The instance was in one of the short-circuit states, and the interaction was not performed.
+         */
+        SHORT_CIRCUITED,
+        /**
+         * The instance was not in any of the incoming states, and the interaction was not performed.
+         */
+        ILLEGAL_INCOMING_STATE,
+        /**
+         * The interaction was performed, but the instance is not in any of the outgoing states.
+         */
+        ILLEGAL_OUTGOING_STATE;
+
+        /**
+         * Returns whether this status represents a failure.
+         *
+         * @return {@code true} if the interaction failed, {@code false} if not
+         */
+        public boolean failed() {
+            return this == ILLEGAL_INCOMING_STATE || this == ILLEGAL_OUTGOING_STATE;
+        }
+    }
+
+    /**
+     * A reusable holder of the details of the result of an {@link InteractionTemplate}.
+     *
+     * <p>An outcome is overwritten every time it is passed to {@link #execute(Stateful, Outcome)}, and is not thread-safe.
+     * Each thread should use its own outcome.</p>
+     *
+     * @param <U> state type
+     * @param <V> stateful type
+     * @since 1.1.0
+     */
+    @API(status = API.Status.STABLE, since = "1.1.0")
+    public static final class Outcome<U extends State<U>, V extends Stateful<U, V>> {
+
+        private static <U extends State<U>, V extends Stateful<U, V>> @NonNull Status store(
+                final @NonNull InteractionTemplate<U, V> template,
+                final @Nullable Outcome<U, V> outcome,
+                final @NonNull Status status,
+                final @NonNull V instance,
+                final @NonNull V result,
+                final @NonNull U state
+        ) {
+            if (outcome != null) {
+                outcome.template = template;
+                outcome.status = status;
+                outcome.instance = instance;
+                outcome.result = result;
+                outcome.state = state;
+            }
+            return status;
+        }
+
+        private @Nullable InteractionTemplate<U, V> template;
+        private @Nullable Status status;
+        private @Nullable V instance;
+        private @Nullable V result;
+        private @Nullable U state;
+
+        /**
+         * Returns the status of the last execution.
+         *
+         * @return the status, or {@code null} if the outcome has not been used yet
+         */
+        public @Nullable Status status() {
+            return this.status;
+        }
+
+        /**
+         * Returns the instance that the template was last executed against.
+         *
+         * @return the instance, or {@code null} if the outcome has not been used yet
+         */
+        public @Nullable V instance() {
+            return this.instance;
+        }
+
+        /**
+         * Returns the instance returned by the interaction, or the incoming instance if the interaction was not
+         * performed.
+         *
+         * @return the result, or {@code null} if the outcome has not been used yet
+         */
+        public @Nullable V result() {
+            return this.result;
+        }
+
+        /**
+         * Returns the state that determined the status: the incoming state if the interaction was not performed, or the
+         * state of the {@link #result()} if it was.
+         *
+         * @return the state, or {@code null} if the outcome has not been used yet
+         */
+        public @Nullable U state() {
+            return this.state;
+        }
+
+        /**
+         * Converts this outcome to an {@link StateInteraction.InteractionResult}.
+         *
+         * <p>This allocates the result, and the exception of a failed result.</p>
+         *
+         * @return the result
+         * @throws IllegalStateException if the outcome has not been used yet
+         */
+        public StateInteraction.@NonNull InteractionResult<U, V> toResult() {
+            final InteractionTemplate<U, V> template = this.template;
+            final Status status = this.status;
+            final V instance = this.instance;
+            final V result = this.result;
+            final U state = this.state;
+            if (template == null || status == null || instance == null || result == null || state == null) {
+                throw new IllegalStateException("The outcome has not been used yet");
+            }
+            return switch (status) {
+                case SUCCEEDED -> new StateInteraction.InteractionResult.Succeeded<>(instance, result);
+                case SHORT_CIRCUITED -> new StateInteraction.InteractionResult.ShortCircuited<>(instance);
+                case ILLEGAL_INCOMING_STATE -> new StateInteraction.InteractionResult.Failed.IllegalIncomingState<>(
+                        instance,
+                        new UnexpectedStateException(template.incomingStates, state, instance)
+                );
+                case ILLEGAL_OUTGOING_STATE -> new StateInteraction.InteractionResult.Failed.IllegalOutgoingState<>(
+                        instance,
+                        result,
+                        new UnexpectedStateException(template.outgoingStates, state, result)
+                );
+            };
+        }
+    }
+
+    /**
+     * Builder of {@link InteractionTemplate}.
+     *
+     * @param <U> state type
+     * @param <V> stateful type
+     * @since 1.1.0
+     */
+    @API(status = API.Status.STABLE, since = "1.1.0")
+    public static final class Builder<U extends State<U>, V extends Stateful<U, V>> {
+
+        private @Nullable States<U> incomingStates;
+        private @Nullable States<U> outgoingStates;
+        private States<U> shortCircuitStates = States.of();
+        private StateInteraction.Interaction<U, V> interaction = StateInteraction.Interaction.identity();
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the allowed incoming states of the interaction.
+         *
+         * @param states incoming states
+         * @return {@code this}
+         */
+        public @This @NonNull Builder<U, V> incomingStates(final @NonNull States<U> states) {
+            this.incomingStates = Objects.requireNonNull(states, "states");
+            return this;
+        }
+
+        /**
+         * Sets the allowed outgoing states of the interaction.
+         *
+         * @param states outgoing states
+         * @return {@code this}
+         */
+        public @This @NonNull Builder<U, V> outgoingStates(final @NonNull States<U> states) {
+            this.outgoingStates = Objects.requireNonNull(states, "states");
+            return this;
+        }
+
+        /**
+         * Sets the short-circuit states of the interaction.
+         *
+         * @param states short-circuit states
+         * @return {@code this}
+         */
+        public @This @NonNull Builder<U, V> shortCircuitStates(final @NonNull States<U> states) {
+            this.shortCircuitStates = Objects.requireNonNull(states, "states");
+            return this;
+        }
+
+        /**
+         * Sets the interaction.
+         *
+         * @param interaction interaction
+         * @return {@code this}
+         */
+        public @This @NonNull Builder<U, V> interaction(final StateInteraction.@NonNull Interaction<U, V> interaction) {
+            this.interaction = Objects.requireNonNull(interaction, "interaction");
+            return this;
+        }
+
+        /**
+         * Builds the template.
+         *
+         * <p>Unlike {@link StateInteraction.Builder}, a template is not bound to an instance, so the incoming and outgoing
+         * states cannot default to the current state of the instance, and must be set.</p>
+         *
+         * @return the template
+         * @throws IllegalStateException if the incoming or outgoing states have not been set
+         */
+        public @NonNull InteractionTemplate<U, V> build() {
+            final States<U> incomingStates = this.incomingStates;
+            final States<U> outgoingStates = this.outgoingStates;
+            if (incomingStates == null || outgoingStates == null) {
+                throw new IllegalStateException("The incoming and outgoing states must be set");
+            }
+            return new InteractionTemplate<>(incomingStates, outgoingStates, this.shortCircuitStates, this.interaction);
+        }
+    }
+}
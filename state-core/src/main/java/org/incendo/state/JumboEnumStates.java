@@ -0,0 +1,281 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * {@link EnumStates} for enum types with more than 64 constants, backed by a {@code long[]}.
+ *
+ * <p>Set operations against another instance of the same enum type are bitwise operations over the words.</p>
+ *
+ * @param <S> state type
+ */
+@API(status = API.Status.INTERNAL, since = "1.1.0")
+final class JumboEnumStates<S extends State<S>> extends EnumStates<S> {
+
+    private static final int UNION = 0;
+    private static final int INTERSECTION = 1;
+    private static final int DIFFERENCE = 2;
+
+    private final long[] words;
+
+    JumboEnumStates(final @NonNull S @NonNull [] universe, final long @NonNull [] words) {
+        super(universe);
+        this.words = words;
+    }
+
+    /**
+     * Returns the bitmask words of the contained ordinals. The returned array must not be modified.
+     *
+     * @return the bitmask words
+     */
+    long @NonNull [] words() {
+        return this.words;
+    }
+
+    private @NonNull States<S> withWords(final long @NonNull [] words) {
+        if (Arrays.equals(words, this.words)) {
+            return this;
+        }
+        for (final long word : words) {
+            if (word != 0L) {
+                return new JumboEnumStates<>(this.universe(), words);
+            }
+        }
+        return States.of();
+    }
+
+    private @NonNull States<S> combine(final @NonNull JumboEnumStates<S> other, final int operation) {
+        final long[] words = new long[this.words.length];
+        for (int index = 0; index < words.length; index++) {
+            words[index] = switch (operation) {
+                case UNION -> this.words[index] | other.words[index];
+                case INTERSECTION -> this.words[index] & other.words[index];
+                default -> this.words[index] & ~other.words[index];
+            };
+        }
+        return this.withWords(words);
+    }
+
+    /**
+     * Returns the given {@code states} as an instance with the same universe as this instance, or {@code null}
+     * if the fast paths cannot be used.
+     *
+     * @param states states
+     * @return the states, or {@code null}
+     */
+    private JumboEnumStates<S> compatible(final @NonNull States<S> states) {
+        if (LazyStates.resolve(states) instanceof JumboEnumStates<S> other && other.universe() == this.universe()) {
+            return other;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean contains(final @NonNull S state) {
+        final int ordinal = this.ordinal(state);
+        return ordinal >= 0 && (this.words[ordinal >>> 6] & (1L << ordinal)) != 0L;
+    }
+
+    @Override
+    public boolean containsAll(final @NonNull States<S> states) {
+        final JumboEnumStates<S> other = this.compatible(states);
+        if (other == null) {
+            return super.containsAll(states);
+        }
+        for (int index = 0; index < this.words.length; index++) {
+            if ((other.words[index] & ~this.words[index]) != 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public @NonNull States<S> withState(final @NonNull S state) {
+        Objects.requireNonNull(state, "state");
+        final int ordinal = this.ordinal(state);
+        if (ordinal < 0) {
+            return this.withForeignState(state);
+        }
+        if ((this.words[ordinal >>> 6] & (1L << ordinal)) != 0L) {
+            return this;
+        }
+        final long[] words = this.words.clone();
+        words[ordinal >>> 6] |= 1L << ordinal;
+        return new JumboEnumStates<>(this.universe(), words);
+    }
+
+    @Override
+    public @NonNull States<S> withoutState(final @NonNull S state) {
+        Objects.requireNonNull(state, "state");
+        if (!this.contains(state)) {
+            return this;
+        }
+        final int ordinal = this.ordinal(state);
+        final long[] words = this.words.clone();
+        words[ordinal >>> 6] &= ~(1L << ordinal);
+        return this.withWords(words);
+    }
+
+    @Override
+    public @NonNull States<S> union(final @NonNull States<S> states) {
+        final JumboEnumStates<S> other = this.compatible(states);
+        if (other == null) {
+            return super.union(states);
+        }
+        if (other.containsAll(this)) {
+            return other;
+        }
+        return this.combine(other, UNION);
+    }
+
+    @Override
+    public @NonNull States<S> intersect(final @NonNull States<S> states) {
+        final JumboEnumStates<S> other = this.compatible(states);
+        if (other == null) {
+            return super.intersect(states);
+        }
+        return this.combine(other, INTERSECTION);
+    }
+
+    @Override
+    public @NonNull States<S> difference(final @NonNull States<S> states) {
+        final JumboEnumStates<S> other = this.compatible(states);
+        if (other == null) {
+            return super.difference(states);
+        }
+        return this.combine(other, DIFFERENCE);
+    }
+
+    @Override
+    public boolean empty() {
+        for (final long word : this.words) {
+            if (word != 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (final long word : this.words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    @Override
+    public void forEach(final @NonNull Consumer<? super S> action) {
+        final S[] universe = this.universe();
+        for (int index = 0; index < this.words.length; index++) {
+            for (long word = this.words[index]; word != 0L; word &= word - 1) {
+                action.accept(universe[(index << 6) + Long.numberOfTrailingZeros(word)]);
+            }
+        }
+    }
+
+    @Override
+    public @NonNull Iterator<S> iterator() {
+        final S[] universe = this.universe();
+        final long[] words = this.words;
+        return new Iterator<>() {
+
+            private int index = 0;
+            private long remaining = words[0];
+
+            @Override
+            public boolean hasNext() {
+                while (this.remaining == 0L && this.index < words.length - 1) {
+                    this.remaining = words[++this.index];
+                }
+                return this.remaining != 0L;
+            }
+
+            @Override
+            public @NonNull S next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final int ordinal = (this.index << 6) + Long.numberOfTrailingZeros(this.remaining);
+                this.remaining &= this.remaining - 1;
+                return universe[ordinal];
+            }
+        };
+    }
+
+    @Override
+    public @NonNull S @NonNull [] toArray(final @NonNull IntFunction<@NonNull S @NonNull []> generator) {
+        final S[] universe = this.universe();
+        final S[] array = generator.apply(this.size());
+        int arrayIndex = 0;
+        for (int index = 0; index < this.words.length; index++) {
+            for (long word = this.words[index]; word != 0L; word &= word - 1) {
+                array[arrayIndex++] = universe[(index << 6) + Long.numberOfTrailingZeros(word)];
+            }
+        }
+        return array;
+    }
+
+    @Override
+    public @NonNull Stream<S> states() {
+        final S[] universe = this.universe();
+        final long[] words = this.words;
+        return IntStream.range(0, universe.length)
+                .filter(ordinal -> (words[ordinal >>> 6] & (1L << ordinal)) != 0L)
+                .mapToObj(ordinal -> universe[ordinal]);
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (object instanceof JumboEnumStates<?> other && this.universe() == other.universe()) {
+            return Arrays.equals(this.words, other.words);
+        }
+        return super.equals(object);
+    }
+
+    @Override
+    public int hashCode() {
+        final S[] universe = this.universe();
+        int hashCode = 0;
+        for (int index = 0; index < this.words.length; index++) {
+            for (long word = this.words[index]; word != 0L; word &= word - 1) {
+                hashCode += universe[(index << 6) + Long.numberOfTrailingZeros(word)].hashCode();
+            }
+        }
+        return hashCode;
+    }
+}
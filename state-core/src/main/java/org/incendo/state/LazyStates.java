@@ -23,7 +23,12 @@
 //
 package org.incendo.state;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 import org.apiguardian.api.API;
@@ -32,6 +37,16 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 @API(status = API.Status.INTERNAL, since = "1.0.0")
 final class LazyStates<S extends State<S>> implements States<S> {
 
+    private static final VarHandle BACKING_STATES;
+
+    static {
+        try {
+            BACKING_STATES = MethodHandles.lookup().findVarHandle(LazyStates.class, "backingStates", States.class);
+        } catch (final ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private final Supplier<@NonNull States<S>> statesSupplier;
     private States<S> backingStates;
 
@@ -39,11 +54,40 @@ final class LazyStates<S extends State<S>> implements States<S> {
         this.statesSupplier = Objects.requireNonNull(statesSupplier, "statesSupplier");
     }
 
-    private synchronized @NonNull States<S> backingStates() {
-        if (this.backingStates == null) {
-            this.backingStates = Objects.requireNonNull(this.statesSupplier.get(), "backingStates");
+    /**
+     * Returns the backing states of the given {@code states} if they are lazy, or else the states themselves.
+     *
+     * @param <S>    state type
+     * @param states states to resolve
+     * @return the resolved states
+     */
+    static <S extends State<S>> @NonNull States<S> resolve(final @NonNull States<S> states) {
+        if (states instanceof LazyStates<S> lazyStates) {
+            return lazyStates.backingStates();
+        }
+        return states;
+    }
+
+    @SuppressWarnings("unchecked")
+    private @NonNull States<S> backingStates() {
+        final States<S> backingStates = (States<S>) BACKING_STATES.getAcquire(this);
+        if (backingStates != null) {
+            return backingStates;
         }
-        return this.backingStates;
+        return this.initializeBackingStates();
+    }
+
+    /**
+     * Evaluates the supplier and publishes the result. Racing threads may evaluate the supplier concurrently, in
+     * which case the first published result wins and is returned to all of them.
+     *
+     * @return the published backing states
+     */
+    @SuppressWarnings("unchecked")
+    private @NonNull States<S> initializeBackingStates() {
+        final States<S> suppliedStates = Objects.requireNonNull(this.statesSupplier.get(), "backingStates");
+        final States<S> witness = (States<S>) BACKING_STATES.compareAndExchangeRelease(this, null, suppliedStates);
+        return witness == null ? suppliedStates : witness;
     }
 
     @Override
@@ -56,6 +100,51 @@ final class LazyStates<S extends State<S>> implements States<S> {
         return this.backingStates().withState(state);
     }
 
+    @Override
+    public @NonNull States<S> withoutState(final @NonNull S state) {
+        return this.backingStates().withoutState(state);
+    }
+
+    @Override
+    public boolean containsAll(final @NonNull States<S> states) {
+        return this.backingStates().containsAll(states);
+    }
+
+    @Override
+    public @NonNull States<S> union(final @NonNull States<S> states) {
+        return this.backingStates().union(states);
+    }
+
+    @Override
+    public @NonNull States<S> intersect(final @NonNull States<S> states) {
+        return this.backingStates().intersect(states);
+    }
+
+    @Override
+    public @NonNull States<S> difference(final @NonNull States<S> states) {
+        return this.backingStates().difference(states);
+    }
+
+    @Override
+    public int size() {
+        return this.backingStates().size();
+    }
+
+    @Override
+    public void forEach(final @NonNull Consumer<? super S> action) {
+        this.backingStates().forEach(action);
+    }
+
+    @Override
+    public @NonNull Iterator<S> iterator() {
+        return this.backingStates().iterator();
+    }
+
+    @Override
+    public @NonNull S @NonNull [] toArray(final @NonNull IntFunction<@NonNull S @NonNull []> generator) {
+        return this.backingStates().toArray(generator);
+    }
+
     @Override
     public boolean empty() {
         return this.backingStates().empty();
@@ -65,4 +154,22 @@ final class LazyStates<S extends State<S>> implements States<S> {
     public @NonNull Stream<S> states() {
         return this.backingStates().states();
     }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (object instanceof LazyStates<?> other) {
+            return this.backingStates().equals(other.backingStates());
+        }
+        return this.backingStates().equals(object);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.backingStates().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.backingStates().toString();
+    }
 }
@@ -0,0 +1,461 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.common.returnsreceiver.qual.This;
+
+/**
+ * An all-or-nothing interaction across several {@link AbstractStateful} instances, which may have different state
+ * types.
+ *
+ * <p>When executed, the locks of all participants are acquired in a global order, so that concurrent multi-instance
+ * interactions never deadlock each other. The incoming states of all participants are validated before the interaction
+ * is invoked. The interaction stages the transitions using {@link Transitions}, and the staged transitions are only
+ * applied once the outgoing states of all participants have been validated. If any validation fails, or the
+ * interaction throws, no state is changed.</p>
+ *
+ * <p>Like {@link StateInteraction#execute()}, the interaction waits for queued asynchronous interactions with any of
+ * the participants to complete, unless it is executed from within an interaction with that participant.</p>
+ *
+ * <p>Listeners and waiters of the participants are notified once all locks have been released.</p>
+ *
+ * <pre>{@code
+ * MultiStateInteraction.builder()
+ *     .participant(match, States.of(MatchState.LOBBY), States.of(MatchState.RUNNING))
+ *     .participant(player, States.of(PlayerState.WAITING), States.of(PlayerState.PLAYING))
+ *     .interaction(transitions -> {
+ *         transitions.transitionTo(match, MatchState.RUNNING);
+ *         transitions.transitionTo(player, PlayerState.PLAYING);
+ *     })
+ *     .execute();
+ * }</pre>
+ *
+ * @since 1.1.0
+ */
+@API(status = API.Status.STABLE, since = "1.1.0")
+public final class MultiStateInteraction {
+
+    /**
+     * Returns a new builder.
+     *
+     * @return the builder
+     */
+    public static @NonNull Builder builder() {
+        return new Builder();
+    }
+
+    private final Participant<?>[] participants;
+    private final StateLock[] locks;
+    private final Interaction interaction;
+
+    private MultiStateInteraction(
+            final @NonNull Participant<?> @NonNull [] participants,
+            final @NonNull StateLock @NonNull [] locks,
+            final @NonNull Interaction interaction
+    ) {
+        this.participants = participants;
+        this.locks = locks;
+        this.interaction = interaction;
+    }
+
+    /**
+     * Executes the interaction.
+     *
+     * @return the result of the interaction
+     * @throws IllegalStateTransitionException if the interaction staged a transition that is not possible, in which case
+     *                                         no state is changed
+     */
+    public @NonNull Result execute() {
+        CompletableFuture<Void> queued = null;
+        while (true) {
+            if (queued != null) {
+                queued.join();
+            }
+            final Transitions transitions;
+            int locked = 0;
+            try {
+                for (final StateLock lock : this.locks) {
+                    lock.lock();
+                    locked++;
+                }
+
+                // Checked while holding the locks, so that an asynchronous interaction cannot start in between.
+                queued = this.queuedInteractions();
+                if (queued != null) {
+                    continue;
+                }
+
+                for (final Participant<?> participant : this.participants) {
+                    final UnexpectedStateException exception = participant.validateIncoming();
+                    if (exception != null) {
+                        return new Result.IllegalIncomingState(participant.instance(), exception);
+                    }
+                }
+
+                transitions = new Transitions(this.participants);
+                try {
+                    this.interaction.interact(transitions);
+                } catch (final RuntimeException e) {
+                    throw e;
+                } catch (final Throwable throwable) {
+                    throw new RuntimeException(throwable);
+                }
+
+                for (int index = 0; index < this.participants.length; index++) {
+                    final UnexpectedStateException exception = transitions.validateOutgoing(index);
+                    if (exception != null) {
+                        return new Result.IllegalOutgoingState(this.participants[index].instance(), exception);
+                    }
+                }
+
+                transitions.apply();
+            } finally {
+                while (locked > 0) {
+                    this.locks[--locked].unlock();
+                }
+            }
+            transitions.transitioned();
+            return Result.Succeeded.INSTANCE;
+        }
+    }
+
+    /**
+     * Returns the queued interactions of a participant that this interaction must wait for.
+     *
+     * <p>The caller must hold the locks of all participants. Participants whose lock was already held by the current
+     * thread, or whose queued task the current thread is invoking, are executing this interaction themselves, and are
+     * therefore not waited for.</p>
+     *
+     * @return a future completed once the queued interactions have completed, or {@code null} if there are none
+     */
+    private @Nullable CompletableFuture<Void> queuedInteractions() {
+        for (final Participant<?> participant : this.participants) {
+            final AbstractStateful<?, ?> instance = participant.instance();
+            if (InteractionQueue.isBusy(instance)
+                    && instance.lock().holdCount() == 1
+                    && !InteractionQueue.isEntered(instance)) {
+                return InteractionQueue.idle(instance);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Builder of {@link MultiStateInteraction}.
+     *
+     * @since 1.1.0
+     */
+    @API(status = API.Status.STABLE, since = "1.1.0")
+    public static final class Builder {
+
+        private final List<Participant<?>> participants = new ArrayList<>();
+        private Interaction interaction = transitions -> { };
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a participant whose outgoing state is not validated.
+         *
+         * @param <U>            state type
+         * @param instance       stateful instance
+         * @param incomingStates allowed incoming states
+         * @return {@code this}
+         * @throws IllegalArgumentException if the instance is already a participant
+         */
+        public <U extends State<U>> @This @NonNull Builder participant(
+                final @NonNull AbstractStateful<U, ?> instance,
+                final @NonNull States<U> incomingStates
+        ) {
+            return this.add(new Participant<>(instance, incomingStates, null));
+        }
+
+        /**
+         * Adds a participant.
+         *
+         * @param <U>            state type
+         * @param instance       stateful instance
+         * @param incomingStates allowed incoming states
+         * @param outgoingStates allowed outgoing states
+         * @return {@code this}
+         * @throws IllegalArgumentException if the instance is already a participant
+         */
+        public <U extends State<U>> @This @NonNull Builder participant(
+                final @NonNull AbstractStateful<U, ?> instance,
+                final @NonNull States<U> incomingStates,
+                final @NonNull States<U> outgoingStates
+        ) {
+            return this.add(new Participant<>(instance, incomingStates, Objects.requireNonNull(outgoingStates, "outgoingStates")));
+        }
+
+        private @This @NonNull Builder add(final @NonNull Participant<?> participant) {
+            for (final Participant<?> existing : this.participants) {
+                if (existing.instance() == participant.instance()) {
+                    throw new IllegalArgumentException(String.format("%s is already a participant", participant.instance()));
+                }
+            }
+            this.participants.add(participant);
+            return this;
+        }
+
+        /**
+         * Sets the interaction.
+         *
+         * @param interaction interaction
+         * @return {@code this}
+         */
+        public @This @NonNull Builder interaction(final @NonNull Interaction interaction) {
+            this.interaction = Objects.requireNonNull(interaction, "interaction");
+            return this;
+        }
+
+        /**
+         * Builds the interaction.
+         *
+         * @return the interaction
+         */
+        public @NonNull MultiStateInteraction build() {
+            final Map<StateLock, Boolean> locks = new IdentityHashMap<>();
+            for (final Participant<?> participant : this.participants) {
+                locks.put(participant.instance().lock(), Boolean.TRUE);
+            }
+            final StateLock[] sortedLocks = locks.keySet().toArray(new StateLock[0]);
+            Arrays.sort(sortedLocks, Comparator.comparingLong(StateLock::id));
+            return new MultiStateInteraction(this.participants.toArray(new Participant<?>[0]), sortedLocks, this.interaction);
+        }
+
+        /**
+         * {@link #build() Builds} and {@link MultiStateInteraction#execute() executes} the interaction.
+         *
+         * @return the result of the interaction
+         */
+        public @NonNull Result execute() {
+            return this.build().execute();
+        }
+    }
+
+    /**
+     * The transitions that are staged by an {@link Interaction}.
+     *
+     * <p>Staged transitions are validated against the staged state of the participant, and are only applied once the
+     * interaction has completed successfully.</p>
+     *
+     * @since 1.1.0
+     */
+    @API(status = API.Status.STABLE, since = "1.1.0")
+    public static final class Transitions {
+
+        private final Participant<?>[] participants;
+        private final State<?>[] states;
+        private int steps;
+        private int[] stepParticipants = new int[4];
+        private State<?>[] stepStates = new State<?>[8];
+
+        private Transitions(final @NonNull Participant<?> @NonNull [] participants) {
+            this.participants = participants;
+            this.states = new State<?>[participants.length];
+            for (int index = 0; index < participants.length; index++) {
+                this.states[index] = participants[index].instance().unsynchronizedState();
+            }
+        }
+
+        /**
+         * Returns the staged state of the given participant.
+         *
+         * @param <U>      state type
+         * @param instance participant
+         * @return the staged state
+         * @throws IllegalArgumentException if the instance is not a participant
+         */
+        @SuppressWarnings("unchecked")
+        public <U extends State<U>> @NonNull U state(final @NonNull AbstractStateful<U, ?> instance) {
+            return (U) this.states[this.indexOf(instance)];
+        }
+
+        /**
+         * Stages a transition of the given participant into the given {@code state}.
+         *
+         * @param <U>      state type
+         * @param instance participant
+         * @param state    new state
+         * @throws IllegalArgumentException        if the instance is not a participant
+         * @throws IllegalStateTransitionException if the transition from the staged state is not possible
+         */
+        @SuppressWarnings("unchecked")
+        public <U extends State<U>> void transitionTo(final @NonNull AbstractStateful<U, ?> instance, final @NonNull U state)
+                throws IllegalStateTransitionException {
+            Objects.requireNonNull(state, "state");
+            final int index = this.indexOf(instance);
+            final U stagedState = (U) this.states[index];
+            if (!instance.canTransition(stagedState, state)) {
+                throw new IllegalStateTransitionException(stagedState, state, instance);
+            }
+            if (this.steps == this.stepParticipants.length) {
+                this.stepParticipants = Arrays.copyOf(this.stepParticipants, this.steps * 2);
+                this.stepStates = Arrays.copyOf(this.stepStates, this.steps * 4);
+            }
+            this.stepParticipants[this.steps] = index;
+            this.stepStates[this.steps * 2] = stagedState;
+            this.stepStates[this.steps * 2 + 1] = state;
+            this.steps++;
+            this.states[index] = state;
+        }
+
+        private int indexOf(final @NonNull AbstractStateful<?, ?> instance) {
+            Objects.requireNonNull(instance, "instance");
+            for (int index = 0; index < this.participants.length; index++) {
+                if (this.participants[index].instance() == instance) {
+                    return index;
+                }
+            }
+            throw new IllegalArgumentException(String.format("%s is not a participant", instance));
+        }
+
+        private @Nullable UnexpectedStateException validateOutgoing(final int index) {
+            return this.participants[index].validateOutgoing(this.states[index]);
+        }
+
+        private void apply() {
+            for (int step = 0; step < this.steps; step++) {
+                this.participants[this.stepParticipants[step]].apply(this.stepStates[step * 2], this.stepStates[step * 2 + 1]);
+            }
+        }
+
+        private void transitioned() {
+            for (int step = 0; step < this.steps; step++) {
+                this.participants[this.stepParticipants[step]].transitioned(this.stepStates[step * 2], this.stepStates[step * 2 + 1]);
+            }
+        }
+    }
+
+    /**
+     * An interaction across several instances.
+     *
+     * @since 1.1.0
+     */
+    @FunctionalInterface
+    @API(status = API.Status.STABLE, since = "1.1.0")
+    public interface Interaction {
+
+        /**
+         * Performs the interaction.
+         *
+         * <p>The interaction has exclusive access to all participants, but must stage transitions using the given
+         * {@code transitions} rather than transitioning the participants directly.</p>
+         *
+         * @param transitions staged transitions
+         */
+        void interact(@NonNull Transitions transitions) throws Throwable;
+    }
+
+    /**
+     * The result of a {@link MultiStateInteraction}.
+     *
+     * @since 1.1.0
+     */
+    @API(status = API.Status.STABLE, since = "1.1.0")
+    public sealed interface Result {
+
+        /**
+         * The staged transitions were applied.
+         */
+        enum Succeeded implements Result {
+            INSTANCE
+        }
+
+        /**
+         * A participant was not in any of its incoming states, and the interaction was not invoked.
+         *
+         * @param instance  participant
+         * @param exception exception describing the state of the participant
+         */
+        record IllegalIncomingState(
+                @NonNull Stateful<?, ?> instance,
+                @NonNull UnexpectedStateException exception
+        ) implements Result {
+        }
+
+        /**
+         * A participant would not have been in any of its outgoing states, and no transition was applied.
+         *
+         * @param instance  participant
+         * @param exception exception describing the staged state of the participant
+         */
+        record IllegalOutgoingState(
+                @NonNull Stateful<?, ?> instance,
+                @NonNull UnexpectedStateException exception
+        ) implements Result {
+        }
+    }
+
+    private record Participant<U extends State<U>>(
+            @NonNull AbstractStateful<U, ?> instance,
+            @NonNull States<U> incomingStates,
+            @Nullable States<U> outgoingStates
+    ) {
+
+        private Participant {
+            Objects.requireNonNull(instance, "instance");
+            Objects.requireNonNull(incomingStates, "incomingStates");
+        }
+
+        private @Nullable UnexpectedStateException validateIncoming() {
+            final U state = this.instance.unsynchronizedState();
+            if (this.incomingStates.contains(state)) {
+                return null;
+            }
+            return new UnexpectedStateException(this.incomingStates, state, this.instance);
+        }
+
+        @SuppressWarnings("unchecked")
+        private @Nullable UnexpectedStateException validateOutgoing(final @NonNull State<?> state) {
+            final States<U> outgoingStates = this.outgoingStates;
+            if (outgoingStates == null || outgoingStates.contains((U) state)) {
+                return null;
+            }
+            return new UnexpectedStateException(outgoingStates, state, this.instance);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void apply(final @NonNull State<?> from, final @NonNull State<?> to) {
+            this.instance.unsynchronizedTryTransition((U) from, (U) to);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void transitioned(final @NonNull State<?> from, final @NonNull State<?> to) {
+            this.instance.transitioned((U) from, (U) to);
+        }
+    }
+}
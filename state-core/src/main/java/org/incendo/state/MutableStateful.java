@@ -71,6 +71,51 @@ public interface MutableStateful<U extends State<U>, V extends MutableStateful<U
     @This @NonNull V transition(@NonNull U currentState, @NonNull U newState) throws
             UnexpectedStateException, IllegalStateTransitionException;
 
+    /**
+     * Transitions to the given {@code state}, without throwing if the transition is not possible.
+     *
+     * <p>The default implementation catches the exception thrown by {@link #transitionTo(State)}. The implementations
+     * provided by this library never construct an exception.</p>
+     *
+     * @param state new state
+     * @return {@link TransitionResult#SUCCESS} if the state was transitioned, or
+     *     {@link TransitionResult#ILLEGAL_TRANSITION} if the state transition is not possible
+     * @since 1.1.0
+     */
+    default @NonNull TransitionResult tryTransitionTo(final @NonNull U state) {
+        try {
+            this.transitionTo(state);
+            return TransitionResult.SUCCESS;
+        } catch (final IllegalStateTransitionException e) {
+            return TransitionResult.ILLEGAL_TRANSITION;
+        }
+    }
+
+    /**
+     * Transitions from the given {@code currentState} to the given {@code newState}, without throwing if the actual
+     * state is different or the transition is not possible.
+     *
+     * <p>The default implementation catches the exceptions thrown by {@link #transition(State, State)}. The
+     * implementations provided by this library never construct an exception.</p>
+     *
+     * @param currentState expected current state
+     * @param newState     new state
+     * @return {@link TransitionResult#SUCCESS} if the state was transitioned, {@link TransitionResult#UNEXPECTED_STATE}
+     *     if the actual {@link #state()} is different from the {@code currentState}, or
+     *     {@link TransitionResult#ILLEGAL_TRANSITION} if the state transition is not possible
+     * @since 1.1.0
+     */
+    default @NonNull TransitionResult tryTransition(final @NonNull U currentState, final @NonNull U newState) {
+        try {
+            this.transition(currentState, newState);
+            return TransitionResult.SUCCESS;
+        } catch (final IllegalStateTransitionException e) {
+            return TransitionResult.ILLEGAL_TRANSITION;
+        } catch (final UnexpectedStateException e) {
+            return TransitionResult.UNEXPECTED_STATE;
+        }
+    }
+
     /**
      * Creates a new interaction builder.
      *
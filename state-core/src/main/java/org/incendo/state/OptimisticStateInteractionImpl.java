@@ -0,0 +1,249 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.concurrent.CompletableFuture;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An interaction that computes the new state without exclusive access to the instance, and commits it only if the
+ * state has not changed in the meantime.
+ *
+ * <p>For instances that are guarded by a {@link StateLock}, the snapshot is taken using an optimistic read, and the
+ * commit converts the optimistic read into the write lock. A conflict is detected whenever the lock was acquired since
+ * the snapshot, which includes writes to other instances that share a striped lock. Other instances are committed using
+ * {@link MutableStateful#transition(State, State)}.</p>
+ *
+ * @param <U> state type
+ * @param <V> stateful type
+ */
+@API(status = API.Status.INTERNAL, since = "1.1.0")
+record OptimisticStateInteractionImpl<U extends State<U>, V extends Stateful<U, V>>(
+        @NonNull V instance,
+        @NonNull States<U> incomingStates,
+        @NonNull States<U> outgoingStates,
+        @NonNull States<U> shortcircuitStates,
+        @NonNull OptimisticInteraction<U, V> interaction,
+        @NonNull RetryPolicy retryPolicy
+) implements StateInteraction<U, V> {
+
+    OptimisticStateInteractionImpl {
+        if (!(instance instanceof MutableStateful<?, ?>)) {
+            throw new IllegalArgumentException(String.format("Optimistic interactions require a mutable stateful, got %s", instance));
+        }
+    }
+
+    @Override
+    public @NonNull InteractionResult<U, V> execute() {
+        final StateLock lock = StateInteractionImpl.lock(this.instance);
+        // A thread that already holds the lock cannot take an optimistic snapshot, and queued interactions cannot start
+        // before it releases the lock.
+        if (lock != null && lock.isHeldByCurrentThread()) {
+            return this.executeExclusively();
+        }
+        for (int attempt = 0; attempt < this.retryPolicy.maxAttempts(); attempt++) {
+            if (InteractionQueue.isBusy(this.instance)) {
+                return this.executeQueued();
+            }
+            final InteractionResult<U, V> result = lock == null ? this.tryCompareAndSet() : this.tryValidate(lock);
+            if (result != null) {
+                return result;
+            }
+            Thread.onSpinWait();
+        }
+        if (lock == null) {
+            if (!InteractionQueue.isBusy(this.instance)) {
+                return this.executeExclusively();
+            }
+        } else {
+            lock.lock();
+            try {
+                // Checked while holding the lock, so that an asynchronous interaction cannot start in between.
+                if (!InteractionQueue.isBusy(this.instance)) {
+                    return this.executeExclusively();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return this.executeQueued();
+    }
+
+    private @NonNull InteractionResult<U, V> executeQueued() {
+        // The enclosing interaction is queued ahead of this one, and cannot complete while this one waits for it.
+        if (InteractionQueue.isEntered(this.instance)) {
+            return this.executeExclusively();
+        }
+        return InteractionQueue.join(this.executeAsync());
+    }
+
+    @Override
+    public @NonNull CompletableFuture<@NonNull InteractionResult<U, V>> executeAsync() {
+        return InteractionQueue.enqueue(this.instance, () -> CompletableFuture.completedFuture(this.executeExclusively()));
+    }
+
+    /**
+     * Attempts to execute the interaction using an optimistic read of the {@code lock}.
+     *
+     * @param lock lock guarding the instance
+     * @return the result, or {@code null} if the state changed or an interaction was queued while the interaction was
+     *     executed
+     */
+    @SuppressWarnings("unchecked")
+    private @Nullable InteractionResult<U, V> tryValidate(final @NonNull StateLock lock) {
+        final AbstractStateful<U, ?> stateful = (AbstractStateful<U, ?>) this.instance;
+        final long stamp = lock.tryOptimisticRead();
+        if (stamp == 0L) {
+            return null;
+        }
+        final U state = stateful.unsynchronizedState();
+        if (!lock.validate(stamp)) {
+            return null;
+        }
+
+        final InteractionResult<U, V> incomingResult = StateInteractionImpl.validateIncoming(
+                this.instance,
+                state,
+                this.incomingStates,
+                this.shortcircuitStates
+        );
+        if (incomingResult != null) {
+            return incomingResult;
+        }
+
+        final U newState = this.interact(state);
+        if (!this.outgoingStates.contains(newState) || newState.equals(state)) {
+            return lock.validate(stamp) ? this.result(newState) : null;
+        }
+        if (!lock.tryLock(stamp)) {
+            return null;
+        }
+        try {
+            // Converting the stamp does not wait for queued interactions, which must not be overtaken.
+            if (InteractionQueue.isBusy(this.instance)) {
+                return null;
+            }
+            stateful.unsynchronizedTransitionTo(newState);
+        } finally {
+            lock.unlock();
+        }
+        stateful.transitioned(state, newState);
+        return this.result(newState);
+    }
+
+    /**
+     * Attempts to execute the interaction, and to commit the new state using a compare-and-set.
+     *
+     * @return the result, or {@code null} if the state changed while the interaction was executed
+     */
+    @SuppressWarnings("unchecked")
+    private @Nullable InteractionResult<U, V> tryCompareAndSet() {
+        final U state = this.instance.state();
+
+        final InteractionResult<U, V> incomingResult = StateInteractionImpl.validateIncoming(
+                this.instance,
+                state,
+                this.incomingStates,
+                this.shortcircuitStates
+        );
+        if (incomingResult != null) {
+            return incomingResult;
+        }
+
+        final U newState = this.interact(state);
+        if (!this.outgoingStates.contains(newState) || newState.equals(state)) {
+            return this.instance.state().equals(state) ? this.result(newState) : null;
+        }
+        try {
+            ((MutableStateful<U, ?>) this.instance).transition(state, newState);
+        } catch (final UnexpectedStateException e) {
+            return null;
+        }
+        return this.result(newState);
+    }
+
+    @SuppressWarnings("unchecked")
+    private @NonNull InteractionResult<U, V> executeExclusively() {
+        final StateLock lock = StateInteractionImpl.lock(this.instance);
+
+        if (lock != null) {
+            lock.lock();
+        }
+
+        try {
+            final U state = this.instance.state();
+            final InteractionResult<U, V> incomingResult = StateInteractionImpl.validateIncoming(
+                    this.instance,
+                    state,
+                    this.incomingStates,
+                    this.shortcircuitStates
+            );
+            if (incomingResult != null) {
+                return incomingResult;
+            }
+
+            final U newState = this.interact(state);
+            if (this.outgoingStates.contains(newState) && !newState.equals(state)) {
+                ((MutableStateful<U, ?>) this.instance).transitionTo(newState);
+            }
+            return this.result(newState);
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private @NonNull U interact(final @NonNull U state) {
+        try {
+            return this.interaction.interact(this.instance, state);
+        } catch (final RuntimeException e) {
+            throw e;
+        } catch (final Throwable throwable) {
+            throw new RuntimeException(throwable);
+        }
+    }
+
+    /**
+     * Returns the result of an interaction that computed the given {@code newState}.
+     *
+     * <p>Unlike other interactions, an interaction that computes an illegal outgoing state leaves the state of the
+     * instance unchanged.</p>
+     *
+     * @param newState computed state
+     * @return the result
+     */
+    private @NonNull InteractionResult<U, V> result(final @NonNull U newState) {
+        if (!this.outgoingStates.contains(newState)) {
+            return new InteractionResult.Failed.IllegalOutgoingState<>(
+                    this.instance,
+                    this.instance,
+                    new UnexpectedStateException(this.outgoingStates, newState, this.instance)
+            );
+        }
+        return new InteractionResult.Succeeded<>(this.instance, this.instance);
+    }
+}
@@ -0,0 +1,227 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * {@link EnumStates} for enum types with at most 64 constants, backed by a single {@code long}.
+ *
+ * <p>Set operations against another instance of the same enum type are single bitwise operations.</p>
+ *
+ * @param <S> state type
+ */
+@API(status = API.Status.INTERNAL, since = "1.1.0")
+final class RegularEnumStates<S extends State<S>> extends EnumStates<S> {
+
+    private final long mask;
+
+    RegularEnumStates(final @NonNull S @NonNull [] universe, final long mask) {
+        super(universe);
+        this.mask = mask;
+    }
+
+    /**
+     * Returns the bitmask of the contained ordinals.
+     *
+     * @return the bitmask
+     */
+    long mask() {
+        return this.mask;
+    }
+
+    private @NonNull States<S> withMask(final long mask) {
+        if (mask == this.mask) {
+            return this;
+        }
+        if (mask == 0L) {
+            return States.of();
+        }
+        return new RegularEnumStates<>(this.universe(), mask);
+    }
+
+    /**
+     * Returns the given {@code states} as an instance with the same universe as this instance, or {@code null}
+     * if the fast paths cannot be used.
+     *
+     * @param states states
+     * @return the states, or {@code null}
+     */
+    private RegularEnumStates<S> compatible(final @NonNull States<S> states) {
+        if (LazyStates.resolve(states) instanceof RegularEnumStates<S> other && other.universe() == this.universe()) {
+            return other;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean contains(final @NonNull S state) {
+        final int ordinal = this.ordinal(state);
+        return ordinal >= 0 && (this.mask & (1L << ordinal)) != 0L;
+    }
+
+    @Override
+    public boolean containsAll(final @NonNull States<S> states) {
+        final RegularEnumStates<S> other = this.compatible(states);
+        if (other != null) {
+            return (other.mask & ~this.mask) == 0L;
+        }
+        return super.containsAll(states);
+    }
+
+    @Override
+    public @NonNull States<S> withState(final @NonNull S state) {
+        Objects.requireNonNull(state, "state");
+        final int ordinal = this.ordinal(state);
+        if (ordinal < 0) {
+            return this.withForeignState(state);
+        }
+        return this.withMask(this.mask | (1L << ordinal));
+    }
+
+    @Override
+    public @NonNull States<S> withoutState(final @NonNull S state) {
+        Objects.requireNonNull(state, "state");
+        final int ordinal = this.ordinal(state);
+        if (ordinal < 0) {
+            return this;
+        }
+        return this.withMask(this.mask & ~(1L << ordinal));
+    }
+
+    @Override
+    public @NonNull States<S> union(final @NonNull States<S> states) {
+        final RegularEnumStates<S> other = this.compatible(states);
+        if (other != null) {
+            return (this.mask | other.mask) == other.mask ? other : this.withMask(this.mask | other.mask);
+        }
+        return super.union(states);
+    }
+
+    @Override
+    public @NonNull States<S> intersect(final @NonNull States<S> states) {
+        final RegularEnumStates<S> other = this.compatible(states);
+        if (other != null) {
+            return this.withMask(this.mask & other.mask);
+        }
+        return super.intersect(states);
+    }
+
+    @Override
+    public @NonNull States<S> difference(final @NonNull States<S> states) {
+        final RegularEnumStates<S> other = this.compatible(states);
+        if (other != null) {
+            return this.withMask(this.mask & ~other.mask);
+        }
+        return super.difference(states);
+    }
+
+    @Override
+    public boolean empty() {
+        return this.mask == 0L;
+    }
+
+    @Override
+    public int size() {
+        return Long.bitCount(this.mask);
+    }
+
+    @Override
+    public void forEach(final @NonNull Consumer<? super S> action) {
+        final S[] universe = this.universe();
+        for (long mask = this.mask; mask != 0L; mask &= mask - 1) {
+            action.accept(universe[Long.numberOfTrailingZeros(mask)]);
+        }
+    }
+
+    @Override
+    public @NonNull Iterator<S> iterator() {
+        final S[] universe = this.universe();
+        return new Iterator<>() {
+
+            private long remaining = RegularEnumStates.this.mask;
+
+            @Override
+            public boolean hasNext() {
+                return this.remaining != 0L;
+            }
+
+            @Override
+            public @NonNull S next() {
+                if (this.remaining == 0L) {
+                    throw new NoSuchElementException();
+                }
+                final int ordinal = Long.numberOfTrailingZeros(this.remaining);
+                this.remaining &= this.remaining - 1;
+                return universe[ordinal];
+            }
+        };
+    }
+
+    @Override
+    public @NonNull S @NonNull [] toArray(final @NonNull IntFunction<@NonNull S @NonNull []> generator) {
+        final S[] universe = this.universe();
+        final S[] array = generator.apply(this.size());
+        int index = 0;
+        for (long mask = this.mask; mask != 0L; mask &= mask - 1) {
+            array[index++] = universe[Long.numberOfTrailingZeros(mask)];
+        }
+        return array;
+    }
+
+    @Override
+    public @NonNull Stream<S> states() {
+        final S[] universe = this.universe();
+        final long mask = this.mask;
+        return IntStream.range(0, universe.length)
+                .filter(ordinal -> (mask & (1L << ordinal)) != 0L)
+                .mapToObj(ordinal -> universe[ordinal]);
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (object instanceof RegularEnumStates<?> other && this.universe() == other.universe()) {
+            return this.mask == other.mask;
+        }
+        return super.equals(object);
+    }
+
+    @Override
+    public int hashCode() {
+        final S[] universe = this.universe();
+        int hashCode = 0;
+        for (long mask = this.mask; mask != 0L; mask &= mask - 1) {
+            hashCode += universe[Long.numberOfTrailingZeros(mask)].hashCode();
+        }
+        return hashCode;
+    }
+}
@@ -0,0 +1,80 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * {@link StateStore} for state spaces with at most 65536 states, backed by a {@code short[]}.
+ *
+ * @param <S> state type
+ */
+@API(status = API.Status.INTERNAL, since = "1.1.0")
+final class ShortStateStore<S extends State<S>> extends StateStore<S> {
+
+    static final int MAX_STATES = 65536;
+
+    private static final VarHandle STATES = MethodHandles.arrayElementVarHandle(short[].class);
+
+    private final short[] states;
+
+    ShortStateStore(final @NonNull StateSpace<S> stateSpace, final int size, final int initialStateId) {
+        super(stateSpace);
+        this.states = new short[size];
+        Arrays.fill(this.states, (short) initialStateId);
+    }
+
+    @Override
+    int load(final int index) {
+        return (short) STATES.getAcquire(this.states, index) & 0xFFFF;
+    }
+
+    @Override
+    boolean compareAndSet(final int index, final int expected, final int stateId) {
+        return STATES.compareAndSet(this.states, index, (short) expected, (short) stateId);
+    }
+
+    @Override
+    int replaceAll(final int expected, final int stateId) {
+        final short[] states = this.states;
+        final short expectedValue = (short) expected;
+        final short value = (short) stateId;
+        int count = 0;
+        for (int index = 0; index < states.length; index++) {
+            if (states[index] == expectedValue && STATES.compareAndSet(states, index, expectedValue, value)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int size() {
+        return this.states.length;
+    }
+}
@@ -56,6 +56,9 @@ public interface State<S extends State<S>> extends Stateful<S, S> {
     /**
      * Returns whether this state is a terminal state.
      *
+     * <p>This resolves the {@link #allowedTransitions()} on every invocation. {@link StateGraph#isTerminal(State)}
+     * answers the same question using a precomputed lookup.</p>
+     *
      * @return {@code true} if this state is terminal, {@code false} if not
      */
     default boolean terminal() {
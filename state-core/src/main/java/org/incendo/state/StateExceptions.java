@@ -0,0 +1,63 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import org.apiguardian.api.API;
+
+/**
+ * Settings shared by the exceptions that are thrown when a state is rejected.
+ *
+ * <p>Rejections are often expected, and may happen at a high rate. Setting the system property
+ * {@value #STACKLESS_PROPERTY} to {@code true} makes {@link UnexpectedStateException} and
+ * {@link IllegalStateTransitionException} skip capturing their stack trace, which is by far the most expensive part of
+ * constructing them.</p>
+ */
+@API(status = API.Status.INTERNAL, since = "1.1.0")
+final class StateExceptions {
+
+    static final String STACKLESS_PROPERTY = "org.incendo.state.stacklessExceptions";
+
+    private static volatile boolean stackless = Boolean.getBoolean(STACKLESS_PROPERTY);
+
+    private StateExceptions() {
+    }
+
+    /**
+     * Returns whether state exceptions skip capturing their stack trace.
+     *
+     * @return {@code true} if stack traces are not captured, {@code false} if they are
+     */
+    static boolean stackless() {
+        return stackless;
+    }
+
+    /**
+     * Sets whether state exceptions skip capturing their stack trace.
+     *
+     * @param stackless {@code true} to skip capturing stack traces, {@code false} to capture them
+     */
+    static void stackless(final boolean stackless) {
+        StateExceptions.stackless = stackless;
+    }
+}
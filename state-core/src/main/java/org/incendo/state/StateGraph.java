@@ -0,0 +1,390 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Precomputed analysis of the transition graph of a {@link StateMachine}.
+ *
+ * <p>The graph is walked once when the analysis is created. Reachability, terminality, strongly connected components
+ * and unreachable states are cached, so that all lookups are constant-time.</p>
+ *
+ * <p>Reachability is reflexive: every state is considered to be able to eventually reach itself, using zero
+ * transitions.</p>
+ *
+ * @param <S> state type
+ * @since 1.1.0
+ */
+@API(status = API.Status.STABLE, since = "1.1.0")
+public final class StateGraph<S extends State<S>> {
+
+    /**
+     * Analyzes the given {@code stateMachine}, using all of its states as roots.
+     *
+     * @param <S>          state type
+     * @param stateMachine state machine
+     * @return the analysis
+     */
+    public static <S extends State<S>> @NonNull StateGraph<S> analyze(final @NonNull StateMachine<S> stateMachine) {
+        return analyze(stateMachine, stateMachine.states());
+    }
+
+    /**
+     * Analyzes the given {@code stateMachine}, starting from the given {@code roots}.
+     *
+     * @param <S>          state type
+     * @param stateMachine state machine
+     * @param roots        root states, such as the initial states of the machine
+     * @return the analysis
+     * @throws IllegalArgumentException if any of the roots is not part of the state machine
+     */
+    public static <S extends State<S>> @NonNull StateGraph<S> analyze(
+            final @NonNull StateMachine<S> stateMachine,
+            final @NonNull Iterable<? extends S> roots
+    ) {
+        Objects.requireNonNull(stateMachine, "stateMachine");
+        Objects.requireNonNull(roots, "roots");
+        return new StateGraph<>(stateMachine, roots);
+    }
+
+    private static int nextSetBit(final long @NonNull [] bits, final int offset, final int words, final int from) {
+        int word = from >>> 6;
+        if (word >= words) {
+            return -1;
+        }
+        long value = bits[offset + word] & (-1L << from);
+        while (true) {
+            if (value != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(value);
+            }
+            if (++word == words) {
+                return -1;
+            }
+            value = bits[offset + word];
+        }
+    }
+
+    private static boolean get(final long @NonNull [] bits, final int offset, final int index) {
+        return (bits[offset + (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    private final StateMachine<S> stateMachine;
+    private final int words;
+    private final int[] components;
+    private final long[] reachability;
+    private final long[] terminal;
+    private final long[] cyclic;
+    private final long[] dead;
+    private final long[] reachableFromRoots;
+    private final States<S>[] reachableStates;
+    private final List<States<S>> stronglyConnectedComponents;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private StateGraph(final @NonNull StateMachine<S> stateMachine, final @NonNull Iterable<? extends S> roots) {
+        this.stateMachine = stateMachine;
+        final int size = stateMachine.size();
+        final int words = stateMachine.words();
+        final long[] matrix = stateMachine.matrix();
+        this.words = words;
+
+        // Tarjan's algorithm emits the components in reverse topological order, so the reachability of every
+        // component can be computed from the components it has edges to, which have already been emitted.
+        this.components = new int[size];
+        final int componentCount = this.findComponents(matrix);
+        final int[] order = new int[size];
+        final int[] componentStart = new int[componentCount + 1];
+        for (int id = 0; id < size; id++) {
+            componentStart[this.components[id] + 1]++;
+        }
+        for (int component = 0; component < componentCount; component++) {
+            componentStart[component + 1] += componentStart[component];
+        }
+        final int[] cursor = Arrays.copyOf(componentStart, componentCount);
+        for (int id = 0; id < size; id++) {
+            order[cursor[this.components[id]]++] = id;
+        }
+
+        final long[] componentReachability = new long[componentCount * words];
+        final List<States<S>> stronglyConnectedComponents = new ArrayList<>(componentCount);
+        this.terminal = new long[words];
+        this.cyclic = new long[words];
+        for (int component = 0; component < componentCount; component++) {
+            final int offset = component * words;
+            final int start = componentStart[component];
+            final int end = componentStart[component + 1];
+            final List<S> members = new ArrayList<>(end - start);
+            for (int position = start; position < end; position++) {
+                final int id = order[position];
+                members.add(stateMachine.state(id));
+                componentReachability[offset + (id >>> 6)] |= 1L << id;
+                final int rowOffset = id * words;
+                if (nextSetBit(matrix, rowOffset, words, 0) < 0) {
+                    this.terminal[id >>> 6] |= 1L << id;
+                }
+                if (end - start > 1 || get(matrix, rowOffset, id)) {
+                    this.cyclic[id >>> 6] |= 1L << id;
+                }
+                for (int to = nextSetBit(matrix, rowOffset, words, 0); to >= 0; to = nextSetBit(matrix, rowOffset, words, to + 1)) {
+                    final int target = this.components[to];
+                    if (target != component) {
+                        for (int word = 0; word < words; word++) {
+                            componentReachability[offset + word] |= componentReachability[target * words + word];
+                        }
+                    }
+                }
+            }
+            stronglyConnectedComponents.add(States.canonical(States.of(members)));
+        }
+        this.stronglyConnectedComponents = Collections.unmodifiableList(stronglyConnectedComponents);
+
+        final States<S>[] componentStates = new States[componentCount];
+        this.reachability = new long[size * words];
+        this.dead = new long[words];
+        this.reachableStates = new States[size];
+        for (int id = 0; id < size; id++) {
+            final int component = this.components[id];
+            final int offset = component * words;
+            System.arraycopy(componentReachability, offset, this.reachability, id * words, words);
+            boolean canTerminate = false;
+            for (int word = 0; word < words; word++) {
+                canTerminate |= (componentReachability[offset + word] & this.terminal[word]) != 0;
+            }
+            if (!canTerminate) {
+                this.dead[id >>> 6] |= 1L << id;
+            }
+            if (componentStates[component] == null) {
+                componentStates[component] = this.toStates(componentReachability, offset);
+            }
+            this.reachableStates[id] = componentStates[component];
+        }
+
+        this.reachableFromRoots = new long[words];
+        for (final S root : roots) {
+            final int offset = this.id(root) * words;
+            for (int word = 0; word < words; word++) {
+                this.reachableFromRoots[word] |= this.reachability[offset + word];
+            }
+        }
+    }
+
+    private int findComponents(final long @NonNull [] matrix) {
+        final int size = this.stateMachine.size();
+        final int words = this.words;
+        final int[] index = new int[size];
+        final int[] lowLink = new int[size];
+        final int[] nextTarget = new int[size];
+        final boolean[] onStack = new boolean[size];
+        final int[] stack = new int[size];
+        final int[] callStack = new int[size];
+        Arrays.fill(index, -1);
+        int nextIndex = 0;
+        int stackSize = 0;
+        int componentCount = 0;
+
+        for (int root = 0; root < size; root++) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            callStack[depth++] = root;
+            index[root] = lowLink[root] = nextIndex++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            while (depth > 0) {
+                final int id = callStack[depth - 1];
+                final int to = nextSetBit(matrix, id * words, words, nextTarget[id]);
+                if (to >= 0) {
+                    nextTarget[id] = to + 1;
+                    if (index[to] < 0) {
+                        index[to] = lowLink[to] = nextIndex++;
+                        stack[stackSize++] = to;
+                        onStack[to] = true;
+                        callStack[depth++] = to;
+                    } else if (onStack[to]) {
+                        lowLink[id] = Math.min(lowLink[id], index[to]);
+                    }
+                    continue;
+                }
+                if (lowLink[id] == index[id]) {
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        onStack[member] = false;
+                        this.components[member] = componentCount;
+                    } while (member != id);
+                    componentCount++;
+                }
+                if (--depth > 0) {
+                    final int caller = callStack[depth - 1];
+                    lowLink[caller] = Math.min(lowLink[caller], lowLink[id]);
+                }
+            }
+        }
+        return componentCount;
+    }
+
+    private @NonNull States<S> toStates(final long @NonNull [] bits, final int offset) {
+        final List<S> states = new ArrayList<>();
+        for (int id = nextSetBit(bits, offset, this.words, 0); id >= 0; id = nextSetBit(bits, offset, this.words, id + 1)) {
+            states.add(this.stateMachine.state(id));
+        }
+        return States.canonical(States.of(states));
+    }
+
+    private int id(final @NonNull S state) {
+        final int id = this.stateMachine.id(Objects.requireNonNull(state, "state"));
+        if (id < 0) {
+            throw new IllegalArgumentException(String.format("State %s is not part of %s", state, this.stateMachine));
+        }
+        return id;
+    }
+
+    /**
+     * Returns the analyzed state machine.
+     *
+     * @return the state machine
+     */
+    public @NonNull StateMachine<S> stateMachine() {
+        return this.stateMachine;
+    }
+
+    /**
+     * Returns the states that can eventually be reached from the given {@code state}, including the state itself.
+     *
+     * @param state state
+     * @return the reachable states
+     * @throws IllegalArgumentException if the state is not part of the state machine
+     */
+    public @NonNull States<S> reachableFrom(final @NonNull S state) {
+        return this.reachableStates[this.id(state)];
+    }
+
+    /**
+     * Returns whether the state {@code from} can eventually reach the state {@code to}, using any number of transitions.
+     *
+     * @param from current state
+     * @param to   target state
+     * @return {@code true} if {@code to} is reachable from {@code from}, {@code false} if not
+     * @throws IllegalArgumentException if either state is not part of the state machine
+     */
+    public boolean canEventuallyReach(final @NonNull S from, final @NonNull S to) {
+        return get(this.reachability, this.id(from) * this.words, this.id(to));
+    }
+
+    /**
+     * Returns whether the given {@code state} is terminal, meaning that it has no outgoing transitions.
+     *
+     * @param state state
+     * @return {@code true} if the state is terminal, {@code false} if not
+     * @throws IllegalArgumentException if the state is not part of the state machine
+     */
+    public boolean isTerminal(final @NonNull S state) {
+        return get(this.terminal, 0, this.id(state));
+    }
+
+    /**
+     * Returns whether a terminal state can eventually be reached from the given {@code state}.
+     *
+     * @param state state
+     * @return {@code true} if the state can still terminate, {@code false} if it is a dead state
+     * @throws IllegalArgumentException if the state is not part of the state machine
+     */
+    public boolean canTerminate(final @NonNull S state) {
+        return !get(this.dead, 0, this.id(state));
+    }
+
+    /**
+     * Returns whether the given {@code state} is part of a cycle, meaning that it can eventually transition back into
+     * itself.
+     *
+     * @param state state
+     * @return {@code true} if the state is part of a cycle, {@code false} if not
+     * @throws IllegalArgumentException if the state is not part of the state machine
+     */
+    public boolean isCyclic(final @NonNull S state) {
+        return get(this.cyclic, 0, this.id(state));
+    }
+
+    /**
+     * Returns the strongly connected component that contains the given {@code state}.
+     *
+     * @param state state
+     * @return the states that can all reach each other, including the given state
+     * @throws IllegalArgumentException if the state is not part of the state machine
+     */
+    public @NonNull States<S> stronglyConnectedComponent(final @NonNull S state) {
+        return this.stronglyConnectedComponents.get(this.components[this.id(state)]);
+    }
+
+    /**
+     * Returns the strongly connected components of the graph, in reverse topological order.
+     *
+     * <p>No component has a transition into a component that comes after it in the list.</p>
+     *
+     * @return unmodifiable list of components
+     */
+    public @NonNull List<@NonNull States<S>> stronglyConnectedComponents() {
+        return this.stronglyConnectedComponents;
+    }
+
+    /**
+     * Returns the terminal states.
+     *
+     * @return the terminal states
+     */
+    public @NonNull States<S> terminalStates() {
+        return this.toStates(this.terminal, 0);
+    }
+
+    /**
+     * Returns the dead states, meaning the states from which no terminal state can be reached.
+     *
+     * @return the dead states
+     */
+    public @NonNull States<S> deadStates() {
+        return this.toStates(this.dead, 0);
+    }
+
+    /**
+     * Returns the states that cannot be reached from any of the roots that the graph was analyzed from.
+     *
+     * @return the unreachable states
+     */
+    public @NonNull States<S> unreachableStates() {
+        final long[] unreachable = new long[this.words];
+        final int size = this.stateMachine.size();
+        for (int word = 0; word < this.words; word++) {
+            final long mask = word == this.words - 1 && (size & 63) != 0 ? (1L << size) - 1 : -1L;
+            unreachable[word] = ~this.reachableFromRoots[word] & mask;
+        }
+        return this.toStates(unreachable, 0);
+    }
+}
@@ -24,9 +24,12 @@
 package org.incendo.state;
 
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Consumer;
 import org.apiguardian.api.API;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.common.returnsreceiver.qual.This;
 
 @API(status = API.Status.STABLE, since = "1.0.0")
@@ -53,6 +56,31 @@ public interface StateInteraction<U extends State<U>, V extends Stateful<U, V>>
      */
     @NonNull InteractionResult<U, V> execute();
 
+    /**
+     * Executes the interaction asynchronously.
+     *
+     * <p>Interactions on the same instance are executed one at a time, in the order they were submitted. An instance
+     * that is waiting for an {@link AsyncInteraction} to complete does not block any thread, but other interactions on
+     * the instance are queued until it has completed. The incoming states are validated when the interaction starts, and
+     * the outgoing states once the stage returned by the interaction has completed.</p>
+     *
+     * <p>Interactions must not execute other interactions on the same instance and wait for them, as the nested
+     * interaction is queued behind the interaction that waits for it.</p>
+     *
+     * <p>Any checked exceptions will be wrapped in {@link RuntimeException}, and complete the returned future
+     * exceptionally.</p>
+     *
+     * @return future completed with the result of the interaction
+     * @since 1.1.0
+     */
+    default @NonNull CompletableFuture<@NonNull InteractionResult<U, V>> executeAsync() {
+        try {
+            return CompletableFuture.completedFuture(this.execute());
+        } catch (final RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     final class Builder<U extends State<U>, V extends Stateful<U, V>> implements StateInteraction<U, V> {
 
         private final V instance;
@@ -61,6 +89,9 @@ public interface StateInteraction<U extends State<U>, V extends Stateful<U, V>>
         private States<U> outgoingStates;
         private States<U> shortCircuitStates;
         private Interaction<U, V> interaction;
+        private @Nullable AsyncInteraction<U, V> asyncInteraction;
+        private @Nullable OptimisticInteraction<U, V> optimisticInteraction;
+        private RetryPolicy retryPolicy = RetryPolicy.DEFAULT;
 
         private Builder(final @NonNull V instance) {
             this.instance = Objects.requireNonNull(instance, "instance");
@@ -114,6 +145,55 @@ public interface StateInteraction<U extends State<U>, V extends Stateful<U, V>>
          */
         public @This @NonNull Builder<U, V> interaction(final @NonNull Interaction<U, V> interaction) {
             this.interaction = Objects.requireNonNull(interaction, "interaction");
+            this.asyncInteraction = null;
+            this.optimisticInteraction = null;
+            return this;
+        }
+
+        /**
+         * Sets the interaction to an asynchronous interaction.
+         *
+         * <p>This replaces any previously set {@link #interaction(Interaction) interaction}.</p>
+         *
+         * @param interaction asynchronous interaction
+         * @return {@code this}
+         * @since 1.1.0
+         */
+        public @This @NonNull Builder<U, V> asyncInteraction(final @NonNull AsyncInteraction<U, V> interaction) {
+            this.asyncInteraction = Objects.requireNonNull(interaction, "interaction");
+            this.optimisticInteraction = null;
+            return this;
+        }
+
+        /**
+         * Sets the interaction to an optimistic interaction.
+         *
+         * <p>Optimistic interactions are executed without exclusive access to the instance, and only acquire it to
+         * commit the state that they computed, if the state has not changed in the meantime. If it has, the interaction
+         * is retried according to the {@link #retryPolicy(RetryPolicy) retry policy}, and finally executed while holding
+         * exclusive access to the instance.</p>
+         *
+         * <p>This replaces any previously set {@link #interaction(Interaction) interaction}.</p>
+         *
+         * @param interaction optimistic interaction
+         * @return {@code this}
+         * @since 1.1.0
+         */
+        public @This @NonNull Builder<U, V> optimisticInteraction(final @NonNull OptimisticInteraction<U, V> interaction) {
+            this.optimisticInteraction = Objects.requireNonNull(interaction, "interaction");
+            this.asyncInteraction = null;
+            return this;
+        }
+
+        /**
+         * Sets the retry policy of an {@link #optimisticInteraction(OptimisticInteraction) optimistic interaction}.
+         *
+         * @param retryPolicy retry policy
+         * @return {@code this}
+         * @since 1.1.0
+         */
+        public @This @NonNull Builder<U, V> retryPolicy(final @NonNull RetryPolicy retryPolicy) {
+            this.retryPolicy = Objects.requireNonNull(retryPolicy, "retryPolicy");
             return this;
         }
 
@@ -136,6 +216,25 @@ public interface StateInteraction<U extends State<U>, V extends Stateful<U, V>>
          * @return the interaction
          */
         public @NonNull StateInteraction<U, V> build() {
+            if (this.optimisticInteraction != null) {
+                return new OptimisticStateInteractionImpl<>(
+                        this.instance,
+                        this.incomingStates,
+                        this.outgoingStates,
+                        this.shortCircuitStates,
+                        this.optimisticInteraction,
+                        this.retryPolicy
+                );
+            }
+            if (this.asyncInteraction != null) {
+                return new AsyncStateInteractionImpl<>(
+                        this.instance,
+                        this.incomingStates,
+                        this.outgoingStates,
+                        this.shortCircuitStates,
+                        this.asyncInteraction
+                );
+            }
             return new StateInteractionImpl<>(
                     this.instance,
                     this.incomingStates,
@@ -154,6 +253,17 @@ public interface StateInteraction<U extends State<U>, V extends Stateful<U, V>>
         public @NonNull InteractionResult<U, V> execute() {
             return this.build().execute();
         }
+
+        /**
+         * {@link #build() Builds} and {@link StateInteraction#executeAsync() executes} the interaction asynchronously.
+         *
+         * @return future completed with the result of the interaction
+         * @since 1.1.0
+         */
+        @Override
+        public @NonNull CompletableFuture<@NonNull InteractionResult<U, V>> executeAsync() {
+            return this.build().executeAsync();
+        }
     }
 
     @FunctionalInterface
@@ -179,6 +289,88 @@ public interface StateInteraction<U extends State<U>, V extends Stateful<U, V>>
         @NonNull V interact(@NonNull V stateful) throws Throwable;
     }
 
+    /**
+     * An interaction that completes asynchronously.
+     *
+     * @param <U> state type
+     * @param <V> stateful type
+     * @since 1.1.0
+     */
+    @FunctionalInterface
+    @API(status = API.Status.STABLE, since = "1.1.0")
+    interface AsyncInteraction<U extends State<U>, V extends Stateful<U, V>> {
+
+        /**
+         * Starts the interaction.
+         *
+         * <p>The interaction is started while the instance is locked, but the lock is released before the returned
+         * stage completes.</p>
+         *
+         * <p>Interactions with the same instance that are executed while the interaction is being started run
+         * immediately. Interactions that are executed by the returned stage on other threads are queued behind this
+         * interaction, so the stage must not wait for them to complete.</p>
+         *
+         * @param stateful stateful instance to perform interaction on
+         * @return stage completed with the result of the interaction
+         */
+        @NonNull CompletionStage<V> interact(@NonNull V stateful) throws Throwable;
+    }
+
+    /**
+     * An interaction that computes the new state of an instance from a snapshot of its state.
+     *
+     * <p>The interaction may be invoked several times for a single execution, and without exclusive access to the
+     * instance. It must therefore not transition the instance itself, and should not have any other side effects.</p>
+     *
+     * @param <U> state type
+     * @param <V> stateful type
+     * @since 1.1.0
+     */
+    @FunctionalInterface
+    @API(status = API.Status.STABLE, since = "1.1.0")
+    interface OptimisticInteraction<U extends State<U>, V extends Stateful<U, V>> {
+
+        /**
+         * Computes the new state of the instance.
+         *
+         * @param stateful stateful instance to perform interaction on
+         * @param state    snapshot of the state of the instance
+         * @return the state to transition the instance into, or {@code state} to leave it unchanged
+         */
+        @NonNull U interact(@NonNull V stateful, @NonNull U state) throws Throwable;
+    }
+
+    /**
+     * The policy used to retry an {@link OptimisticInteraction} when the state of the instance changed while it was
+     * being executed.
+     *
+     * <p>Once all optimistic attempts have failed, the interaction is executed while holding exclusive access to the
+     * instance, which always succeeds.</p>
+     *
+     * @param maxAttempts maximum number of optimistic attempts, or {@code 0} to always acquire exclusive access
+     * @since 1.1.0
+     */
+    @API(status = API.Status.STABLE, since = "1.1.0")
+    record RetryPolicy(int maxAttempts) {
+
+        /**
+         * The default policy, which makes three optimistic attempts.
+         */
+        public static final RetryPolicy DEFAULT = new RetryPolicy(3);
+
+        /**
+         * Creates a new policy.
+         *
+         * @param maxAttempts maximum number of optimistic attempts, or {@code 0} to always acquire exclusive access
+         * @throws IllegalArgumentException if {@code maxAttempts} is negative
+         */
+        public RetryPolicy {
+            if (maxAttempts < 0) {
+                throw new IllegalArgumentException("maxAttempts must not be negative");
+            }
+        }
+    }
+
     sealed interface InteractionResult<U extends State<U>, V extends Stateful<U, V>> {
 
         /**
@@ -23,9 +23,10 @@
 //
 package org.incendo.state;
 
-import java.util.concurrent.locks.Lock;
+import java.util.concurrent.CompletableFuture;
 import org.apiguardian.api.API;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 @API(status = API.Status.STABLE, since = "1.0.0")
 record StateInteractionImpl<U extends State<U>, V extends Stateful<U, V>>(
@@ -36,34 +37,164 @@ record StateInteractionImpl<U extends State<U>, V extends Stateful<U, V>>(
         @NonNull Interaction<U, V> interaction
 ) implements StateInteraction<U, V> {
 
+    /**
+     * Returns the lock that guards the given {@code instance} during interactions, if any.
+     *
+     * @param instance stateful instance
+     * @return the lock, or {@code null}
+     */
+    static @Nullable StateLock lock(final @NonNull Stateful<?, ?> instance) {
+        if (instance instanceof AbstractLockableStateful<?, ?> lockableStateful) {
+            return lockableStateful.lock();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the metrics that interactions with the given {@code instance} report to.
+     *
+     * @param <U>      state type
+     * @param instance stateful instance
+     * @return the metrics of the instance, or {@link TransitionMetrics#noop()} if it does not report any
+     */
+    @SuppressWarnings("unchecked")
+    static <U extends State<U>> @NonNull TransitionMetrics<U> metrics(final @NonNull Stateful<U, ?> instance) {
+        if (instance instanceof AbstractStateful<?, ?> abstractStateful) {
+            return (TransitionMetrics<U>) abstractStateful.metrics();
+        }
+        return TransitionMetrics.noop();
+    }
+
+    /**
+     * Validates the current state of the given {@code instance} before an interaction.
+     *
+     * @param <U>                state type
+     * @param <V>                stateful type
+     * @param instance           stateful instance
+     * @param incomingStates     allowed incoming states
+     * @param shortcircuitStates short-circuit states
+     * @return the result of the interaction if it should not be performed, or {@code null} if it should
+     */
+    static <U extends State<U>, V extends Stateful<U, V>> @Nullable InteractionResult<U, V> validateIncoming(
+            final @NonNull V instance,
+            final @NonNull States<U> incomingStates,
+            final @NonNull States<U> shortcircuitStates
+    ) {
+        return validateIncoming(instance, instance.state(), incomingStates, shortcircuitStates);
+    }
+
+    /**
+     * Validates the given {@code currentState} of the {@code instance} before an interaction.
+     *
+     * @param <U>                state type
+     * @param <V>                stateful type
+     * @param instance           stateful instance
+     * @param currentState       current state of the instance
+     * @param incomingStates     allowed incoming states
+     * @param shortcircuitStates short-circuit states
+     * @return the result of the interaction if it should not be performed, or {@code null} if it should
+     */
+    static <U extends State<U>, V extends Stateful<U, V>> @Nullable InteractionResult<U, V> validateIncoming(
+            final @NonNull V instance,
+            final @NonNull U currentState,
+            final @NonNull States<U> incomingStates,
+            final @NonNull States<U> shortcircuitStates
+    ) {
+        if (shortcircuitStates.contains(currentState)) {
+            metrics(instance).onShortCircuit(currentState);
+            return new InteractionResult.ShortCircuited<>(instance);
+        }
+
+        if (!incomingStates.contains(currentState)) {
+            metrics(instance).onUnexpectedState(currentState);
+            return new InteractionResult.Failed.IllegalIncomingState<>(
+                    instance,
+                    new UnexpectedStateException(incomingStates, currentState, instance)
+            );
+        }
+
+        return null;
+    }
+
+    /**
+     * Validates the state of the {@code result} of an interaction.
+     *
+     * @param <U>            state type
+     * @param <V>            stateful type
+     * @param instance       stateful instance
+     * @param result         result of the interaction
+     * @param outgoingStates allowed outgoing states
+     * @return the result of the interaction
+     */
+    static <U extends State<U>, V extends Stateful<U, V>> @NonNull InteractionResult<U, V> validateOutgoing(
+            final @NonNull V instance,
+            final @NonNull V result,
+            final @NonNull States<U> outgoingStates
+    ) {
+        final U newState = result.state();
+        if (!outgoingStates.contains(newState)) {
+            metrics(instance).onUnexpectedState(newState);
+            return new InteractionResult.Failed.IllegalOutgoingState<>(
+                    instance,
+                    result,
+                    new UnexpectedStateException(outgoingStates, newState, result)
+            );
+        }
+
+        return new InteractionResult.Succeeded<>(instance, result);
+    }
+
     @Override
     public @NonNull InteractionResult<U, V> execute() {
-        final Lock lock;
-        if (this.instance instanceof AbstractLockableStateful<?, ?> lockableStateful) {
-            lock = lockableStateful.lock().writeLock();
+        final StateLock lock = lock(this.instance);
+        if (lock == null) {
+            if (!InteractionQueue.isBusy(this.instance)) {
+                return this.executeExclusively();
+            }
+        } else if (lock.isHeldByCurrentThread()) {
+            // A nested interaction already has exclusive access, and would wait forever for the queued interactions,
+            // which cannot start until the lock is released.
+            return this.executeExclusively();
         } else {
-            lock = null;
+            lock.lock(metrics(this.instance));
+            try {
+                // Checked while holding the lock, so that an asynchronous interaction cannot start in between.
+                if (!InteractionQueue.isBusy(this.instance)) {
+                    return this.executeExclusively();
+                }
+            } finally {
+                lock.unlock();
+            }
         }
+        // The enclosing interaction is queued ahead of this one, and cannot complete while this one waits for it.
+        if (InteractionQueue.isEntered(this.instance)) {
+            return this.executeExclusively();
+        }
+        return InteractionQueue.join(this.executeAsync());
+    }
+
+    @Override
+    public @NonNull CompletableFuture<@NonNull InteractionResult<U, V>> executeAsync() {
+        return InteractionQueue.enqueue(this.instance, () -> CompletableFuture.completedFuture(this.executeExclusively()));
+    }
+
+    private @NonNull InteractionResult<U, V> executeExclusively() {
+        final StateLock lock = lock(this.instance);
+
+        final TransitionMetrics<U> metrics = metrics(this.instance);
 
         if (lock != null) {
-            lock.lock();
+            lock.lock(metrics);
         }
 
         try {
-            final U currentState = this.instance.state();
-
-            if (this.shortcircuitStates.contains(currentState)) {
-                return new InteractionResult.ShortCircuited<>(this.instance);
-            }
-
-            if (!this.incomingStates.contains(currentState)) {
-                return new InteractionResult.Failed.IllegalIncomingState<>(
-                        this.instance,
-                        new UnexpectedStateException(this.incomingStates, currentState, this.instance)
-                );
+            final InteractionResult<U, V> incomingResult = validateIncoming(this.instance, this.incomingStates, this.shortcircuitStates);
+            if (incomingResult != null) {
+                return incomingResult;
             }
 
             final V result;
+            final long start = metrics == NoopTransitionMetrics.INSTANCE ? 0L : System.nanoTime();
 
             try {
                 result = this.interaction.interact(this.instance);
@@ -71,18 +202,13 @@ record StateInteractionImpl<U extends State<U>, V extends Stateful<U, V>>(
                 throw e;
             } catch (final Throwable throwable) {
                 throw new RuntimeException(throwable);
+            } finally {
+                if (metrics != NoopTransitionMetrics.INSTANCE) {
+                    metrics.onInteraction(System.nanoTime() - start);
+                }
             }
 
-            final U newState = result.state();
-            if (!this.outgoingStates.contains(newState)) {
-                return new InteractionResult.Failed.IllegalOutgoingState<>(
-                        this.instance,
-                        result,
-                        new UnexpectedStateException(this.outgoingStates, newState, result)
-                );
-            }
-
-            return new InteractionResult.Succeeded<>(this.instance, result);
+            return validateOutgoing(this.instance, result, this.outgoingStates);
         } finally {
             if (lock != null) {
                 lock.unlock();
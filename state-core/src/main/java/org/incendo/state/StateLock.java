@@ -0,0 +1,223 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The lock guarding the state of an {@link AbstractStateful}.
+ *
+ * <p>Plain instances own their lock, while {@link AbstractLockableStateful} instances may share it with other instances
+ * through a {@link StripedStateLocks} pool.</p>
+ *
+ * <p>This is a {@link StampedLock} with a reentrant write lock. Readers use optimistic reads, and only acquire the read
+ * lock if a write was in progress. A thread that holds the write lock may read the state without acquiring the read
+ * lock, which a {@link StampedLock} would otherwise not allow.</p>
+ *
+ * <p>Every lock has a unique {@link #id()}, which defines the order in which threads that acquire several locks at
+ * once acquire them.</p>
+ */
+@API(status = API.Status.INTERNAL, since = "1.1.0")
+final class StateLock {
+
+    private static final AtomicLong IDS = new AtomicLong();
+
+    private final long id = IDS.getAndIncrement();
+    private final StampedLock lock = new StampedLock();
+
+    private volatile @Nullable Thread owner;
+    private int holds;
+    private long stamp;
+
+    /**
+     * Returns the unique id of this lock.
+     *
+     * <p>Locks that are created later have a greater id.</p>
+     *
+     * @return the id
+     */
+    long id() {
+        return this.id;
+    }
+
+    /**
+     * Acquires the write lock, blocking until it is available.
+     *
+     * <p>The lock is reentrant, and must be {@link #unlock() released} once for every time it was acquired.</p>
+     */
+    void lock() {
+        final Thread thread = Thread.currentThread();
+        if (this.owner == thread) {
+            this.holds++;
+            return;
+        }
+        final long stamp = this.lock.writeLock();
+        this.owner = thread;
+        this.holds = 1;
+        this.stamp = stamp;
+    }
+
+    /**
+     * Acquires the write lock like {@link #lock()}, and reports the time spent waiting for it to the given
+     * {@code metrics}.
+     *
+     * <p>The clock is only read if the lock is contended, and never if the metrics are {@link TransitionMetrics#noop()}.
+     * Reentrant acquisitions are not reported.</p>
+     *
+     * @param metrics metrics
+     */
+    void lock(final @NonNull TransitionMetrics<?> metrics) {
+        final Thread thread = Thread.currentThread();
+        if (metrics == NoopTransitionMetrics.INSTANCE || this.owner == thread) {
+            this.lock();
+            return;
+        }
+        long stamp = this.lock.tryWriteLock();
+        long waitNanos = 0L;
+        if (stamp == 0L) {
+            final long start = System.nanoTime();
+            stamp = this.lock.writeLock();
+            waitNanos = System.nanoTime() - start;
+        }
+        this.owner = thread;
+        this.holds = 1;
+        this.stamp = stamp;
+        metrics.onLockAcquired(waitNanos);
+    }
+
+    /**
+     * Acquires the write lock if it has not been acquired since the given optimistic {@code stamp} was issued.
+     *
+     * <p>This never blocks. If the lock is acquired, it must be {@link #unlock() released} like any other write lock.</p>
+     *
+     * @param stamp stamp returned by {@link #tryOptimisticRead()}
+     * @return {@code true} if the write lock was acquired, {@code false} if not
+     * @see StampedLock#tryConvertToWriteLock(long)
+     */
+    boolean tryLock(final long stamp) {
+        final long writeStamp = this.lock.tryConvertToWriteLock(stamp);
+        if (writeStamp == 0L) {
+            return false;
+        }
+        this.owner = Thread.currentThread();
+        this.holds = 1;
+        this.stamp = writeStamp;
+        return true;
+    }
+
+    /**
+     * Releases the write lock.
+     *
+     * @throws IllegalMonitorStateException if the current thread does not hold the write lock
+     */
+    void unlock() {
+        if (this.owner != Thread.currentThread()) {
+            throw new IllegalMonitorStateException();
+        }
+        if (--this.holds == 0) {
+            this.owner = null;
+            this.lock.unlockWrite(this.stamp);
+        }
+    }
+
+    /**
+     * Returns the number of holds on the write lock by the current thread.
+     *
+     * @return the number of holds, or {@code 0} if the current thread does not hold the write lock
+     */
+    int holdCount() {
+        return this.owner == Thread.currentThread() ? this.holds : 0;
+    }
+
+    /**
+     * Returns whether the write lock is held by the current thread.
+     *
+     * @return {@code true} if the current thread holds the write lock, {@code false} if not
+     */
+    boolean isHeldByCurrentThread() {
+        return this.owner == Thread.currentThread();
+    }
+
+    /**
+     * Returns a stamp for an optimistic read.
+     *
+     * @return the stamp, or {@code 0} if the write lock is held
+     * @see StampedLock#tryOptimisticRead()
+     */
+    long tryOptimisticRead() {
+        return this.lock.tryOptimisticRead();
+    }
+
+    /**
+     * Returns whether the write lock has not been acquired since the given {@code stamp} was issued.
+     *
+     * @param stamp stamp
+     * @return {@code true} if the read is still valid, {@code false} if not
+     * @see StampedLock#validate(long)
+     */
+    boolean validate(final long stamp) {
+        return this.lock.validate(stamp);
+    }
+
+    /**
+     * Acquires the read lock, blocking until it is available.
+     *
+     * <p>This must not be invoked by the thread that holds the write lock.</p>
+     *
+     * @return the stamp used to release the read lock
+     */
+    long readLock() {
+        return this.lock.readLock();
+    }
+
+    /**
+     * Acquires the read lock like {@link #readLock()}, and reports the time spent waiting for it to the given
+     * {@code metrics}.
+     *
+     * @param metrics metrics
+     * @return the stamp used to release the read lock
+     */
+    long readLock(final @NonNull TransitionMetrics<?> metrics) {
+        if (metrics == NoopTransitionMetrics.INSTANCE) {
+            return this.lock.readLock();
+        }
+        final long start = System.nanoTime();
+        final long stamp = this.lock.readLock();
+        metrics.onLockAcquired(System.nanoTime() - start);
+        return stamp;
+    }
+
+    /**
+     * Releases the read lock.
+     *
+     * @param stamp stamp returned by {@link #readLock()}
+     */
+    void unlockRead(final long stamp) {
+        this.lock.unlockRead(stamp);
+    }
+}
@@ -0,0 +1,345 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A compiled state machine definition.
+ *
+ * <p>The machine is compiled once from the {@link State#allowedTransitions()} of its states, and assigns every
+ * state a stable small-int {@link #id(State) id}. The transitions are stored in a dense {@code id x id} bit
+ * matrix, so that {@link #canTransition(State, State)} is a single array lookup.</p>
+ *
+ * <p>If every reachable state is a constant of the same enum type, the states use their {@link Enum#ordinal()} as their
+ * id, and the machine contains every constant of the enum type. Other states are discovered by walking the transitions
+ * from a set of root states, and are assigned ids in the order they are discovered.</p>
+ *
+ * <p>The allowed transitions of {@link AbstractState} states are {@link States#canonical(States) interned} when the machine
+ * is compiled, so that states that share a transition set share one instance.</p>
+ *
+ * <p>The allowed transitions of the states are assumed to be fixed. Changes made after the machine has been compiled are
+ * not reflected in the machine.</p>
+ *
+ * @param <S> state type
+ * @since 1.1.0
+ */
+@API(status = API.Status.STABLE, since = "1.1.0")
+public final class StateMachine<S extends State<S>> implements StateSpace<S> {
+
+    /**
+     * Compiles a machine containing all constants of the given enum {@code type}.
+     *
+     * @param <S>  state type
+     * @param type enum type
+     * @return the machine
+     */
+    public static <S extends Enum<S> & State<S>> @NonNull StateMachine<S> ofEnum(final @NonNull Class<S> type) {
+        Objects.requireNonNull(type, "type");
+        return new StateMachine<>(EnumStates.universe(type).clone(), null, null);
+    }
+
+    /**
+     * Compiles a machine containing the given {@code root} states, and all states that are reachable from them.
+     *
+     * @param <S>   state type
+     * @param root  first root state
+     * @param roots remaining root states
+     * @return the machine
+     */
+    @SafeVarargs
+    public static <S extends State<S>> @NonNull StateMachine<S> compile(final @NonNull S root, final @NonNull S @NonNull... roots) {
+        Objects.requireNonNull(root, "root");
+        final List<S> list = new ArrayList<>(roots.length + 1);
+        list.add(root);
+        for (final S other : roots) {
+            list.add(other);
+        }
+        return compile(list);
+    }
+
+    /**
+     * Compiles a machine containing the given {@code roots} states, and all states that are reachable from them.
+     *
+     * @param <S>   state type
+     * @param roots root states
+     * @return the machine
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <S extends State<S>> @NonNull StateMachine<S> compile(final @NonNull Iterable<? extends S> roots) {
+        Objects.requireNonNull(roots, "roots");
+        final Map<S, Integer> ids = new HashMap<>();
+        final List<S> states = new ArrayList<>();
+        final Deque<S> queue = new ArrayDeque<>();
+        for (final S root : roots) {
+            if (ids.putIfAbsent(Objects.requireNonNull(root, "root"), states.size()) == null) {
+                states.add(root);
+                queue.add(root);
+            }
+        }
+        while (!queue.isEmpty()) {
+            for (final S target : queue.poll().allowedTransitions()) {
+                if (ids.putIfAbsent(target, states.size()) == null) {
+                    states.add(target);
+                    queue.add(target);
+                }
+            }
+        }
+        final Class<?> enumType = enumType(states);
+        if (enumType != null) {
+            return (StateMachine<S>) ofEnum((Class) enumType);
+        }
+        final S[] stateArray = (S[]) states.toArray(new State<?>[0]);
+        for (final S state : stateArray) {
+            if (state instanceof AbstractState<?> abstractState) {
+                abstractState.internAllowedTransitions();
+            }
+        }
+        final Object[] table = new Object[tableSize(stateArray.length)];
+        final int[] tableIds = new int[table.length];
+        for (int id = 0; id < stateArray.length; id++) {
+            final int mask = table.length - 1;
+            int index = index(stateArray[id], mask);
+            while (table[index] != null) {
+                index = (index + 1) & mask;
+            }
+            table[index] = stateArray[id];
+            tableIds[index] = id;
+        }
+        return new StateMachine<>(stateArray, table, tableIds);
+    }
+
+    /**
+     * Returns the enum type of the given {@code states}, if they are all constants of the same enum type.
+     *
+     * @param states states
+     * @return the enum type, or {@code null}
+     */
+    private static @Nullable Class<?> enumType(final @NonNull List<?> states) {
+        if (states.isEmpty() || !(states.get(0) instanceof Enum<?> first)) {
+            return null;
+        }
+        final Class<?> type = first.getDeclaringClass();
+        for (final Object state : states) {
+            if (!(state instanceof Enum<?> constant) || constant.getDeclaringClass() != type) {
+                return null;
+            }
+        }
+        return type;
+    }
+
+    private static int tableSize(final int size) {
+        return Integer.highestOneBit(Math.max(size, 2) - 1) << 2;
+    }
+
+    private static int index(final @NonNull Object state, final int mask) {
+        final int hash = state.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private final S[] states;
+    private final Object @Nullable [] table;
+    private final int @Nullable [] tableIds;
+    private final int words;
+    private final long[] matrix;
+    private final @Nullable TransitionListeners<S> listeners;
+    private final TransitionMetrics<S> metrics;
+
+    private StateMachine(
+            final @NonNull S @NonNull [] states,
+            final @NonNull Object @Nullable [] table,
+            final int @Nullable [] tableIds
+    ) {
+        this.states = states;
+        this.table = table;
+        this.tableIds = tableIds;
+        this.words = EnumStates.wordCount(states.length);
+        this.matrix = new long[states.length * this.words];
+        for (int from = 0; from < states.length; from++) {
+            for (final S target : states[from].allowedTransitions()) {
+                final int to = this.id(target);
+                this.matrix[from * this.words + (to >>> 6)] |= 1L << to;
+            }
+        }
+        this.listeners = null;
+        this.metrics = TransitionMetrics.noop();
+    }
+
+    private StateMachine(
+            final @NonNull StateMachine<S> machine,
+            final @Nullable TransitionListeners<S> listeners,
+            final @NonNull TransitionMetrics<S> metrics
+    ) {
+        this.states = machine.states;
+        this.table = machine.table;
+        this.tableIds = machine.tableIds;
+        this.words = machine.words;
+        this.matrix = machine.matrix;
+        this.listeners = listeners;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public int size() {
+        return this.states.length;
+    }
+
+    /**
+     * Returns the states in this machine.
+     *
+     * @return the states
+     */
+    public @NonNull States<S> states() {
+        return States.of(Arrays.asList(this.states));
+    }
+
+    @Override
+    public int id(final @NonNull S state) {
+        final Object[] table = this.table;
+        if (table == null) {
+            // Constants of other enum types that share the state type alias an ordinal, and must not be mistaken for members.
+            return EnumStates.ordinal(this.states, state);
+        }
+        final int mask = table.length - 1;
+        for (int index = index(state, mask); ; index = (index + 1) & mask) {
+            final Object element = table[index];
+            if (element == null) {
+                return -1;
+            }
+            if (element == state || element.equals(state)) {
+                return this.tableIds[index];
+            }
+        }
+    }
+
+    @Override
+    public @NonNull S state(final int id) {
+        return this.states[id];
+    }
+
+    @Override
+    public boolean canTransition(final int from, final int to) {
+        Objects.checkIndex(from, this.states.length);
+        Objects.checkIndex(to, this.states.length);
+        return (this.matrix[from * this.words + (to >>> 6)] & (1L << to)) != 0;
+    }
+
+    /**
+     * Returns whether the state {@code from} can transition into the state {@code to}.
+     *
+     * @param from current state
+     * @param to   new state
+     * @return {@code true} if the state transition is allowed, {@code false} if not, or if either state is not part of
+     *     this machine
+     */
+    public boolean canTransition(final @NonNull S from, final @NonNull S to) {
+        final int fromId = this.id(from);
+        final int toId = this.id(to);
+        if (fromId < 0 || toId < 0) {
+            return false;
+        }
+        return (this.matrix[fromId * this.words + (toId >>> 6)] & (1L << toId)) != 0;
+    }
+
+    /**
+     * Returns a machine with the same states and transitions as this machine, that invokes the given {@code listeners}
+     * whenever an instance that validates its transitions using the returned machine transitions.
+     *
+     * <p>The compiled transition table is shared with this machine.</p>
+     *
+     * @param listeners global listeners, or {@code null} to remove them
+     * @return the machine
+     */
+    public @NonNull StateMachine<S> withListeners(final @Nullable TransitionListeners<S> listeners) {
+        return new StateMachine<>(this, listeners, this.metrics);
+    }
+
+    /**
+     * Returns the global listeners of this machine, if any.
+     *
+     * @return the listeners, or {@code null}
+     */
+    public @Nullable TransitionListeners<S> listeners() {
+        return this.listeners;
+    }
+
+    /**
+     * Returns a machine with the same states and transitions as this machine, that reports to the given {@code metrics}
+     * whenever an instance that validates its transitions using the returned machine transitions or is interacted with.
+     *
+     * <p>The compiled transition table is shared with this machine. Only instances that are created with the returned
+     * machine report to the metrics.</p>
+     *
+     * @param metrics metrics, or {@link TransitionMetrics#noop()} to remove them
+     * @return the machine
+     */
+    public @NonNull StateMachine<S> withMetrics(final @NonNull TransitionMetrics<S> metrics) {
+        return new StateMachine<>(this, this.listeners, Objects.requireNonNull(metrics, "metrics"));
+    }
+
+    /**
+     * Returns the metrics of this machine.
+     *
+     * @return the metrics, which are {@link TransitionMetrics#noop()} unless set using
+     *     {@link #withMetrics(TransitionMetrics)}
+     */
+    public @NonNull TransitionMetrics<S> metrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Returns the transition matrix, with one row of {@link #words()} words per state.
+     *
+     * <p>The returned array must not be modified.</p>
+     *
+     * @return the transition matrix
+     */
+    long @NonNull [] matrix() {
+        return this.matrix;
+    }
+
+    /**
+     * Returns the number of words in every row of the {@link #matrix()}.
+     *
+     * @return the number of words per row
+     */
+    int words() {
+        return this.words;
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return "StateMachine{states=" + Arrays.toString(this.states) + '}';
+    }
+}
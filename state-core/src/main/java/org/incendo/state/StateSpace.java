@@ -0,0 +1,84 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A fixed set of states that are encoded as small int ids, together with the transitions between them.
+ *
+ * <p>Ids are dense and in the range {@code [0, size())}, which allows states to be stored as primitives.</p>
+ *
+ * @param <S> state type
+ * @since 1.1.0
+ * @see StateMachine
+ */
+@API(status = API.Status.STABLE, since = "1.1.0")
+public interface StateSpace<S extends State<S>> {
+
+    /**
+     * Returns the number of states in this space.
+     *
+     * @return the number of states
+     */
+    int size();
+
+    /**
+     * Returns the id of the given {@code state}.
+     *
+     * @param state state
+     * @return the id, or {@code -1} if the state is not part of this space
+     */
+    int id(@NonNull S state);
+
+    /**
+     * Returns the state with the given {@code id}.
+     *
+     * @param id state id
+     * @return the state
+     * @throws IndexOutOfBoundsException if there is no state with the given id
+     */
+    @NonNull S state(int id);
+
+    /**
+     * Returns whether the state with the id {@code from} can transition into the state with the id {@code to}.
+     *
+     * @param from id of the current state
+     * @param to   id of the new state
+     * @return {@code true} if the state transition is allowed, {@code false} if not
+     * @throws IndexOutOfBoundsException if either id is out of bounds
+     */
+    boolean canTransition(int from, int to);
+
+    /**
+     * Returns whether the given {@code state} is part of this space.
+     *
+     * @param state state
+     * @return {@code true} if the state is part of this space, {@code false} if not
+     */
+    default boolean contains(final @NonNull S state) {
+        return this.id(state) >= 0;
+    }
+}
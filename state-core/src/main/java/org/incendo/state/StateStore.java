@@ -0,0 +1,372 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.Objects;
+import java.util.function.IntConsumer;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.common.returnsreceiver.qual.This;
+
+/**
+ * Thread-safe columnar storage for the states of a fixed number of entities.
+ *
+ * <p>Entities are identified by an index in the range {@code [0, size())}. Their states are stored as
+ * {@link StateSpace#id(State) state ids} in a contiguous primitive array, using a {@code byte} per entity for state spaces
+ * with at most 256 states and a {@code short} per entity for state spaces with at most 65536 states. Transitions are
+ * validated using the transition table of the {@link StateSpace}, which is compiled from
+ * {@link State#allowedTransitions()} when using a {@link StateMachine}.</p>
+ *
+ * <p>Every entity is updated atomically, but bulk operations are not atomic as a whole: concurrent updates of individual
+ * entities may be observed while a bulk operation is in progress.</p>
+ *
+ * @param <S> state type
+ * @since 1.1.0
+ */
+@API(status = API.Status.STABLE, since = "1.1.0")
+public abstract sealed class StateStore<S extends State<S>> permits ByteStateStore, ShortStateStore {
+
+    /**
+     * Creates a new store with {@code size} entities that are all in the {@code initialState}.
+     *
+     * @param <S>          state type
+     * @param stateSpace   state space
+     * @param size         number of entities
+     * @param initialState initial state of every entity
+     * @return the store
+     * @throws IllegalArgumentException if the initial state is not part of the state space, if the size is negative or
+     *                                  if the state space contains more than 65536 states
+     */
+    public static <S extends State<S>> @NonNull StateStore<S> create(
+            final @NonNull StateSpace<S> stateSpace,
+            final int size,
+            final @NonNull S initialState
+    ) {
+        Objects.requireNonNull(stateSpace, "stateSpace");
+        Objects.requireNonNull(initialState, "initialState");
+        if (size < 0) {
+            throw new IllegalArgumentException("Negative size: " + size);
+        }
+        final int initialStateId = stateSpace.id(initialState);
+        if (initialStateId < 0) {
+            throw new IllegalArgumentException(String.format("State %s is not part of %s", initialState, stateSpace));
+        }
+        if (stateSpace.size() <= ByteStateStore.MAX_STATES) {
+            return new ByteStateStore<>(stateSpace, size, initialStateId);
+        }
+        if (stateSpace.size() <= ShortStateStore.MAX_STATES) {
+            return new ShortStateStore<>(stateSpace, size, initialStateId);
+        }
+        throw new IllegalArgumentException(String.format("%s contains more than %d states", stateSpace, ShortStateStore.MAX_STATES));
+    }
+
+    private final StateSpace<S> stateSpace;
+
+    StateStore(final @NonNull StateSpace<S> stateSpace) {
+        this.stateSpace = stateSpace;
+    }
+
+    /**
+     * Returns the state id of the entity at the given {@code index}.
+     *
+     * @param index entity index
+     * @return the state id
+     */
+    abstract int load(int index);
+
+    /**
+     * Atomically replaces the state id of the entity at the given {@code index} if it is equal to {@code expected}.
+     *
+     * @param index    entity index
+     * @param expected expected state id
+     * @param stateId  new state id
+     * @return {@code true} if the state id was replaced, {@code false} if not
+     */
+    abstract boolean compareAndSet(int index, int expected, int stateId);
+
+    /**
+     * Replaces the state id of every entity whose state id is {@code expected}.
+     *
+     * @param expected expected state id
+     * @param stateId  new state id
+     * @return the number of replaced entities
+     */
+    abstract int replaceAll(int expected, int stateId);
+
+    /**
+     * Returns the state space that the states are encoded with.
+     *
+     * @return the state space
+     */
+    public final @NonNull StateSpace<S> stateSpace() {
+        return this.stateSpace;
+    }
+
+    /**
+     * Returns the number of entities in this store.
+     *
+     * @return the number of entities
+     */
+    public abstract int size();
+
+    /**
+     * Returns the state id of the entity at the given {@code index}.
+     *
+     * @param index entity index
+     * @return the state id
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public final int stateId(final int index) {
+        return this.load(index);
+    }
+
+    /**
+     * Returns the state of the entity at the given {@code index}.
+     *
+     * @param index entity index
+     * @return the state
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public final @NonNull S get(final int index) {
+        return this.stateSpace.state(this.load(index));
+    }
+
+    /**
+     * Transitions the entity at the given {@code index} to the given {@code state}.
+     *
+     * @param index entity index
+     * @param state new state
+     * @throws IllegalStateTransitionException if the state transition is not possible
+     * @throws IndexOutOfBoundsException       if the index is out of bounds
+     */
+    public final void transitionTo(final int index, final @NonNull S state) throws IllegalStateTransitionException {
+        Objects.requireNonNull(state, "state");
+        final int stateId = this.stateSpace.id(state);
+        while (true) {
+            final int currentStateId = this.load(index);
+            if (stateId < 0 || !this.stateSpace.canTransition(currentStateId, stateId)) {
+                throw new IllegalStateTransitionException(this.stateSpace.state(currentStateId), state, this.entity(index));
+            }
+            if (this.compareAndSet(index, currentStateId, stateId)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Transitions the entity at the given {@code index} from the given {@code currentState} to the given
+     * {@code newState}.
+     *
+     * @param index        entity index
+     * @param currentState expected current state, the state transition will fail if the current state is different
+     * @param newState     new state
+     * @throws UnexpectedStateException        if the actual state is different from the {@code currentState}
+     * @throws IllegalStateTransitionException if the state transition is not possible
+     * @throws IndexOutOfBoundsException       if the index is out of bounds
+     */
+    public final void transition(final int index, final @NonNull S currentState, final @NonNull S newState)
+            throws UnexpectedStateException, IllegalStateTransitionException {
+        Objects.requireNonNull(currentState, "currentState");
+        Objects.requireNonNull(newState, "newState");
+        final int currentStateId = this.stateSpace.id(currentState);
+        final int newStateId = this.stateSpace.id(newState);
+        do {
+            final int actualStateId = this.load(index);
+            if (actualStateId != currentStateId) {
+                throw new UnexpectedStateException(States.of(currentState), this.stateSpace.state(actualStateId), this.entity(index));
+            }
+            if (newStateId < 0 || !this.stateSpace.canTransition(currentStateId, newStateId)) {
+                throw new IllegalStateTransitionException(currentState, newState, this.entity(index));
+            }
+        } while (!this.compareAndSet(index, currentStateId, newStateId));
+    }
+
+    /**
+     * Transitions the entity at the given {@code index} to the given {@code state}, without throwing if the transition
+     * is not possible.
+     *
+     * @param index entity index
+     * @param state new state
+     * @return {@link TransitionResult#SUCCESS} if the state was transitioned, or
+     *     {@link TransitionResult#ILLEGAL_TRANSITION} if the state transition is not possible
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public final @NonNull TransitionResult tryTransitionTo(final int index, final @NonNull S state) {
+        Objects.requireNonNull(state, "state");
+        final int stateId = this.stateSpace.id(state);
+        while (true) {
+            final int currentStateId = this.load(index);
+            if (stateId < 0 || !this.stateSpace.canTransition(currentStateId, stateId)) {
+                return TransitionResult.ILLEGAL_TRANSITION;
+            }
+            if (this.compareAndSet(index, currentStateId, stateId)) {
+                return TransitionResult.SUCCESS;
+            }
+        }
+    }
+
+    /**
+     * Transitions the entity at the given {@code index} from the given {@code currentState} to the given
+     * {@code newState}, without throwing if the actual state is different or the transition is not possible.
+     *
+     * @param index        entity index
+     * @param currentState expected current state
+     * @param newState     new state
+     * @return {@link TransitionResult#SUCCESS} if the state was transitioned, {@link TransitionResult#UNEXPECTED_STATE}
+     *     if the actual state is different from the {@code currentState}, or {@link TransitionResult#ILLEGAL_TRANSITION}
+     *     if the state transition is not possible
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public final @NonNull TransitionResult tryTransition(final int index, final @NonNull S currentState, final @NonNull S newState) {
+        Objects.requireNonNull(currentState, "currentState");
+        Objects.requireNonNull(newState, "newState");
+        final int currentStateId = this.stateSpace.id(currentState);
+        final int newStateId = this.stateSpace.id(newState);
+        do {
+            if (this.load(index) != currentStateId) {
+                return TransitionResult.UNEXPECTED_STATE;
+            }
+            if (newStateId < 0 || !this.stateSpace.canTransition(currentStateId, newStateId)) {
+                return TransitionResult.ILLEGAL_TRANSITION;
+            }
+        } while (!this.compareAndSet(index, currentStateId, newStateId));
+        return TransitionResult.SUCCESS;
+    }
+
+    /**
+     * Transitions every entity that is in the {@code currentState} to the {@code newState}, using a single linear scan.
+     *
+     * @param currentState current state
+     * @param newState     new state
+     * @return the number of entities that were transitioned
+     * @throws IllegalStateTransitionException if any entity is in the {@code currentState} and the state transition is not
+     *                                         possible, in which case no entity is transitioned
+     */
+    public final int transitionAll(final @NonNull S currentState, final @NonNull S newState) throws IllegalStateTransitionException {
+        Objects.requireNonNull(currentState, "currentState");
+        Objects.requireNonNull(newState, "newState");
+        final int currentStateId = this.stateSpace.id(currentState);
+        final int newStateId = this.stateSpace.id(newState);
+        if (currentStateId < 0) {
+            return 0;
+        }
+        if (newStateId < 0 || !this.stateSpace.canTransition(currentStateId, newStateId)) {
+            for (int index = 0, size = this.size(); index < size; index++) {
+                if (this.load(index) == currentStateId) {
+                    throw new IllegalStateTransitionException(currentState, newState, this.entity(index));
+                }
+            }
+            return 0;
+        }
+        return this.replaceAll(currentStateId, newStateId);
+    }
+
+    /**
+     * Returns the number of entities that are in the given {@code state}.
+     *
+     * @param state state
+     * @return the number of entities
+     */
+    public final int count(final @NonNull S state) {
+        final int stateId = this.stateSpace.id(Objects.requireNonNull(state, "state"));
+        int count = 0;
+        for (int index = 0, size = this.size(); index < size; index++) {
+            if (this.load(index) == stateId) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Invokes the given {@code consumer} with the index of every entity that is in the given {@code state}.
+     *
+     * @param state    state
+     * @param consumer consumer of entity indices
+     */
+    public final void forEach(final @NonNull S state, final @NonNull IntConsumer consumer) {
+        Objects.requireNonNull(consumer, "consumer");
+        final int stateId = this.stateSpace.id(Objects.requireNonNull(state, "state"));
+        for (int index = 0, size = this.size(); index < size; index++) {
+            if (this.load(index) == stateId) {
+                consumer.accept(index);
+            }
+        }
+    }
+
+    /**
+     * Returns a mutable view of the entity at the given {@code index}.
+     *
+     * <p>The view does not hold any state of its own, and all operations are delegated to this store.</p>
+     *
+     * @param index entity index
+     * @return the view
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public final @NonNull MutableStateful<S, ?> entity(final int index) {
+        return new Entity<>(this, Objects.checkIndex(index, this.size()));
+    }
+
+    private record Entity<S extends State<S>>(@NonNull StateStore<S> store, int index) implements MutableStateful<S, Entity<S>> {
+
+        @Override
+        public @NonNull S state() {
+            return this.store.get(this.index);
+        }
+
+        @Override
+        public boolean canTransitionTo(final @NonNull S state) {
+            final int stateId = this.store.stateSpace.id(state);
+            return stateId >= 0 && this.store.stateSpace.canTransition(this.store.load(this.index), stateId);
+        }
+
+        @Override
+        public @This @NonNull Entity<S> transitionTo(final @NonNull S state) throws IllegalStateTransitionException {
+            this.store.transitionTo(this.index, state);
+            return this;
+        }
+
+        @Override
+        public @This @NonNull Entity<S> transition(final @NonNull S currentState, final @NonNull S newState)
+                throws UnexpectedStateException, IllegalStateTransitionException {
+            this.store.transition(this.index, currentState, newState);
+            return this;
+        }
+
+        @Override
+        public @NonNull TransitionResult tryTransitionTo(final @NonNull S state) {
+            return this.store.tryTransitionTo(this.index, state);
+        }
+
+        @Override
+        public @NonNull TransitionResult tryTransition(final @NonNull S currentState, final @NonNull S newState) {
+            return this.store.tryTransition(this.index, currentState, newState);
+        }
+
+        @Override
+        public @NonNull String toString() {
+            return "StateStore.Entity{index=" + this.index + ", state=" + this.state() + '}';
+        }
+    }
+}
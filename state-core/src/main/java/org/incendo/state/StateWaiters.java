@@ -0,0 +1,168 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * The threads and futures that are waiting for a stateful instance to reach one of a set of states.
+ *
+ * <p>Waiters are stored in a copy-on-write array, so {@link #notify(State)} is a plain array read. An instance only
+ * allocates its waiters the first time a waiter is registered.</p>
+ *
+ * @param <U> state type
+ */
+@API(status = API.Status.INTERNAL, since = "1.1.0")
+final class StateWaiters<U extends State<U>> {
+
+    private static final VarHandle WAITERS;
+    private static final Waiter<?>[] EMPTY = new Waiter<?>[0];
+
+    static {
+        try {
+            WAITERS = MethodHandles.lookup().findVarHandle(StateWaiters.class, "waiters", Waiter[].class);
+        } catch (final ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Waits for the instance to reach one of the given {@code states}.
+     *
+     * @param <U>     state type
+     * @param future  future returned by {@link #register(States, Supplier)}
+     * @param timeout maximum time to wait
+     * @return the state that was reached
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     * @throws TimeoutException     if none of the states was reached before the timeout expired
+     */
+    static <U extends State<U>> @NonNull U await(final @NonNull CompletableFuture<U> future, final @NonNull Duration timeout)
+            throws InterruptedException, TimeoutException {
+        try {
+            return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (final InterruptedException | TimeoutException e) {
+            future.cancel(false);
+            throw e;
+        } catch (final ExecutionException e) {
+            // The future is only ever completed normally, or cancelled by the caller.
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private volatile Waiter<U>[] waiters = this.empty();
+
+    @SuppressWarnings("unchecked")
+    private Waiter<U>[] empty() {
+        return (Waiter<U>[]) EMPTY;
+    }
+
+    /**
+     * Registers a waiter for the given {@code states}.
+     *
+     * <p>The current state is checked after the waiter has been registered, so that a transition that happens
+     * concurrently with the registration is never missed.</p>
+     *
+     * @param states       states to wait for
+     * @param currentState supplier of the current state
+     * @return future completed with the state that was reached
+     */
+    @NonNull CompletableFuture<U> register(final @NonNull States<U> states, final @NonNull Supplier<@NonNull U> currentState) {
+        Objects.requireNonNull(states, "states");
+        final Waiter<U> waiter = new Waiter<>(states, new CompletableFuture<>());
+        Waiter<U>[] current;
+        Waiter<U>[] updated;
+        do {
+            current = this.waiters;
+            updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = waiter;
+        } while (!WAITERS.compareAndSet(this, current, updated));
+        waiter.future().whenComplete((state, throwable) -> this.remove(waiter));
+
+        final U state = currentState.get();
+        if (states.contains(state)) {
+            waiter.future().complete(state);
+        }
+        return waiter.future();
+    }
+
+    /**
+     * Completes the waiters that are waiting for the given {@code state}.
+     *
+     * @param state state that was reached
+     */
+    void notify(final @NonNull U state) {
+        for (final Waiter<U> waiter : this.waiters) {
+            if (waiter.states().contains(state)) {
+                waiter.future().complete(state);
+            }
+        }
+    }
+
+    private void remove(final @NonNull Waiter<U> waiter) {
+        Waiter<U>[] current;
+        Waiter<U>[] updated;
+        do {
+            current = this.waiters;
+            int index = -1;
+            for (int candidate = 0; candidate < current.length; candidate++) {
+                if (current[candidate] == waiter) {
+                    index = candidate;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return;
+            }
+            if (current.length == 1) {
+                updated = this.empty();
+            } else {
+                updated = Arrays.copyOf(current, current.length - 1);
+                System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+            }
+        } while (!WAITERS.compareAndSet(this, current, updated));
+    }
+
+    /**
+     * Returns the number of registered waiters.
+     *
+     * @return the number of waiters
+     */
+    int size() {
+        return this.waiters.length;
+    }
+
+    private record Waiter<U extends State<U>>(@NonNull States<U> states, @NonNull CompletableFuture<U> future) {
+    }
+}
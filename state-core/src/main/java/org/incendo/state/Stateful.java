@@ -79,4 +79,16 @@ public interface Stateful<U extends State<U>, V extends Stateful<U, V>> {
         }
         throw new UnexpectedStateException(States.of(state), currentState, this);
     }
+
+    /**
+     * Returns whether the current {@link #state()} is the given {@code state}, without throwing.
+     *
+     * @param state expected state
+     * @return {@link TransitionResult#SUCCESS} if the current state is the given {@code state}, or
+     *     {@link TransitionResult#UNEXPECTED_STATE} if not
+     * @since 1.1.0
+     */
+    default @NonNull TransitionResult tryExpectState(final @NonNull U state) {
+        return this.state().equals(state) ? TransitionResult.SUCCESS : TransitionResult.UNEXPECTED_STATE;
+    }
 }
@@ -0,0 +1,280 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Operations on groups of {@link Stateful} instances.
+ *
+ * @since 1.1.0
+ */
+@API(status = API.Status.STABLE, since = "1.1.0")
+public final class Statefuls {
+
+    private static final int SKIPPED = -2;
+    private static final int UNLOCKED = -1;
+
+    private Statefuls() {
+    }
+
+    /**
+     * Transitions every instance that is in the {@code currentState} into the {@code newState}.
+     *
+     * <p>Instances that are not in the {@code currentState} are skipped without constructing an exception. The
+     * transition is validated once per {@link StateMachine}, rather than once per instance. Instances that are guarded by
+     * a shared lock, such as instances created using {@link StripedStateLocks}, are transitioned while acquiring their
+     * lock once for all of them. Locks are acquired one at a time, in a global order, so concurrent bulk transitions
+     * never deadlock each other.</p>
+     *
+     * <p>The transition is not atomic across instances: every instance is transitioned on its own, and listeners are
+     * invoked once the lock of the instance has been released.</p>
+     *
+     * <p>Instances of {@link AbstractStateful} and {@link AbstractAtomicStateful} are transitioned by updating their state
+     * directly, so overrides of {@link MutableStateful#transition(State, State)} or
+     * {@link MutableStateful#transitionTo(State)} in their subclasses are <b>not</b> invoked. Like their own transitions,
+     * instances of {@link AbstractStateful} without a {@link StateMachine} are validated using
+     * {@link Stateful#canTransitionTo(State)}, which their subclasses may override. Other implementations are validated
+     * using {@link Stateful#canTransitionTo(State)} before any instance is transitioned, and are then transitioned using
+     * {@link MutableStateful#transition(State, State)}.</p>
+     *
+     * @param <U>          state type
+     * @param statefuls    stateful instances
+     * @param currentState expected current state
+     * @param newState     new state
+     * @return a bit set containing the positions of the instances, in iteration order, that were transitioned
+     * @throws IllegalStateTransitionException if the state transition is not possible for any instance that is in the
+     *                                         {@code currentState}, in which case no instance is transitioned, or if
+     *                                         {@link MutableStateful#transition(State, State)} of another implementation
+     *                                         rejects a transition that its {@link Stateful#canTransitionTo(State)}
+     *                                         allowed, in which case the preceding instances may have been transitioned
+     */
+    @SuppressWarnings("unchecked")
+    public static <U extends State<U>> @NonNull BitSet transitionAll(
+            final @NonNull Collection<? extends MutableStateful<U, ?>> statefuls,
+            final @NonNull U currentState,
+            final @NonNull U newState
+    ) throws IllegalStateTransitionException {
+        Objects.requireNonNull(statefuls, "statefuls");
+        Objects.requireNonNull(currentState, "currentState");
+        Objects.requireNonNull(newState, "newState");
+
+        @SuppressWarnings("rawtypes")
+        final MutableStateful<U, ?>[] instances = statefuls.toArray(new MutableStateful[0]);
+        final BitSet result = new BitSet(instances.length);
+        final EdgeValidator<U> validator = new EdgeValidator<>(currentState, newState);
+
+        // Assign every locked instance to the group of its lock, and validate the transition before transitioning anything.
+        final Map<StateLock, Integer> groups = new IdentityHashMap<>();
+        final int[] group = new int[instances.length];
+        for (int index = 0; index < instances.length; index++) {
+            final MutableStateful<U, ?> instance = Objects.requireNonNull(instances[index], "stateful");
+            group[index] = UNLOCKED;
+            final boolean allowed;
+            if (instance instanceof AbstractStateful<?, ?> stateful) {
+                final StateMachine<U> stateMachine = ((AbstractStateful<U, ?>) stateful).stateMachine();
+                allowed = stateMachine == null ? canTransitionTo(instance, currentState, newState) : validator.test(stateMachine);
+                if (allowed) {
+                    group[index] = groups.computeIfAbsent(stateful.lock(), lock -> groups.size());
+                }
+            } else if (instance instanceof AbstractAtomicStateful<?, ?> stateful) {
+                allowed = validator.test(((AbstractAtomicStateful<U, ?>) stateful).stateMachine());
+            } else {
+                allowed = canTransitionTo(instance, currentState, newState);
+            }
+            if (!allowed) {
+                if (instance.state().equals(currentState)) {
+                    throw new IllegalStateTransitionException(currentState, newState, instance);
+                }
+                group[index] = SKIPPED;
+            }
+        }
+
+        for (int index = 0; index < instances.length; index++) {
+            if (group[index] != UNLOCKED) {
+                continue;
+            }
+            final MutableStateful<U, ?> instance = instances[index];
+            if (instance instanceof AbstractAtomicStateful<?, ?> stateful) {
+                if (((AbstractAtomicStateful<U, ?>) stateful).tryTransitionUnchecked(currentState, newState)) {
+                    result.set(index);
+                }
+            } else if (instance.state().equals(currentState)) {
+                try {
+                    instance.transition(currentState, newState);
+                    result.set(index);
+                } catch (final UnexpectedStateException ignored) {
+                    // The state changed concurrently.
+                }
+            }
+        }
+
+        if (!groups.isEmpty()) {
+            transitionLocked(instances, group, groups, result, currentState, newState);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <U extends State<U>> void transitionLocked(
+            final @NonNull MutableStateful<U, ?> @NonNull [] instances,
+            final int @NonNull [] group,
+            final @NonNull Map<StateLock, Integer> groups,
+            final @NonNull BitSet result,
+            final @NonNull U currentState,
+            final @NonNull U newState
+    ) {
+        final StateLock[] locks = groups.keySet().toArray(new StateLock[0]);
+        Arrays.sort(locks, Comparator.comparingLong(StateLock::id));
+        final int[] rank = new int[locks.length];
+        for (int index = 0; index < locks.length; index++) {
+            rank[groups.get(locks[index])] = index;
+        }
+
+        // Counting sort of the locked instances by the rank of their lock.
+        final int[] offsets = new int[locks.length + 1];
+        for (final int index : group) {
+            if (index >= 0) {
+                offsets[rank[index] + 1]++;
+            }
+        }
+        for (int index = 0; index < locks.length; index++) {
+            offsets[index + 1] += offsets[index];
+        }
+        final int[] order = new int[offsets[locks.length]];
+        final int[] positions = Arrays.copyOf(offsets, locks.length);
+        for (int index = 0; index < group.length; index++) {
+            if (group[index] >= 0) {
+                order[positions[rank[group[index]]]++] = index;
+            }
+        }
+
+        for (int lockIndex = 0; lockIndex < locks.length; lockIndex++) {
+            final StateLock lock = locks[lockIndex];
+            final int start = offsets[lockIndex];
+            final int end = offsets[lockIndex + 1];
+            lock.lock();
+            try {
+                for (int position = start; position < end; position++) {
+                    final int index = order[position];
+                    if (tryTransitionLocked((AbstractStateful<U, ?>) instances[index], currentState, newState)) {
+                        result.set(index);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            for (int position = start; position < end; position++) {
+                final int index = order[position];
+                if (result.get(index)) {
+                    ((AbstractStateful<U, ?>) instances[index]).transitioned(currentState, newState);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether the given {@code instance} can transition into the {@code newState}, if it is in the
+     * {@code currentState}.
+     *
+     * @param <U>          state type
+     * @param instance     stateful instance
+     * @param currentState expected current state
+     * @param newState     new state
+     * @return {@code false} if the instance is in the {@code currentState} and cannot transition into the
+     *     {@code newState}, else {@code true}
+     */
+    private static <U extends State<U>> boolean canTransitionTo(
+            final @NonNull Stateful<U, ?> instance,
+            final @NonNull U currentState,
+            final @NonNull U newState
+    ) {
+        return !instance.state().equals(currentState) || instance.canTransitionTo(newState);
+    }
+
+    /**
+     * Transitions the given locked {@code instance} into the {@code newState} if it is in the {@code currentState}.
+     *
+     * <p>Instances without a {@link StateMachine} are validated again while the lock is held, as they may have entered
+     * the {@code currentState} after they were validated.</p>
+     *
+     * @param <U>          state type
+     * @param instance     stateful instance, whose lock is held
+     * @param currentState expected current state
+     * @param newState     new state
+     * @return {@code true} if the instance was transitioned, {@code false} if not
+     */
+    private static <U extends State<U>> boolean tryTransitionLocked(
+            final @NonNull AbstractStateful<U, ?> instance,
+            final @NonNull U currentState,
+            final @NonNull U newState
+    ) {
+        if (instance.stateMachine() == null && !canTransitionTo(instance, currentState, newState)) {
+            return false;
+        }
+        return instance.unsynchronizedTryTransition(currentState, newState);
+    }
+
+    /**
+     * Validates a single transition, once for every distinct state machine.
+     *
+     * @param <U> state type
+     */
+    private static final class EdgeValidator<U extends State<U>> {
+
+        private final U currentState;
+        private final U newState;
+        private @Nullable Boolean allowedByStates;
+        private @Nullable StateMachine<U> stateMachine;
+        private boolean allowedByStateMachine;
+
+        private EdgeValidator(final @NonNull U currentState, final @NonNull U newState) {
+            this.currentState = currentState;
+            this.newState = newState;
+        }
+
+        private boolean test(final @Nullable StateMachine<U> stateMachine) {
+            if (stateMachine == null) {
+                if (this.allowedByStates == null) {
+                    this.allowedByStates = this.currentState.allowedTransitions().contains(this.newState);
+                }
+                return this.allowedByStates;
+            }
+            if (this.stateMachine != stateMachine) {
+                this.stateMachine = stateMachine;
+                this.allowedByStateMachine = stateMachine.canTransition(this.currentState, this.newState);
+            }
+            return this.allowedByStateMachine;
+        }
+    }
+}
@@ -25,24 +25,26 @@ package org.incendo.state;
 
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.EnumSet;
-import java.util.List;
+import java.util.Iterator;
 import java.util.Objects;
-import java.util.Set;
+import java.util.function.IntFunction;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 import org.apiguardian.api.API;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
 /**
- * A container of {@link State states}.
+ * An immutable container of {@link State states}.
+ *
+ * <p>Like {@link java.util.Set}, two instances are equal if they contain the same states, and the hash code of
+ * an instance is the sum of the hash codes of its states. Implementations are expected to honour this contract so
+ * that instances can be compared and {@link #canonical(States) interned} regardless of their implementation.</p>
  *
  * @param <S> state type
  * @since 1.0.0
  */
 @API(status = API.Status.STABLE, since = "1.0.0")
-public interface States<S extends State<S>> {
+public interface States<S extends State<S>> extends Iterable<S> {
 
     /**
      * Returns an empty {@link States} instance.
@@ -65,7 +67,7 @@ public interface States<S extends State<S>> {
     @SafeVarargs
     static <S extends State<S>> @NonNull States<S> of(final @NonNull S @NonNull... states) {
         Objects.requireNonNull(states, "states");
-        return new StatesImpl<>(List.copyOf(Arrays.asList(states)));
+        return AbstractStates.fromArray(Arrays.copyOf(states, states.length, State[].class));
     }
 
     /**
@@ -77,7 +79,7 @@ public interface States<S extends State<S>> {
      */
     static <S extends State<S>> @NonNull States<S> of(final @NonNull Collection<S> states) {
         Objects.requireNonNull(states, "states");
-        return new StatesImpl<>(Set.copyOf(states));
+        return AbstractStates.fromArray(states.toArray(new State<?>[0]));
     }
 
     /**
@@ -91,13 +93,16 @@ public interface States<S extends State<S>> {
     @SafeVarargs
     static <S extends Enum<S> & State<S>> @NonNull States<S> ofEnum(final @NonNull S state, final @NonNull S @NonNull... states) {
         Objects.requireNonNull(state, "state");
-        return new StatesImpl<>(Collections.unmodifiableCollection(EnumSet.of(state, states)));
+        return EnumStates.of(state, states);
     }
 
     /**
      * Creates a new states instance that will lazily evaluate the given {@code statesSupplier} the first time
      * the states are requested.
      *
+     * <p>Once evaluated, the states are read without any locking. Threads that race on the first access may
+     * evaluate the supplier concurrently, but they will all observe the first result.</p>
+     *
      * @param <S>            state type
      * @param statesSupplier supplier of the states
      * @return the instance
@@ -106,6 +111,22 @@ public interface States<S extends State<S>> {
         return new LazyStates<>(statesSupplier);
     }
 
+    /**
+     * Returns a canonical instance that is equal to the given {@code states}.
+     *
+     * <p>Equal instances passed to this method result in the same shared instance, which allows applications that
+     * hold many identical transition sets to keep a single copy of each. Lazy instances are evaluated. Canonical
+     * instances are only weakly retained, and are reclaimed once they are no longer referenced elsewhere.</p>
+     *
+     * @param <S>    state type
+     * @param states states to intern
+     * @return the canonical instance
+     * @since 1.1.0
+     */
+    static <S extends State<S>> @NonNull States<S> canonical(final @NonNull States<S> states) {
+        return StatesInterner.intern(states);
+    }
+
     /**
      * Returns whether this instance contains the given {@code state}.
      *
@@ -122,6 +143,162 @@ public interface States<S extends State<S>> {
      */
     @NonNull States<S> withState(@NonNull S state);
 
+    /**
+     * Returns a <b>new</b> instance with the given {@code state} removed.
+     *
+     * <p>If this instance does not contain the {@code state}, then this instance may be returned.</p>
+     *
+     * @param state state to remove
+     * @return the new instance
+     * @since 1.1.0
+     */
+    default @NonNull States<S> withoutState(final @NonNull S state) {
+        Objects.requireNonNull(state, "state");
+        if (!this.contains(state)) {
+            return this;
+        }
+        return of(this.states().filter(other -> !other.equals(state)).toList());
+    }
+
+    /**
+     * Returns whether this instance contains all the given {@code states}.
+     *
+     * @param states states to check for
+     * @return {@code true} if the instance contains all the states, {@code false} if not
+     * @since 1.1.0
+     */
+    default boolean containsAll(final @NonNull States<S> states) {
+        Objects.requireNonNull(states, "states");
+        for (final S state : states) {
+            if (!this.contains(state)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns an instance containing the states that are contained in either this instance or the given
+     * {@code states}.
+     *
+     * <p>If one of the instances contains all the states of the other one, then that instance is returned.</p>
+     *
+     * @param states states to add
+     * @return the union
+     * @since 1.1.0
+     */
+    default @NonNull States<S> union(final @NonNull States<S> states) {
+        Objects.requireNonNull(states, "states");
+        if (this.containsAll(states)) {
+            return this;
+        }
+        if (states.containsAll(this)) {
+            return states;
+        }
+        final State<?>[] union = new State<?>[this.size() + states.size()];
+        int size = 0;
+        for (final S state : this) {
+            union[size++] = state;
+        }
+        for (final S state : states) {
+            if (!this.contains(state)) {
+                union[size++] = state;
+            }
+        }
+        return AbstractStates.fromArray(Arrays.copyOf(union, size));
+    }
+
+    /**
+     * Returns an instance containing the states that are contained in both this instance and the given
+     * {@code states}.
+     *
+     * @param states states to retain
+     * @return the intersection
+     * @since 1.1.0
+     */
+    default @NonNull States<S> intersect(final @NonNull States<S> states) {
+        Objects.requireNonNull(states, "states");
+        final int thisSize = this.size();
+        final State<?>[] intersection = new State<?>[Math.min(thisSize, states.size())];
+        int size = 0;
+        for (final S state : this) {
+            if (states.contains(state)) {
+                intersection[size++] = state;
+            }
+        }
+        if (size == thisSize) {
+            return this;
+        }
+        return AbstractStates.fromArray(Arrays.copyOf(intersection, size));
+    }
+
+    /**
+     * Returns an instance containing the states of this instance that are not contained in the given
+     * {@code states}.
+     *
+     * @param states states to remove
+     * @return the difference
+     * @since 1.1.0
+     */
+    default @NonNull States<S> difference(final @NonNull States<S> states) {
+        Objects.requireNonNull(states, "states");
+        final State<?>[] difference = new State<?>[this.size()];
+        int size = 0;
+        for (final S state : this) {
+            if (!states.contains(state)) {
+                difference[size++] = state;
+            }
+        }
+        if (size == difference.length) {
+            return this;
+        }
+        return AbstractStates.fromArray(Arrays.copyOf(difference, size));
+    }
+
+    /**
+     * Returns the number of states contained in this instance.
+     *
+     * @return the number of states
+     * @since 1.1.0
+     */
+    default int size() {
+        int size = 0;
+        for (final Iterator<S> iterator = this.iterator(); iterator.hasNext(); iterator.next()) {
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Returns an iterator over the states contained in this instance.
+     *
+     * <p>The iterator does not support {@link Iterator#remove()}.</p>
+     *
+     * @return the iterator
+     * @since 1.1.0
+     */
+    @Override
+    default @NonNull Iterator<S> iterator() {
+        return this.states().iterator();
+    }
+
+    /**
+     * Returns an array containing the states of this instance.
+     *
+     * @param generator function that creates an array of the given length
+     * @return the array
+     * @since 1.1.0
+     */
+    default @NonNull S @NonNull [] toArray(final @NonNull IntFunction<@NonNull S @NonNull []> generator) {
+        Objects.requireNonNull(generator, "generator");
+        final S[] array = generator.apply(this.size());
+        int index = 0;
+        for (final S state : this) {
+            array[index++] = state;
+        }
+        return array;
+    }
+
     /**
      * Returns whether the state container is empty.
      *
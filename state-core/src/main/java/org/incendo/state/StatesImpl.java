@@ -23,52 +23,239 @@
 //
 package org.incendo.state;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.EnumSet;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 import java.util.stream.Stream;
 import org.apiguardian.api.API;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
+/**
+ * {@link States} implementation for small sets of states, backed by an array that is scanned linearly.
+ *
+ * <p>Sets of more than {@link #MAX_SIZE} states are created as a {@link HashStates}, while growing an instance past
+ * {@link #MAX_SIZE} states using {@link #withState(State)} results in a {@link TrieStates}.</p>
+ *
+ * <p>The scan compares identities first, as states are typically singletons, and only then falls back to
+ * {@link Object#equals(Object)}.</p>
+ *
+ * @param <S> state type
+ */
 @API(status = API.Status.INTERNAL, since = "1.0.0")
-record StatesImpl<S extends State<S>>(@NonNull Collection<@NonNull S> stateCollection) implements States<S> {
+final class StatesImpl<S extends State<S>> extends AbstractStates<S> {
+
+    /**
+     * The largest number of states that is stored in an array.
+     *
+     * <p>Larger sets are created as a {@link HashStates}, and instances that grow past this size using
+     * {@link #withState(State)} switch to a {@link TrieStates}.</p>
+     */
+    static final int MAX_SIZE = 8;
+
+    /**
+     * Returns an instance containing the distinct states in the given array.
+     *
+     * <p>The array is owned by the returned instance and must not be modified afterwards.</p>
+     *
+     * @param <S>    state type
+     * @param states non-empty array of at most {@link #MAX_SIZE} states
+     * @return the instance
+     */
+    static <S extends State<S>> @NonNull StatesImpl<S> copyOf(final @NonNull S @NonNull [] states) {
+        int size = 0;
+        for (final S state : states) {
+            if (!contains(states, size, Objects.requireNonNull(state, "state"))) {
+                states[size++] = state;
+            }
+        }
+        return new StatesImpl<>(size == states.length ? states : Arrays.copyOf(states, size));
+    }
+
+    private static boolean contains(final @NonNull Object @NonNull [] states, final int size, final @NonNull Object state) {
+        for (int index = 0; index < size; index++) {
+            if (states[index] == state) {
+                return true;
+            }
+        }
+        for (int index = 0; index < size; index++) {
+            if (states[index].equals(state)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final S[] stateArray;
+
+    private StatesImpl(final @NonNull S @NonNull [] stateArray) {
+        this.stateArray = stateArray;
+    }
 
     @Override
     public boolean contains(final @NonNull S state) {
-        return this.stateCollection.contains(state);
+        return contains(this.stateArray, this.stateArray.length, state);
     }
 
     @Override
-    @SuppressWarnings({"unchecked", "rawtypes"})
     public @NonNull States<S> withState(final @NonNull S state) {
         Objects.requireNonNull(state, "state");
-        if (state instanceof Enum<?>) {
-            // Special case so that we preserve the EnumSet.
-            final EnumSet enumSet = EnumSet.copyOf((Collection) this.stateCollection);
-            enumSet.add(state);
-            return new StatesImpl<>(Collections.unmodifiableCollection(enumSet));
+        if (this.contains(state)) {
+            return this;
+        }
+        if (this.stateArray.length == MAX_SIZE) {
+            // Sets that are built incrementally tend to keep growing, so we switch to the persistent implementation.
+            return TrieStates.copyOf(this).withState(state);
+        }
+        final S[] states = Arrays.copyOf(this.stateArray, this.stateArray.length + 1);
+        states[this.stateArray.length] = state;
+        return new StatesImpl<>(states);
+    }
+
+    @Override
+    public @NonNull States<S> withoutState(final @NonNull S state) {
+        Objects.requireNonNull(state, "state");
+        for (int index = 0; index < this.stateArray.length; index++) {
+            if (this.stateArray[index] == state || this.stateArray[index].equals(state)) {
+                if (this.stateArray.length == 1) {
+                    return States.of();
+                }
+                final S[] states = Arrays.copyOf(this.stateArray, this.stateArray.length - 1);
+                System.arraycopy(this.stateArray, index + 1, states, index, states.length - index);
+                return new StatesImpl<>(states);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public boolean containsAll(final @NonNull States<S> states) {
+        if (!(LazyStates.resolve(states) instanceof StatesImpl<S> other)) {
+            return super.containsAll(states);
         }
-        final List<S> states = new ArrayList<>(this.stateCollection);
-        states.add(state);
-        return new StatesImpl<>(Collections.unmodifiableCollection(states));
+        if (other.stateArray.length > this.stateArray.length) {
+            return false;
+        }
+        for (final S state : other.stateArray) {
+            if (!this.contains(state)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
-    public String toString() {
-        return this.stateCollection.stream().map(S::toString).collect(Collectors.joining(", ", "(", ")"));
+    public @NonNull States<S> union(final @NonNull States<S> states) {
+        if (!(LazyStates.resolve(states) instanceof StatesImpl<S> other)) {
+            return super.union(states);
+        }
+        int missing = 0;
+        for (final S state : other.stateArray) {
+            if (!this.contains(state)) {
+                missing++;
+            }
+        }
+        if (missing == 0) {
+            return this;
+        }
+        if (other.stateArray.length - missing == this.stateArray.length) {
+            // Every state of this instance is shared with the other instance.
+            return other;
+        }
+        final State<?>[] union = Arrays.copyOf(this.stateArray, this.stateArray.length + missing, State[].class);
+        int size = this.stateArray.length;
+        for (final S state : other.stateArray) {
+            if (!this.contains(state)) {
+                union[size++] = state;
+            }
+        }
+        return AbstractStates.fromArray(union);
+    }
+
+    @Override
+    public @NonNull States<S> intersect(final @NonNull States<S> states) {
+        Objects.requireNonNull(states, "states");
+        int retained = 0;
+        for (final S state : this.stateArray) {
+            if (states.contains(state)) {
+                retained++;
+            }
+        }
+        if (retained == this.stateArray.length) {
+            return this;
+        }
+        return this.retain(states, true, retained);
+    }
+
+    @Override
+    public @NonNull States<S> difference(final @NonNull States<S> states) {
+        Objects.requireNonNull(states, "states");
+        int retained = 0;
+        for (final S state : this.stateArray) {
+            if (!states.contains(state)) {
+                retained++;
+            }
+        }
+        if (retained == this.stateArray.length) {
+            return this;
+        }
+        return this.retain(states, false, retained);
+    }
+
+    /**
+     * Returns the states of this instance that are, or are not, contained in the given {@code states}.
+     *
+     * @param states    states to compare against
+     * @param contained whether to retain the states that are contained in the {@code states}
+     * @param size      number of states that are retained
+     * @return the instance
+     */
+    private @NonNull States<S> retain(final @NonNull States<S> states, final boolean contained, final int size) {
+        if (size == 0) {
+            return States.of();
+        }
+        final S[] retained = Arrays.copyOf(this.stateArray, size);
+        int index = 0;
+        for (final S state : this.stateArray) {
+            if (states.contains(state) == contained) {
+                retained[index++] = state;
+            }
+        }
+        return new StatesImpl<>(retained);
     }
 
     @Override
     public boolean empty() {
-        return this.stateCollection.isEmpty();
+        return this.stateArray.length == 0;
     }
 
     @Override
     public @NonNull Stream<S> states() {
-        return this.stateCollection.stream();
+        return Arrays.stream(this.stateArray);
+    }
+
+    @Override
+    public int size() {
+        return this.stateArray.length;
+    }
+
+    @Override
+    public void forEach(final @NonNull Consumer<? super S> action) {
+        for (final S state : this.stateArray) {
+            action.accept(state);
+        }
+    }
+
+    @Override
+    public @NonNull Iterator<S> iterator() {
+        return Arrays.asList(this.stateArray).iterator();
+    }
+
+    @Override
+    public @NonNull S @NonNull [] toArray(final @NonNull IntFunction<@NonNull S @NonNull []> generator) {
+        final S[] array = generator.apply(this.stateArray.length);
+        System.arraycopy(this.stateArray, 0, array, 0, this.stateArray.length);
+        return array;
     }
 }
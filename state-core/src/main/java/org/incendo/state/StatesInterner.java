@@ -0,0 +1,91 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Interner that maps {@link States} to a canonical instance with the same contents.
+ *
+ * <p>Both the keys and the values are weakly referenced, so a canonical instance is dropped from the table once
+ * it is no longer used outside of it.</p>
+ */
+@API(status = API.Status.INTERNAL, since = "1.1.0")
+final class StatesInterner {
+
+    private static final Map<States<?>, WeakReference<States<?>>> CANONICAL = new WeakHashMap<>();
+    private static final ReentrantLock LOCK = new ReentrantLock();
+
+    private StatesInterner() {
+    }
+
+    /**
+     * Returns the canonical instance for the given {@code states}.
+     *
+     * @param <S>    state type
+     * @param states states to intern
+     * @return the canonical instance
+     */
+    @SuppressWarnings("unchecked")
+    static <S extends State<S>> @NonNull States<S> intern(final @NonNull States<S> states) {
+        final States<S> resolvedStates = LazyStates.resolve(Objects.requireNonNull(states, "states"));
+        if (resolvedStates.empty()) {
+            return States.of();
+        }
+        LOCK.lock();
+        try {
+            final WeakReference<States<?>> reference = CANONICAL.get(resolvedStates);
+            if (reference != null) {
+                final States<?> canonical = reference.get();
+                if (canonical != null) {
+                    return (States<S>) canonical;
+                }
+            }
+            CANONICAL.put(resolvedStates, new WeakReference<>(resolvedStates));
+            return resolvedStates;
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of interned instances that have not yet been reclaimed.
+     *
+     * @return the number of interned instances
+     */
+    static int size() {
+        LOCK.lock();
+        try {
+            return CANONICAL.size();
+        } finally {
+            LOCK.unlock();
+        }
+    }
+}
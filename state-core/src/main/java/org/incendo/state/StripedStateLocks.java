@@ -0,0 +1,102 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A fixed pool of locks that is shared between many {@link AbstractLockableStateful} instances.
+ *
+ * <p>By default, every lockable instance owns a lock. Instances that are created using a pool instead pick one of the
+ * pooled locks, the stripe, based on their identity hash code or a user-supplied key, which avoids allocating a lock
+ * per instance. Instances that share a stripe exclude each other, so a higher number of stripes reduces contention at
+ * the cost of memory.</p>
+ *
+ * <p>The pooled locks are reentrant, so a thread may operate on any number of instances that share a stripe. As with
+ * per-instance locks, threads that lock several instances at once must do so in a consistent order.</p>
+ *
+ * @since 1.1.0
+ */
+@API(status = API.Status.STABLE, since = "1.1.0")
+public final class StripedStateLocks {
+
+    /**
+     * Creates a new pool with at least the given number of {@code stripes}.
+     *
+     * <p>The number of stripes is rounded up to the next power of two.</p>
+     *
+     * @param stripes minimum number of stripes
+     * @return the pool
+     * @throws IllegalArgumentException if {@code stripes} is not positive, or greater than {@code 2^30}
+     */
+    public static @NonNull StripedStateLocks create(final int stripes) {
+        if (stripes <= 0 || stripes > 1 << 30) {
+            throw new IllegalArgumentException("Invalid number of stripes: " + stripes);
+        }
+        return new StripedStateLocks(stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1);
+    }
+
+    /**
+     * Creates a new pool with four stripes per available processor.
+     *
+     * @return the pool
+     */
+    public static @NonNull StripedStateLocks create() {
+        return create(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    private final StateLock[] locks;
+
+    private StripedStateLocks(final int stripes) {
+        this.locks = new StateLock[stripes];
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            this.locks[stripe] = new StateLock();
+        }
+    }
+
+    /**
+     * Returns the number of stripes in this pool.
+     *
+     * @return the number of stripes
+     */
+    public int stripes() {
+        return this.locks.length;
+    }
+
+    /**
+     * Returns the lock for the given {@code hash}.
+     *
+     * @param hash hash code of the key
+     * @return the lock
+     */
+    @NonNull StateLock lock(final int hash) {
+        return this.locks[(hash ^ (hash >>> 16)) & (this.locks.length - 1)];
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return "StripedStateLocks{stripes=" + this.locks.length + '}';
+    }
+}
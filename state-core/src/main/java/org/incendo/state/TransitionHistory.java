@@ -0,0 +1,190 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A bounded history of the most recent transitions of a single {@link AbstractStateful} instance.
+ *
+ * <p>The history is a ring buffer of primitive arrays, holding the ids of the states in a {@link StateSpace}, the value
+ * of {@link System#nanoTime()}, and the id of the thread that performed the transition. Once the buffer is full, the
+ * oldest entries are overwritten.</p>
+ *
+ * <p>Entries are appended by the thread that performs the transition while it holds the lock of the instance, so there
+ * is only ever a single writer, and appending never blocks or retries. Every slot is guarded by its own sequence
+ * number, which lets {@link #snapshot()} read the buffer without blocking writers. Entries that are overwritten while
+ * a snapshot is being taken are left out of the snapshot. Transitions involving states that are not part of the state
+ * space are not recorded.</p>
+ *
+ * @param <U> state type
+ * @since 1.1.0
+ * @see AbstractStateful#enableHistory(int)
+ */
+@API(status = API.Status.STABLE, since = "1.1.0")
+public final class TransitionHistory<U extends State<U>> {
+
+    private static final VarHandle VERSIONS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle HEAD;
+
+    static {
+        try {
+            HEAD = MethodHandles.lookup().findVarHandle(TransitionHistory.class, "head", long.class);
+        } catch (final ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final StateSpace<U> stateSpace;
+    private final int mask;
+    private final long[] versions;
+    private final int[] fromIds;
+    private final int[] toIds;
+    private final long[] nanoTimes;
+    private final long[] threadIds;
+    @SuppressWarnings("unused")
+    private volatile long head;
+
+    /**
+     * Creates a new history.
+     *
+     * @param stateSpace state space used to encode the states
+     * @param capacity   minimum number of entries, rounded up to the next power of two
+     * @throws IllegalArgumentException if {@code capacity} is not positive, or greater than {@code 2^30}
+     */
+    TransitionHistory(final @NonNull StateSpace<U> stateSpace, final int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.stateSpace = Objects.requireNonNull(stateSpace, "stateSpace");
+        this.mask = size - 1;
+        this.versions = new long[size];
+        this.fromIds = new int[size];
+        this.toIds = new int[size];
+        this.nanoTimes = new long[size];
+        this.threadIds = new long[size];
+    }
+
+    /**
+     * Returns the maximum number of entries that are retained.
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return this.versions.length;
+    }
+
+    /**
+     * Returns the total number of transitions that have been recorded, including the ones that have been overwritten.
+     *
+     * @return the number of recorded transitions
+     */
+    public long recorded() {
+        return (long) HEAD.getAcquire(this);
+    }
+
+    /**
+     * Records a transition.
+     *
+     * <p>The caller must hold the lock of the instance, so that there is never more than one writer.</p>
+     *
+     * @param from previous state
+     * @param to   new state
+     */
+    void record(final @NonNull U from, final @NonNull U to) {
+        final int fromId = this.stateSpace.id(from);
+        final int toId = this.stateSpace.id(to);
+        if (fromId < 0 || toId < 0) {
+            return;
+        }
+        final long sequence = (long) HEAD.getOpaque(this);
+        final int slot = (int) sequence & this.mask;
+        // An odd version marks the slot as being written.
+        VERSIONS.setOpaque(this.versions, slot, sequence * 2 + 1);
+        VarHandle.storeStoreFence();
+        this.fromIds[slot] = fromId;
+        this.toIds[slot] = toId;
+        this.nanoTimes[slot] = System.nanoTime();
+        this.threadIds[slot] = Thread.currentThread().getId();
+        VERSIONS.setRelease(this.versions, slot, sequence * 2 + 2);
+        HEAD.setRelease(this, sequence + 1);
+    }
+
+    /**
+     * Returns the retained entries, from the oldest to the most recent.
+     *
+     * <p>The snapshot is taken without blocking writers.</p>
+     *
+     * @return the entries
+     */
+    public @NonNull List<@NonNull Entry<U>> snapshot() {
+        final long head = this.recorded();
+        final long start = Math.max(0L, head - this.versions.length);
+        final List<Entry<U>> entries = new ArrayList<>((int) (head - start));
+        for (long sequence = start; sequence < head; sequence++) {
+            final int slot = (int) sequence & this.mask;
+            final long version = (long) VERSIONS.getAcquire(this.versions, slot);
+            if (version != sequence * 2 + 2) {
+                continue;
+            }
+            final int fromId = this.fromIds[slot];
+            final int toId = this.toIds[slot];
+            final long nanoTime = this.nanoTimes[slot];
+            final long threadId = this.threadIds[slot];
+            VarHandle.loadLoadFence();
+            if ((long) VERSIONS.getOpaque(this.versions, slot) != version) {
+                continue;
+            }
+            entries.add(new Entry<>(sequence, this.stateSpace.state(fromId), this.stateSpace.state(toId), nanoTime, threadId));
+        }
+        return entries;
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return "TransitionHistory{capacity=" + this.capacity() + ", recorded=" + this.recorded() + '}';
+    }
+
+    /**
+     * A recorded transition.
+     *
+     * @param <U>      state type
+     * @param sequence zero-based position of the transition in the history of the instance
+     * @param from     previous state
+     * @param to       new state
+     * @param nanoTime value of {@link System#nanoTime()} when the transition was recorded
+     * @param threadId id of the thread that performed the transition
+     * @since 1.1.0
+     */
+    @API(status = API.Status.STABLE, since = "1.1.0")
+    public record Entry<U extends State<U>>(long sequence, @NonNull U from, @NonNull U to, long nanoTime, long threadId) {
+    }
+}
@@ -0,0 +1,70 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A listener that is invoked after a {@link Stateful} has transitioned between two states.
+ *
+ * @param <S> state type
+ * @since 1.1.0
+ * @see TransitionListeners
+ */
+@API(status = API.Status.STABLE, since = "1.1.0")
+@FunctionalInterface
+public interface TransitionListener<S extends State<S>> {
+
+    /**
+     * Returns a listener that invokes the given {@code listener} using the given {@code executor}.
+     *
+     * <p>The transitioning thread only hands the event to the executor. Events are delivered in the order they were
+     * submitted only if the executor runs tasks in submission order.</p>
+     *
+     * @param <S>      state type
+     * @param executor executor that invokes the listener
+     * @param listener listener
+     * @return the offloaded listener
+     */
+    static <S extends State<S>> @NonNull TransitionListener<S> async(
+            final @NonNull Executor executor,
+            final @NonNull TransitionListener<S> listener
+    ) {
+        Objects.requireNonNull(executor, "executor");
+        Objects.requireNonNull(listener, "listener");
+        return (stateful, from, to) -> executor.execute(() -> listener.onTransition(stateful, from, to));
+    }
+
+    /**
+     * Invoked after the given {@code stateful} has transitioned from the state {@code from} into the state {@code to}.
+     *
+     * @param stateful stateful instance
+     * @param from     previous state
+     * @param to       new state
+     */
+    void onTransition(@NonNull Stateful<S, ?> stateful, @NonNull S from, @NonNull S to);
+}
@@ -0,0 +1,316 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.common.returnsreceiver.qual.This;
+
+/**
+ * An immutable set of {@link TransitionListener transition listeners}, compiled against a {@link StateSpace}.
+ *
+ * <p>Listeners are registered for a single transition, for every transition into a state, or for every transition.
+ * When the set is built, the listeners are resolved into one array per transition, so that dispatching an event is an
+ * id lookup followed by a loop over an array. Listeners are invoked from the most to the least specific registration,
+ * and in registration order within each kind.</p>
+ *
+ * <p>Listeners are attached globally using {@link StateMachine#withListeners(TransitionListeners)}, or to a single
+ * instance using {@link AbstractStateful#listeners(TransitionListeners)} and
+ * {@link AbstractAtomicStateful#listeners(TransitionListeners)}. Instances without listeners do not perform any work or
+ * allocation when they transition.</p>
+ *
+ * <p>Listeners are invoked synchronously by the thread that performed the transition, after the new state has been
+ * published. Transitions that are made by a {@link StateInteraction} are dispatched while the interaction still has
+ * exclusive access to the instance. Exceptions thrown by a listener propagate to the transitioning thread, and prevent
+ * the remaining listeners from being invoked. Use {@link TransitionListener#async(java.util.concurrent.Executor,
+ * TransitionListener)} to offload a listener.</p>
+ *
+ * @param <S> state type
+ * @since 1.1.0
+ */
+@API(status = API.Status.STABLE, since = "1.1.0")
+public final class TransitionListeners<S extends State<S>> {
+
+    private static final TransitionListener<?>[] EMPTY = new TransitionListener<?>[0];
+
+    /**
+     * Returns a new builder that compiles listeners against the given {@code stateSpace}.
+     *
+     * @param <S>        state type
+     * @param stateSpace state space
+     * @return the builder
+     */
+    public static <S extends State<S>> @NonNull Builder<S> builder(final @NonNull StateSpace<S> stateSpace) {
+        return new Builder<>(Objects.requireNonNull(stateSpace, "stateSpace"));
+    }
+
+    /**
+     * Dispatches a transition to the global listeners of the {@code stateMachine}, followed by the {@code listeners} of
+     * the instance.
+     *
+     * @param <S>          state type
+     * @param stateMachine state machine of the instance, if any
+     * @param listeners    listeners of the instance, if any
+     * @param stateful     stateful instance
+     * @param from         previous state
+     * @param to           new state
+     */
+    static <S extends State<S>> void dispatch(
+            final @Nullable StateMachine<S> stateMachine,
+            final @Nullable TransitionListeners<S> listeners,
+            final @NonNull Stateful<S, ?> stateful,
+            final @NonNull S from,
+            final @NonNull S to
+    ) {
+        if (stateMachine != null) {
+            final TransitionListeners<S> globalListeners = stateMachine.listeners();
+            if (globalListeners != null) {
+                globalListeners.dispatch(stateful, from, to);
+            }
+        }
+        if (listeners != null) {
+            listeners.dispatch(stateful, from, to);
+        }
+    }
+
+    private final StateSpace<S> stateSpace;
+    private final TransitionListener<?>[] wildcardListeners;
+    private final TransitionListener<?>[][] targetListeners;
+    private final TransitionListener<?> @Nullable [] @Nullable [] [] edgeListeners;
+
+    private TransitionListeners(
+            final @NonNull StateSpace<S> stateSpace,
+            final TransitionListener<?> @NonNull [] wildcardListeners,
+            final TransitionListener<?> @NonNull [][] targetListeners,
+            final TransitionListener<?> @Nullable [] @Nullable [] [] edgeListeners
+    ) {
+        this.stateSpace = stateSpace;
+        this.wildcardListeners = wildcardListeners;
+        this.targetListeners = targetListeners;
+        this.edgeListeners = edgeListeners;
+    }
+
+    /**
+     * Returns the state space that the listeners were compiled against.
+     *
+     * @return the state space
+     */
+    public @NonNull StateSpace<S> stateSpace() {
+        return this.stateSpace;
+    }
+
+    /**
+     * Returns the listeners that are invoked for the transition from the state {@code from} into the state {@code to}.
+     *
+     * <p>Transitions involving states that are not part of the {@link #stateSpace()} only invoke the listeners that
+     * were registered for every transition.</p>
+     *
+     * <p>The returned array must not be modified. Every listener in it was registered as a
+     * {@code TransitionListener<S>}.</p>
+     *
+     * @param from previous state
+     * @param to   new state
+     * @return the listeners
+     */
+    TransitionListener<?> @NonNull [] listeners(final @NonNull S from, final @NonNull S to) {
+        final int toId = this.stateSpace.id(to);
+        if (toId < 0) {
+            return this.wildcardListeners;
+        }
+        final TransitionListener<?>[][][] edgeListeners = this.edgeListeners;
+        if (edgeListeners != null) {
+            final int fromId = this.stateSpace.id(from);
+            final TransitionListener<?>[][] row = fromId < 0 ? null : edgeListeners[fromId];
+            if (row != null) {
+                return row[toId];
+            }
+        }
+        return this.targetListeners[toId];
+    }
+
+    /**
+     * Invokes the listeners for the transition from the state {@code from} into the state {@code to}.
+     *
+     * @param stateful stateful instance
+     * @param from     previous state
+     * @param to       new state
+     */
+    @SuppressWarnings("unchecked")
+    public void dispatch(final @NonNull Stateful<S, ?> stateful, final @NonNull S from, final @NonNull S to) {
+        for (final TransitionListener<?> listener : this.listeners(from, to)) {
+            ((TransitionListener<S>) listener).onTransition(stateful, from, to);
+        }
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return "TransitionListeners{stateSpace=" + this.stateSpace + '}';
+    }
+
+    /**
+     * Builder of {@link TransitionListeners}.
+     *
+     * @param <S> state type
+     * @since 1.1.0
+     */
+    @API(status = API.Status.STABLE, since = "1.1.0")
+    public static final class Builder<S extends State<S>> {
+
+        private final StateSpace<S> stateSpace;
+        private final List<TransitionListener<S>> wildcardListeners = new ArrayList<>();
+        private final List<List<TransitionListener<S>>> targetListeners;
+        private final List<@Nullable List<List<TransitionListener<S>>>> edgeListeners;
+
+        private Builder(final @NonNull StateSpace<S> stateSpace) {
+            this.stateSpace = stateSpace;
+            this.targetListeners = new ArrayList<>(stateSpace.size());
+            this.edgeListeners = new ArrayList<>(stateSpace.size());
+            for (int id = 0; id < stateSpace.size(); id++) {
+                this.targetListeners.add(new ArrayList<>());
+                this.edgeListeners.add(null);
+            }
+        }
+
+        /**
+         * Registers a listener for the transition from the state {@code from} into the state {@code to}.
+         *
+         * @param from     previous state
+         * @param to       new state
+         * @param listener listener
+         * @return {@code this}
+         * @throws IllegalArgumentException if the transition is not part of the state space
+         */
+        public @This @NonNull Builder<S> onTransition(
+                final @NonNull S from,
+                final @NonNull S to,
+                final @NonNull TransitionListener<S> listener
+        ) {
+            Objects.requireNonNull(listener, "listener");
+            final int fromId = this.id(from);
+            final int toId = this.id(to);
+            if (!this.stateSpace.canTransition(fromId, toId)) {
+                throw new IllegalArgumentException(String.format("Transition from %s to %s is not part of %s", from, to, this.stateSpace));
+            }
+            List<List<TransitionListener<S>>> row = this.edgeListeners.get(fromId);
+            if (row == null) {
+                row = new ArrayList<>(this.stateSpace.size());
+                for (int id = 0; id < this.stateSpace.size(); id++) {
+                    row.add(new ArrayList<>());
+                }
+                this.edgeListeners.set(fromId, row);
+            }
+            row.get(toId).add(listener);
+            return this;
+        }
+
+        /**
+         * Registers a listener for every transition into the given {@code state}.
+         *
+         * @param state    new state
+         * @param listener listener
+         * @return {@code this}
+         * @throws IllegalArgumentException if the state is not part of the state space
+         */
+        public @This @NonNull Builder<S> onEnter(final @NonNull S state, final @NonNull TransitionListener<S> listener) {
+            Objects.requireNonNull(listener, "listener");
+            this.targetListeners.get(this.id(state)).add(listener);
+            return this;
+        }
+
+        /**
+         * Registers a listener for every transition.
+         *
+         * @param listener listener
+         * @return {@code this}
+         */
+        public @This @NonNull Builder<S> onAny(final @NonNull TransitionListener<S> listener) {
+            this.wildcardListeners.add(Objects.requireNonNull(listener, "listener"));
+            return this;
+        }
+
+        /**
+         * Compiles the registered listeners.
+         *
+         * @return the listeners
+         */
+        public @NonNull TransitionListeners<S> build() {
+            final int size = this.stateSpace.size();
+            final TransitionListener<?>[] wildcardListeners = this.concat(List.of(), List.of(), this.wildcardListeners);
+            final TransitionListener<?>[][] targetListeners = new TransitionListener<?>[size][];
+            for (int to = 0; to < size; to++) {
+                final List<TransitionListener<S>> listeners = this.targetListeners.get(to);
+                targetListeners[to] = listeners.isEmpty()
+                        ? wildcardListeners
+                        : this.concat(List.of(), listeners, this.wildcardListeners);
+            }
+            TransitionListener<?>[][][] edgeListeners = null;
+            for (int from = 0; from < size; from++) {
+                final List<List<TransitionListener<S>>> row = this.edgeListeners.get(from);
+                if (row == null) {
+                    continue;
+                }
+                if (edgeListeners == null) {
+                    edgeListeners = new TransitionListener<?>[size][][];
+                }
+                edgeListeners[from] = new TransitionListener<?>[size][];
+                for (int to = 0; to < size; to++) {
+                    final List<TransitionListener<S>> listeners = row.get(to);
+                    edgeListeners[from][to] = listeners.isEmpty()
+                            ? targetListeners[to]
+                            : this.concat(listeners, this.targetListeners.get(to), this.wildcardListeners);
+                }
+            }
+            return new TransitionListeners<>(this.stateSpace, wildcardListeners, targetListeners, edgeListeners);
+        }
+
+        private int id(final @NonNull S state) {
+            Objects.requireNonNull(state, "state");
+            final int id = this.stateSpace.id(state);
+            if (id < 0) {
+                throw new IllegalArgumentException(String.format("State %s is not part of %s", state, this.stateSpace));
+            }
+            return id;
+        }
+
+        private TransitionListener<?> @NonNull [] concat(
+                final @NonNull List<TransitionListener<S>> first,
+                final @NonNull List<TransitionListener<S>> second,
+                final @NonNull List<TransitionListener<S>> third
+        ) {
+            final int length = first.size() + second.size() + third.size();
+            if (length == 0) {
+                return EMPTY;
+            }
+            final List<TransitionListener<S>> listeners = new ArrayList<>(length);
+            listeners.addAll(first);
+            listeners.addAll(second);
+            listeners.addAll(third);
+            return listeners.toArray(new TransitionListener<?>[0]);
+        }
+    }
+}
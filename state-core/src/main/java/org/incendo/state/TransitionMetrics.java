@@ -0,0 +1,126 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.Objects;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A sink for metrics about the transitions and interactions of stateful instances.
+ *
+ * <p>Metrics are attached to a {@link StateMachine} using {@link StateMachine#withMetrics(TransitionMetrics)}, and are
+ * reported by every {@link AbstractStateful} and {@link AbstractLockableStateful} that validates its transitions using
+ * that machine, and by the {@link StateInteraction interactions} performed on them. Instances without metrics use the
+ * {@link #noop()} implementation, whose invocations are removed by the JIT compiler, and do not read the clock.</p>
+ *
+ * <p>All methods have empty default implementations, so that implementations only override the events they are
+ * interested in. Methods are invoked synchronously, often while the lock guarding the instance is held, and must
+ * therefore be cheap and must not block. See {@link #counting(StateSpace)} for an implementation that uses striped
+ * counters.</p>
+ *
+ * @param <S> state type
+ * @since 1.1.0
+ */
+@API(status = API.Status.STABLE, since = "1.1.0")
+public interface TransitionMetrics<S extends State<S>> {
+
+    /**
+     * Returns metrics that discard every event.
+     *
+     * @param <S> state type
+     * @return the metrics
+     */
+    @SuppressWarnings("unchecked")
+    static <S extends State<S>> @NonNull TransitionMetrics<S> noop() {
+        return (TransitionMetrics<S>) NoopTransitionMetrics.INSTANCE;
+    }
+
+    /**
+     * Returns new metrics that count events per transition of the given {@code stateSpace} using striped counters.
+     *
+     * @param <S>        state type
+     * @param stateSpace state space
+     * @return the metrics
+     */
+    static <S extends State<S>> @NonNull CountingTransitionMetrics<S> counting(final @NonNull StateSpace<S> stateSpace) {
+        return new CountingTransitionMetrics<>(Objects.requireNonNull(stateSpace, "stateSpace"));
+    }
+
+    /**
+     * Invoked when an instance has transitioned from the state {@code from} into the state {@code to}.
+     *
+     * @param from previous state
+     * @param to   new state
+     */
+    default void onTransition(final @NonNull S from, final @NonNull S to) {
+    }
+
+    /**
+     * Invoked when an instance has rejected a transition from the state {@code from} into the state {@code to}, because
+     * the transition is not allowed.
+     *
+     * @param from current state
+     * @param to   rejected state
+     */
+    default void onIllegalTransition(final @NonNull S from, final @NonNull S to) {
+    }
+
+    /**
+     * Invoked when an operation has failed because an instance was in, or an interaction produced, the unexpected
+     * {@code state}.
+     *
+     * @param state actual state
+     */
+    default void onUnexpectedState(final @NonNull S state) {
+    }
+
+    /**
+     * Invoked when an interaction has been short-circuited because an instance was in the given {@code state}.
+     *
+     * @param state actual state
+     */
+    default void onShortCircuit(final @NonNull S state) {
+    }
+
+    /**
+     * Invoked when an interaction has completed, successfully or not.
+     *
+     * <p>The duration covers the interaction itself, and excludes the time spent waiting for the lock.</p>
+     *
+     * @param durationNanos duration of the interaction in nanoseconds
+     */
+    default void onInteraction(final long durationNanos) {
+    }
+
+    /**
+     * Invoked when a thread has acquired the lock guarding an instance in order to transition it or interact with it.
+     *
+     * <p>Reentrant acquisitions are not reported. Acquisitions that did not have to wait report a time of {@code 0}.</p>
+     *
+     * @param waitNanos time spent waiting for the lock in nanoseconds
+     */
+    default void onLockAcquired(final long waitNanos) {
+    }
+}
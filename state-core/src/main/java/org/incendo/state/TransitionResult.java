@@ -0,0 +1,59 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import org.apiguardian.api.API;
+
+/**
+ * The outcome of a state transition or expectation that does not throw.
+ *
+ * @since 1.1.0
+ * @see MutableStateful#tryTransitionTo(State)
+ * @see MutableStateful#tryTransition(State, State)
+ * @see Stateful#tryExpectState(State)
+ */
+@API(status = API.Status.STABLE, since = "1.1.0")
+public enum TransitionResult {
+    /**
+     * The state was transitioned, or was the expected state.
+     */
+    SUCCESS,
+    /**
+     * The state transition is not possible from the current state.
+     */
+    ILLEGAL_TRANSITION,
+    /**
+     * The current state was different from the expected state.
+     */
+    UNEXPECTED_STATE;
+
+    /**
+     * Returns whether this is {@link #SUCCESS}.
+     *
+     * @return {@code true} if this is {@link #SUCCESS}, {@code false} if not
+     */
+    public boolean succeeded() {
+        return this == SUCCESS;
+    }
+}
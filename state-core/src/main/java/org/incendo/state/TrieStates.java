@@ -0,0 +1,487 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.apiguardian.api.API;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * Persistent {@link States} implementation, backed by a hash array mapped trie.
+ *
+ * <p>{@link #withState(State)} and {@link #withoutState(State)} only copy the path from the root to the affected
+ * leaf and share everything else with the original instance, which makes incremental construction
+ * {@code O(log n)} per step instead of {@code O(n)}.</p>
+ *
+ * @param <S> state type
+ */
+@API(status = API.Status.INTERNAL, since = "1.1.0")
+final class TrieStates<S extends State<S>> extends AbstractStates<S> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final int MAX_DEPTH = (Integer.SIZE + BITS - 1) / BITS + 1;
+
+    private static final BitmapNode EMPTY_NODE = new BitmapNode(0, 0, new Object[0]);
+
+    /**
+     * Returns an instance containing the given states.
+     *
+     * @param <S>    state type
+     * @param states states to copy
+     * @return the instance
+     */
+    static <S extends State<S>> @NonNull TrieStates<S> copyOf(final @NonNull States<S> states) {
+        Node root = EMPTY_NODE;
+        int size = 0;
+        for (final S state : states) {
+            final Node node = root.with(state, state.hashCode(), 0);
+            if (node != root) {
+                root = node;
+                size++;
+            }
+        }
+        return new TrieStates<>(root, size);
+    }
+
+    private final Node root;
+    private final int size;
+
+    private TrieStates(final @NonNull Node root, final int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @Override
+    public boolean contains(final @NonNull S state) {
+        return this.root.contains(state, state.hashCode(), 0);
+    }
+
+    @Override
+    public @NonNull States<S> withState(final @NonNull S state) {
+        Objects.requireNonNull(state, "state");
+        final Node root = this.root.with(state, state.hashCode(), 0);
+        if (root == this.root) {
+            return this;
+        }
+        return new TrieStates<>(root, this.size + 1);
+    }
+
+    @Override
+    public @NonNull States<S> withoutState(final @NonNull S state) {
+        Objects.requireNonNull(state, "state");
+        final Node root = this.root.without(state, state.hashCode(), 0);
+        if (root == this.root) {
+            return this;
+        }
+        if (this.size == 1) {
+            return States.of();
+        }
+        return new TrieStates<>(root, this.size - 1);
+    }
+
+    @Override
+    public boolean empty() {
+        return this.size == 0;
+    }
+
+    @Override
+    public @NonNull Stream<S> states() {
+        return StreamSupport.stream(
+                Spliterators.spliterator(
+                        this.iterator(),
+                        this.size,
+                        Spliterator.DISTINCT | Spliterator.IMMUTABLE | Spliterator.NONNULL
+                ),
+                false
+        );
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(final @NonNull Consumer<? super S> action) {
+        this.root.forEach((Consumer<Object>) action);
+    }
+
+    @Override
+    public @NonNull Iterator<S> iterator() {
+        return new TrieIterator<>(this.root);
+    }
+
+    private static @NonNull Node merge(
+            final @NonNull Object first,
+            final int firstHash,
+            final @NonNull Object second,
+            final int secondHash,
+            final int shift
+    ) {
+        if (shift >= Integer.SIZE) {
+            return new CollisionNode(new Object[] {first, second});
+        }
+        final int firstFragment = (firstHash >>> shift) & MASK;
+        final int secondFragment = (secondHash >>> shift) & MASK;
+        if (firstFragment == secondFragment) {
+            return new BitmapNode(0, 1 << firstFragment, new Object[] {merge(first, firstHash, second, secondHash, shift + BITS)});
+        }
+        final Object[] content = firstFragment < secondFragment ? new Object[] {first, second} : new Object[] {second, first};
+        return new BitmapNode((1 << firstFragment) | (1 << secondFragment), 0, content);
+    }
+
+    private static boolean matches(final @NonNull Object element, final @NonNull Object state) {
+        return element == state || element.equals(state);
+    }
+
+
+    private abstract static sealed class Node permits BitmapNode, CollisionNode {
+
+        abstract boolean contains(@NonNull Object state, int hash, int shift);
+
+        abstract @NonNull Node with(@NonNull Object state, int hash, int shift);
+
+        abstract @NonNull Node without(@NonNull Object state, int hash, int shift);
+
+        /**
+         * Returns the only element of this node if it holds exactly one element and no sub-nodes, so that the
+         * parent can inline it.
+         *
+         * @return the single element, or {@code null}
+         */
+        abstract Object singleElement();
+
+        abstract void forEach(@NonNull Consumer<Object> action);
+
+        abstract int elementCount();
+
+        abstract @NonNull Object element(int index);
+
+        abstract int nodeCount();
+
+        abstract @NonNull Node node(int index);
+    }
+
+    /**
+     * Iterator that walks the trie depth-first, in the same order as {@link Node#forEach(Consumer)}, without copying
+     * the elements.
+     *
+     * @param <S> state type
+     */
+    private static final class TrieIterator<S> implements Iterator<S> {
+
+        private final Node[] nodes = new Node[MAX_DEPTH];
+        private final int[] positions = new int[MAX_DEPTH];
+        private int depth;
+        private Object next;
+
+        private TrieIterator(final @NonNull Node root) {
+            this.nodes[0] = root;
+            this.advance();
+        }
+
+        private void advance() {
+            while (this.depth >= 0) {
+                final Node node = this.nodes[this.depth];
+                final int position = this.positions[this.depth]++;
+                final int elements = node.elementCount();
+                if (position < elements) {
+                    this.next = node.element(position);
+                    return;
+                }
+                if (position - elements < node.nodeCount()) {
+                    this.nodes[++this.depth] = node.node(position - elements);
+                    this.positions[this.depth] = 0;
+                } else {
+                    this.nodes[this.depth--] = null;
+                }
+            }
+            this.next = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public @NonNull S next() {
+            final Object next = this.next;
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            this.advance();
+            return (S) next;
+        }
+    }
+
+    /**
+     * Node holding up to 32 entries, indexed by a 5-bit fragment of the hash. Elements are stored at the start of
+     * the content array in fragment order, and sub-nodes at the end in reverse fragment order.
+     */
+    private static final class BitmapNode extends Node {
+
+        private final int dataMap;
+        private final int nodeMap;
+        private final Object[] content;
+
+        private BitmapNode(final int dataMap, final int nodeMap, final @NonNull Object @NonNull [] content) {
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.content = content;
+        }
+
+        private int dataIndex(final int bit) {
+            return Integer.bitCount(this.dataMap & (bit - 1));
+        }
+
+        private int nodeIndex(final int bit) {
+            return this.content.length - 1 - Integer.bitCount(this.nodeMap & (bit - 1));
+        }
+
+        @Override
+        boolean contains(final @NonNull Object state, final int hash, final int shift) {
+            final int bit = 1 << ((hash >>> shift) & MASK);
+            if ((this.dataMap & bit) != 0) {
+                return matches(this.content[this.dataIndex(bit)], state);
+            }
+            if ((this.nodeMap & bit) != 0) {
+                return ((Node) this.content[this.nodeIndex(bit)]).contains(state, hash, shift + BITS);
+            }
+            return false;
+        }
+
+        @Override
+        @NonNull Node with(final @NonNull Object state, final int hash, final int shift) {
+            final int bit = 1 << ((hash >>> shift) & MASK);
+            if ((this.dataMap & bit) != 0) {
+                final int dataIndex = this.dataIndex(bit);
+                final Object element = this.content[dataIndex];
+                if (matches(element, state)) {
+                    return this;
+                }
+                final Node node = merge(element, element.hashCode(), state, hash, shift + BITS);
+                return this.dataToNode(bit, dataIndex, node);
+            }
+            if ((this.nodeMap & bit) != 0) {
+                final int nodeIndex = this.nodeIndex(bit);
+                final Node node = (Node) this.content[nodeIndex];
+                final Node newNode = node.with(state, hash, shift + BITS);
+                if (newNode == node) {
+                    return this;
+                }
+                final Object[] content = this.content.clone();
+                content[nodeIndex] = newNode;
+                return new BitmapNode(this.dataMap, this.nodeMap, content);
+            }
+            final int dataIndex = this.dataIndex(bit);
+            final Object[] content = new Object[this.content.length + 1];
+            System.arraycopy(this.content, 0, content, 0, dataIndex);
+            content[dataIndex] = state;
+            System.arraycopy(this.content, dataIndex, content, dataIndex + 1, this.content.length - dataIndex);
+            return new BitmapNode(this.dataMap | bit, this.nodeMap, content);
+        }
+
+        @Override
+        @NonNull Node without(final @NonNull Object state, final int hash, final int shift) {
+            final int bit = 1 << ((hash >>> shift) & MASK);
+            if ((this.dataMap & bit) != 0) {
+                final int dataIndex = this.dataIndex(bit);
+                if (!matches(this.content[dataIndex], state)) {
+                    return this;
+                }
+                final Object[] content = new Object[this.content.length - 1];
+                System.arraycopy(this.content, 0, content, 0, dataIndex);
+                System.arraycopy(this.content, dataIndex + 1, content, dataIndex, content.length - dataIndex);
+                return new BitmapNode(this.dataMap ^ bit, this.nodeMap, content);
+            }
+            if ((this.nodeMap & bit) != 0) {
+                final int nodeIndex = this.nodeIndex(bit);
+                final Node node = (Node) this.content[nodeIndex];
+                final Node newNode = node.without(state, hash, shift + BITS);
+                if (newNode == node) {
+                    return this;
+                }
+                final Object element = newNode.singleElement();
+                if (element != null) {
+                    return this.nodeToData(bit, nodeIndex, element);
+                }
+                final Object[] content = this.content.clone();
+                content[nodeIndex] = newNode;
+                return new BitmapNode(this.dataMap, this.nodeMap, content);
+            }
+            return this;
+        }
+
+        private @NonNull Node dataToNode(final int bit, final int dataIndex, final @NonNull Node node) {
+            final Object[] content = new Object[this.content.length];
+            final int nodeIndex = this.nodeIndex(bit);
+            System.arraycopy(this.content, 0, content, 0, dataIndex);
+            System.arraycopy(this.content, dataIndex + 1, content, dataIndex, nodeIndex - dataIndex);
+            content[nodeIndex] = node;
+            System.arraycopy(this.content, nodeIndex + 1, content, nodeIndex + 1, this.content.length - nodeIndex - 1);
+            return new BitmapNode(this.dataMap ^ bit, this.nodeMap | bit, content);
+        }
+
+        private @NonNull Node nodeToData(final int bit, final int nodeIndex, final @NonNull Object element) {
+            final Object[] content = new Object[this.content.length];
+            final int dataIndex = this.dataIndex(bit);
+            System.arraycopy(this.content, 0, content, 0, dataIndex);
+            content[dataIndex] = element;
+            System.arraycopy(this.content, dataIndex, content, dataIndex + 1, nodeIndex - dataIndex);
+            System.arraycopy(this.content, nodeIndex + 1, content, nodeIndex + 1, this.content.length - nodeIndex - 1);
+            return new BitmapNode(this.dataMap | bit, this.nodeMap ^ bit, content);
+        }
+
+        @Override
+        Object singleElement() {
+            if (this.nodeMap == 0 && this.content.length == 1) {
+                return this.content[0];
+            }
+            return null;
+        }
+
+        @Override
+        void forEach(final @NonNull Consumer<Object> action) {
+            final int elements = Integer.bitCount(this.dataMap);
+            for (int index = 0; index < elements; index++) {
+                action.accept(this.content[index]);
+            }
+            for (int index = this.content.length - 1; index >= elements; index--) {
+                ((Node) this.content[index]).forEach(action);
+            }
+        }
+
+        @Override
+        int elementCount() {
+            return Integer.bitCount(this.dataMap);
+        }
+
+        @Override
+        @NonNull Object element(final int index) {
+            return this.content[index];
+        }
+
+        @Override
+        int nodeCount() {
+            return Integer.bitCount(this.nodeMap);
+        }
+
+        @Override
+        @NonNull Node node(final int index) {
+            return (Node) this.content[this.content.length - 1 - index];
+        }
+    }
+
+    /**
+     * Node holding elements whose hashes are identical.
+     */
+    private static final class CollisionNode extends Node {
+
+        private final Object[] elements;
+
+        private CollisionNode(final @NonNull Object @NonNull [] elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        boolean contains(final @NonNull Object state, final int hash, final int shift) {
+            for (final Object element : this.elements) {
+                if (matches(element, state)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        @NonNull Node with(final @NonNull Object state, final int hash, final int shift) {
+            if (this.contains(state, hash, shift)) {
+                return this;
+            }
+            final Object[] elements = new Object[this.elements.length + 1];
+            System.arraycopy(this.elements, 0, elements, 0, this.elements.length);
+            elements[this.elements.length] = state;
+            return new CollisionNode(elements);
+        }
+
+        @Override
+        @NonNull Node without(final @NonNull Object state, final int hash, final int shift) {
+            for (int index = 0; index < this.elements.length; index++) {
+                if (matches(this.elements[index], state)) {
+                    final Object[] elements = new Object[this.elements.length - 1];
+                    System.arraycopy(this.elements, 0, elements, 0, index);
+                    System.arraycopy(this.elements, index + 1, elements, index, elements.length - index);
+                    return new CollisionNode(elements);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        Object singleElement() {
+            if (this.elements.length == 1) {
+                return this.elements[0];
+            }
+            return null;
+        }
+
+        @Override
+        void forEach(final @NonNull Consumer<Object> action) {
+            for (final Object element : this.elements) {
+                action.accept(element);
+            }
+        }
+
+        @Override
+        int elementCount() {
+            return this.elements.length;
+        }
+
+        @Override
+        @NonNull Object element(final int index) {
+            return this.elements[index];
+        }
+
+        @Override
+        int nodeCount() {
+            return 0;
+        }
+
+        @Override
+        @NonNull Node node(final int index) {
+            throw new IndexOutOfBoundsException(index);
+        }
+    }
+}
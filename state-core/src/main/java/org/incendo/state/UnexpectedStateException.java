@@ -25,10 +25,15 @@ package org.incendo.state;
 
 import org.apiguardian.api.API;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Exception thrown when a state of a {@link Stateful} instance is different from the expected state.
  *
+ * <p>The message is only formatted when it is first requested. If the system property
+ * {@code org.incendo.state.stacklessExceptions} is set to {@code true}, the exception does not capture a stack trace,
+ * which makes it cheap to construct when rejections are expected.</p>
+ *
  * @since 1.0.0
  */
 @API(status = API.Status.STABLE, since = "1.0.0")
@@ -37,6 +42,7 @@ public class UnexpectedStateException extends IllegalArgumentException {
     private final States<?> expected;
     private final State<?> actual;
     private final Stateful<?, ?> stateful;
+    private @Nullable String message;
 
     /**
      * Creates a new instance.
@@ -50,7 +56,6 @@ public class UnexpectedStateException extends IllegalArgumentException {
             final @NonNull State<?> actual,
             final @NonNull Stateful<?, ?> stateful
     ) {
-        super(String.format("Expected states '%s' but was '%s'", expected, actual));
         this.expected = expected;
         this.actual = actual;
         this.stateful = stateful;
@@ -82,4 +87,28 @@ public class UnexpectedStateException extends IllegalArgumentException {
     public @NonNull Stateful<?, ?> stateful() {
         return this.stateful;
     }
+
+    @Override
+    public @NonNull String getMessage() {
+        String message = this.message;
+        if (message == null) {
+            message = String.format("Expected states '%s' but was '%s'", this.expected, this.actual);
+            this.message = message;
+        }
+        return message;
+    }
+
+    /**
+     * Captures the stack trace, unless stackless exceptions are enabled.
+     *
+     * @return {@code this}
+     * @since 1.1.0
+     */
+    @Override
+    public @NonNull Throwable fillInStackTrace() {
+        if (StateExceptions.stackless()) {
+            return this;
+        }
+        return super.fillInStackTrace();
+    }
 }
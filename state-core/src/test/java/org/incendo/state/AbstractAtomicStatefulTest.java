@@ -0,0 +1,159 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AbstractAtomicStatefulTest {
+
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 200;
+
+    private ExecutorService executor;
+    private TestStateful stateful;
+
+    @BeforeEach
+    void setup() {
+        this.executor = Executors.newFixedThreadPool(THREADS);
+        this.stateful = new TestStateful();
+    }
+
+    @AfterEach
+    void teardown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    void TransitionTo_HappyFlow_Success() {
+        // Act
+        this.stateful.transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+
+        // Assert
+        assertThat(this.stateful.state()).isEqualTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+    }
+
+    @Test
+    void TransitionTo_IllegalTransition_ThrowsException() {
+        // Act
+        final IllegalStateTransitionException exception = assertThrows(
+                IllegalStateTransitionException.class,
+                () -> this.stateful.transitionTo(AbstractStatefulTest.TestState.END_STATE)
+        );
+
+        // Assert
+        assertThat(exception.from()).isEqualTo(AbstractStatefulTest.TestState.INITIAL_STATE);
+        assertThat(exception.stateful()).isSameInstanceAs(this.stateful);
+    }
+
+    @Test
+    void Transition_UnexpectedState_ThrowsException() {
+        // Act
+        final UnexpectedStateException exception = assertThrows(
+                UnexpectedStateException.class,
+                () -> this.stateful.transition(
+                        AbstractStatefulTest.TestState.INTERMEDIARY_STATE,
+                        AbstractStatefulTest.TestState.END_STATE
+                )
+        );
+
+        // Assert
+        assertThat(exception.actual()).isEqualTo(AbstractStatefulTest.TestState.INITIAL_STATE);
+    }
+
+    @Test
+    void Transition_StateMachine_ValidatesUsingMachine() {
+        // Arrange
+        final MachineStateful stateful = new MachineStateful();
+
+        // Act
+        stateful.transition(StateMachineTest.Phase.CREATED, StateMachineTest.Phase.RUNNING);
+
+        // Assert
+        assertThat(stateful.state()).isEqualTo(StateMachineTest.Phase.RUNNING);
+        assertThrows(IllegalStateTransitionException.class, () -> stateful.transitionTo(StateMachineTest.Phase.CREATED));
+    }
+
+    @Test
+    void Transition_ConcurrentTransitions_ExactlyOneSucceeds() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            // Arrange
+            final TestStateful stateful = new TestStateful();
+            final CyclicBarrier barrier = new CyclicBarrier(THREADS);
+            final List<Future<Boolean>> futures = new ArrayList<>();
+
+            // Act
+            for (int thread = 0; thread < THREADS; thread++) {
+                futures.add(this.executor.submit(() -> {
+                    barrier.await();
+                    try {
+                        stateful.transition(
+                                AbstractStatefulTest.TestState.INITIAL_STATE,
+                                AbstractStatefulTest.TestState.INTERMEDIARY_STATE
+                        );
+                        return true;
+                    } catch (final UnexpectedStateException e) {
+                        return false;
+                    }
+                }));
+            }
+
+            // Assert
+            int successes = 0;
+            for (final Future<Boolean> future : futures) {
+                if (future.get()) {
+                    successes++;
+                }
+            }
+            assertThat(successes).isEqualTo(1);
+            assertThat(stateful.state()).isEqualTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+        }
+    }
+
+    static final class TestStateful extends AbstractAtomicStateful<AbstractStatefulTest.TestState, TestStateful> {
+
+        TestStateful() {
+            super(AbstractStatefulTest.TestState.INITIAL_STATE);
+        }
+    }
+
+    static final class MachineStateful extends AbstractAtomicStateful<StateMachineTest.Phase, MachineStateful> {
+
+        private static final StateMachine<StateMachineTest.Phase> STATE_MACHINE = StateMachine.ofEnum(StateMachineTest.Phase.class);
+
+        MachineStateful() {
+            super(STATE_MACHINE, StateMachineTest.Phase.CREATED);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AbstractIntStatefulTest {
+
+    private IntStateful stateful;
+
+    @BeforeEach
+    void setup() {
+        this.stateful = new IntStateful(StateMachineTest.Phase.CREATED);
+    }
+
+    @Test
+    void TransitionTo_HappyFlow_Success() {
+        // Act
+        this.stateful.transitionTo(StateMachineTest.Phase.RUNNING);
+
+        // Assert
+        assertThat(this.stateful.state()).isEqualTo(StateMachineTest.Phase.RUNNING);
+        assertThat(this.stateful.stateId()).isEqualTo(StateMachineTest.Phase.RUNNING.ordinal());
+    }
+
+    @Test
+    void TransitionTo_IllegalTransition_ThrowsException() {
+        // Act
+        final IllegalStateTransitionException exception = assertThrows(
+                IllegalStateTransitionException.class,
+                () -> this.stateful.transitionTo(StateMachineTest.Phase.DONE)
+        );
+
+        // Assert
+        assertThat(exception.from()).isEqualTo(StateMachineTest.Phase.CREATED);
+        assertThat(exception.to()).isEqualTo(StateMachineTest.Phase.DONE);
+        assertThat(this.stateful.state()).isEqualTo(StateMachineTest.Phase.CREATED);
+    }
+
+    @Test
+    void Transition_UnexpectedState_ThrowsException() {
+        // Act
+        final UnexpectedStateException exception = assertThrows(
+                UnexpectedStateException.class,
+                () -> this.stateful.transition(StateMachineTest.Phase.RUNNING, StateMachineTest.Phase.DONE)
+        );
+
+        // Assert
+        assertThat(exception.actual()).isEqualTo(StateMachineTest.Phase.CREATED);
+    }
+
+    @Test
+    void CanTransitionTo_CompiledTable_MatchesAllowedTransitions() {
+        // Act & Assert
+        assertThat(this.stateful.canTransitionTo(StateMachineTest.Phase.RUNNING)).isTrue();
+        assertThat(this.stateful.canTransitionTo(StateMachineTest.Phase.PAUSED)).isFalse();
+    }
+
+    @Test
+    void Constructor_StateNotInSpace_ThrowsException() {
+        // Act & Assert
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new CompiledStateful(AbstractStatefulTest.TestState.INITIAL_STATE)
+        );
+    }
+
+    static final class IntStateful extends AbstractIntStateful<StateMachineTest.Phase, IntStateful> {
+
+        private static final StateMachine<StateMachineTest.Phase> STATE_MACHINE = StateMachine.ofEnum(StateMachineTest.Phase.class);
+
+        IntStateful(final StateMachineTest.@NonNull Phase initialState) {
+            super(initialState);
+        }
+
+        @Override
+        protected @NonNull StateSpace<StateMachineTest.Phase> stateSpace() {
+            return STATE_MACHINE;
+        }
+    }
+
+    static final class CompiledStateful extends AbstractIntStateful<AbstractStatefulTest.TestState, CompiledStateful> {
+
+        private static final StateMachine<AbstractStatefulTest.TestState> STATE_MACHINE = StateMachine.compile(
+                AbstractStatefulTest.TestState.INTERMEDIARY_STATE
+        );
+
+        CompiledStateful(final AbstractStatefulTest.@NonNull TestState initialState) {
+            super(initialState);
+        }
+
+        @Override
+        protected @NonNull StateSpace<AbstractStatefulTest.TestState> stateSpace() {
+            return STATE_MACHINE;
+        }
+    }
+}
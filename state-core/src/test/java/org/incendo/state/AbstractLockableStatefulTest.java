@@ -0,0 +1,132 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AbstractLockableStatefulTest {
+
+    private ExecutorService executor;
+    private TestStateful stateful;
+
+    @BeforeEach
+    void setup() {
+        this.executor = Executors.newFixedThreadPool(2);
+        this.stateful = new TestStateful();
+    }
+
+    @AfterEach
+    void teardown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    void State_InsideInteraction_ReadsOwnWrites() {
+        // Act
+        final AbstractStatefulTest.TestState result = this.stateful.interact()
+                .outgoingStates(States.of(AbstractStatefulTest.TestState.END_STATE))
+                .interaction(instance -> {
+                    instance.transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+                    assertThat(instance.state()).isEqualTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+                    return instance.transitionTo(AbstractStatefulTest.TestState.END_STATE);
+                })
+                .execute()
+                .unwrap()
+                .state();
+
+        // Assert
+        assertThat(result).isEqualTo(AbstractStatefulTest.TestState.END_STATE);
+    }
+
+    @Test
+    void State_DuringInteraction_BlocksUntilInteractionCompletes() throws Exception {
+        // Arrange
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Future<?> interaction = this.executor.submit(() -> this.stateful.interact()
+                .outgoingStates(States.of(AbstractStatefulTest.TestState.END_STATE))
+                .interaction(instance -> {
+                    instance.transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+                    entered.countDown();
+                    release.await();
+                    return instance.transitionTo(AbstractStatefulTest.TestState.END_STATE);
+                })
+                .execute());
+        entered.await();
+
+        // Act
+        final Future<AbstractStatefulTest.TestState> read = this.executor.submit(this.stateful::state);
+
+        // Assert
+        assertThrows(TimeoutException.class, () -> read.get(50L, TimeUnit.MILLISECONDS));
+        release.countDown();
+        interaction.get();
+        assertThat(read.get()).isEqualTo(AbstractStatefulTest.TestState.END_STATE);
+    }
+
+    @Test
+    void Unlock_NotOwner_ThrowsException() {
+        // Arrange
+        final StateLock lock = this.stateful.lock();
+
+        // Act & Assert
+        assertThrows(IllegalMonitorStateException.class, lock::unlock);
+    }
+
+    @Test
+    void Lock_Reentrant_ReleasedAfterLastUnlock() {
+        // Arrange
+        final StateLock lock = this.stateful.lock();
+
+        // Act
+        lock.lock();
+        lock.lock();
+        lock.unlock();
+
+        // Assert
+        assertThat(lock.isHeldByCurrentThread()).isTrue();
+        assertThat(lock.tryOptimisticRead()).isEqualTo(0L);
+        lock.unlock();
+        assertThat(lock.isHeldByCurrentThread()).isFalse();
+        assertThat(lock.tryOptimisticRead()).isNotEqualTo(0L);
+    }
+
+    static final class TestStateful extends AbstractLockableStateful<AbstractStatefulTest.TestState, TestStateful> {
+
+        TestStateful() {
+            super(AbstractStatefulTest.TestState.INITIAL_STATE);
+        }
+    }
+}
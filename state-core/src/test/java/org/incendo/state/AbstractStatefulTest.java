@@ -82,11 +82,14 @@ class AbstractStatefulTest {
         final TestState currentState = TestState.INTERMEDIARY_STATE;
         final TestState nextState = TestState.END_STATE;
 
-        // Act & Assert
-        assertThrows(
+        // Act
+        final UnexpectedStateException exception = assertThrows(
                 UnexpectedStateException.class,
                 () -> this.stateful.transition(currentState, nextState)
         );
+
+        // Assert
+        assertThat(exception.actual()).isEqualTo(TestState.INITIAL_STATE);
     }
 
     @Test
@@ -119,6 +122,34 @@ class AbstractStatefulTest {
         );
     }
 
+    @Test
+    void Lock_DistinctInstances_AreNotShared() {
+        // Arrange
+        final TestStateful other = new TestStateful();
+
+        // Act
+        this.stateful.transitionTo(TestState.INTERMEDIARY_STATE);
+
+        // Assert
+        assertThat(this.stateful.lock()).isSameInstanceAs(this.stateful.lock());
+        assertThat(this.stateful.lock()).isNotSameInstanceAs(other.lock());
+    }
+
+    @Test
+    void Transition_TransitionToOverridden_InvokesOverride() {
+        // Arrange
+        final RecordingStateful recording = new RecordingStateful();
+
+        // Act
+        recording.transition(TestState.INITIAL_STATE, TestState.INTERMEDIARY_STATE);
+
+        // Assert
+        assertThat(recording.state()).isEqualTo(TestState.INTERMEDIARY_STATE);
+        assertThat(recording.transitions).isEqualTo(1);
+        assertThrows(UnexpectedStateException.class, () -> recording.transition(TestState.INITIAL_STATE, TestState.END_STATE));
+        assertThat(recording.transitions).isEqualTo(1);
+    }
+
 
     static final class TestState extends AbstractState<TestState> {
 
@@ -137,4 +168,19 @@ class AbstractStatefulTest {
             super(TestState.INITIAL_STATE);
         }
     }
+
+    static final class RecordingStateful extends AbstractStateful<TestState, RecordingStateful> {
+
+        private int transitions;
+
+        RecordingStateful() {
+            super(TestState.INITIAL_STATE);
+        }
+
+        @Override
+        public @NonNull RecordingStateful transitionTo(final @NonNull TestState state) {
+            this.transitions++;
+            return super.transitionTo(state);
+        }
+    }
 }
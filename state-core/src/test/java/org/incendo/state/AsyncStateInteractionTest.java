@@ -0,0 +1,289 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.incendo.state.StateInteraction.InteractionResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AsyncStateInteractionTest {
+
+    private ExecutorService executor;
+    private AbstractLockableStatefulTest.TestStateful stateful;
+
+    @BeforeEach
+    void setup() {
+        this.executor = Executors.newFixedThreadPool(2);
+        this.stateful = new AbstractLockableStatefulTest.TestStateful();
+    }
+
+    @AfterEach
+    void teardown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    void ExecuteAsync_HappyFlow_CompletesWithResult() throws Exception {
+        // Arrange
+        final CompletableFuture<AbstractLockableStatefulTest.TestStateful> pending = new CompletableFuture<>();
+
+        // Act
+        final CompletableFuture<InteractionResult<AbstractStatefulTest.TestState, AbstractLockableStatefulTest.TestStateful>>
+                result = this.stateful.interact()
+                        .asyncInteraction(instance -> pending)
+                        .executeAsync();
+
+        // Assert
+        assertThat(result.isDone()).isFalse();
+        pending.complete(this.stateful.transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE));
+        assertThat(result.get()).isInstanceOf(InteractionResult.Succeeded.class);
+        assertThat(result.get().unwrap().state()).isEqualTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+    }
+
+    @Test
+    void ExecuteAsync_IllegalIncomingState_InteractionNotInvoked() throws Exception {
+        // Arrange
+        final AtomicInteger invocations = new AtomicInteger();
+
+        // Act
+        final InteractionResult<AbstractStatefulTest.TestState, AbstractLockableStatefulTest.TestStateful> result =
+                this.stateful.interact()
+                        .incomingStates(States.of(AbstractStatefulTest.TestState.END_STATE))
+                        .asyncInteraction(instance -> {
+                            invocations.incrementAndGet();
+                            return CompletableFuture.completedFuture(instance);
+                        })
+                        .executeAsync()
+                        .get();
+
+        // Assert
+        assertThat(result).isInstanceOf(InteractionResult.Failed.IllegalIncomingState.class);
+        assertThat(invocations.get()).isEqualTo(0);
+    }
+
+    @Test
+    void ExecuteAsync_ShortCircuitState_ShortCircuits() throws Exception {
+        // Act
+        final InteractionResult<AbstractStatefulTest.TestState, AbstractLockableStatefulTest.TestStateful> result =
+                this.stateful.interact()
+                        .shortCircuitStates(States.of(AbstractStatefulTest.TestState.INITIAL_STATE))
+                        .asyncInteraction(CompletableFuture::completedFuture)
+                        .executeAsync()
+                        .get();
+
+        // Assert
+        assertThat(result).isInstanceOf(InteractionResult.ShortCircuited.class);
+    }
+
+    @Test
+    void ExecuteAsync_IllegalOutgoingState_Fails() throws Exception {
+        // Act
+        final InteractionResult<AbstractStatefulTest.TestState, AbstractLockableStatefulTest.TestStateful> result =
+                this.stateful.interact()
+                        .asyncInteraction(CompletableFuture::completedFuture)
+                        .executeAsync()
+                        .get();
+
+        // Assert
+        assertThat(result).isInstanceOf(InteractionResult.Failed.IllegalOutgoingState.class);
+    }
+
+    @Test
+    void ExecuteAsync_CheckedException_CompletesExceptionally() {
+        // Act
+        final CompletableFuture<?> result = this.stateful.interact()
+                .asyncInteraction(instance -> {
+                    throw new Exception("failure");
+                })
+                .executeAsync();
+
+        // Assert
+        final ExecutionException exception = assertThrows(ExecutionException.class, result::get);
+        assertThat(exception.getCause()).isInstanceOf(RuntimeException.class);
+        assertThat(exception.getCause().getCause().getMessage()).isEqualTo("failure");
+    }
+
+    @Test
+    void ExecuteAsync_PendingInteraction_NextInteractionQueued() throws Exception {
+        // Arrange
+        final CompletableFuture<AbstractLockableStatefulTest.TestStateful> pending = new CompletableFuture<>();
+        final AtomicInteger started = new AtomicInteger();
+        final CompletableFuture<?> first = this.stateful.interact()
+                .outgoingStates(States.of(AbstractStatefulTest.TestState.INTERMEDIARY_STATE))
+                .asyncInteraction(instance -> {
+                    started.incrementAndGet();
+                    return pending;
+                })
+                .executeAsync();
+
+        // Act
+        final CompletableFuture<?> second = this.stateful.interact()
+                .incomingStates(States.of(AbstractStatefulTest.TestState.INTERMEDIARY_STATE))
+                .outgoingStates(States.of(AbstractStatefulTest.TestState.END_STATE))
+                .asyncInteraction(instance -> {
+                    started.incrementAndGet();
+                    return CompletableFuture.completedFuture(instance.transitionTo(AbstractStatefulTest.TestState.END_STATE));
+                })
+                .executeAsync();
+
+        // Assert
+        assertThat(started.get()).isEqualTo(1);
+        assertThat(second.isDone()).isFalse();
+        pending.complete(this.stateful.transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE));
+        second.get();
+        assertThat(first.isDone()).isTrue();
+        assertThat(started.get()).isEqualTo(2);
+        assertThat(this.stateful.state()).isEqualTo(AbstractStatefulTest.TestState.END_STATE);
+        assertThat(InteractionQueue.isBusy(this.stateful)).isFalse();
+    }
+
+    @Test
+    void Execute_PendingAsyncInteraction_WaitsForCompletion() throws Exception {
+        // Arrange
+        final CompletableFuture<AbstractLockableStatefulTest.TestStateful> pending = new CompletableFuture<>();
+        this.stateful.interact()
+                .outgoingStates(States.of(AbstractStatefulTest.TestState.INTERMEDIARY_STATE))
+                .asyncInteraction(instance -> pending)
+                .executeAsync();
+
+        // Act
+        final Future<InteractionResult<AbstractStatefulTest.TestState, AbstractLockableStatefulTest.TestStateful>>
+                result = this.executor.submit(() -> this.stateful.interact()
+                        .incomingStates(States.of(AbstractStatefulTest.TestState.INTERMEDIARY_STATE))
+                        .outgoingStates(States.of(AbstractStatefulTest.TestState.END_STATE))
+                        .interaction(instance -> instance.transitionTo(AbstractStatefulTest.TestState.END_STATE))
+                        .execute());
+
+        // Assert
+        assertThrows(TimeoutException.class, () -> result.get(50L, TimeUnit.MILLISECONDS));
+        pending.complete(this.stateful.transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE));
+        assertThat(result.get()).isInstanceOf(InteractionResult.Succeeded.class);
+        assertThat(this.stateful.state()).isEqualTo(AbstractStatefulTest.TestState.END_STATE);
+    }
+
+    @Test
+    void Execute_NestedWhileAsyncInteractionQueued_RunsDirectly() throws Exception {
+        // Arrange
+        final InteractionTemplate<AbstractStatefulTest.TestState, AbstractLockableStatefulTest.TestStateful> advance =
+                InteractionTemplate.<AbstractStatefulTest.TestState, AbstractLockableStatefulTest.TestStateful>builder()
+                        .incomingStates(States.of(AbstractStatefulTest.TestState.INITIAL_STATE))
+                        .outgoingStates(States.of(AbstractStatefulTest.TestState.INTERMEDIARY_STATE))
+                        .interaction(instance -> instance.transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE))
+                        .build();
+        final AtomicReference<Future<?>> queued = new AtomicReference<>();
+
+        // Act
+        final Future<InteractionResult<AbstractStatefulTest.TestState, AbstractLockableStatefulTest.TestStateful>>
+                result = this.executor.submit(() -> this.stateful.interact()
+                        .outgoingStates(States.of(AbstractStatefulTest.TestState.END_STATE))
+                        .interaction(instance -> {
+                            final StateInteraction.Builder<AbstractStatefulTest.TestState, AbstractLockableStatefulTest.TestStateful>
+                                    pending = instance.interact()
+                                            .incomingStates(States.of(AbstractStatefulTest.TestState.END_STATE))
+                                            .outgoingStates(States.of(AbstractStatefulTest.TestState.END_STATE))
+                                            .interaction(other -> other);
+                            // Blocks on the lock held by this interaction, which keeps the queue busy.
+                            queued.set(this.executor.submit(() -> pending.executeAsync().get()));
+                            while (!InteractionQueue.isBusy(instance)) {
+                                Thread.onSpinWait();
+                            }
+                            advance.execute(instance);
+                            instance.interact()
+                                    .incomingStates(States.of(AbstractStatefulTest.TestState.INTERMEDIARY_STATE))
+                                    .outgoingStates(States.of(AbstractStatefulTest.TestState.END_STATE))
+                                    .optimisticInteraction((other, state) -> AbstractStatefulTest.TestState.END_STATE)
+                                    .execute()
+                                    .unwrap();
+                            return instance.interact()
+                                    .incomingStates(States.of(AbstractStatefulTest.TestState.END_STATE))
+                                    .outgoingStates(States.of(AbstractStatefulTest.TestState.END_STATE))
+                                    .interaction(other -> other)
+                                    .execute()
+                                    .unwrap();
+                        })
+                        .execute());
+
+        // Assert
+        assertThat(result.get(5L, TimeUnit.SECONDS)).isInstanceOf(InteractionResult.Succeeded.class);
+        assertThat(queued.get().get(5L, TimeUnit.SECONDS)).isInstanceOf(InteractionResult.Succeeded.class);
+        assertThat(this.stateful.state()).isEqualTo(AbstractStatefulTest.TestState.END_STATE);
+    }
+
+    @Test
+    void Execute_NestedInQueuedInteractionWithoutLock_RunsDirectly() throws Exception {
+        // Arrange
+        final AbstractStatefulTest.TestStateful stateful = new AbstractStatefulTest.TestStateful();
+
+        // Act
+        final Future<InteractionResult<AbstractStatefulTest.TestState, AbstractStatefulTest.TestStateful>> result =
+                this.executor.submit(() -> stateful.interact()
+                        .outgoingStates(States.of(AbstractStatefulTest.TestState.INTERMEDIARY_STATE))
+                        .interaction(instance -> instance.interact()
+                                .outgoingStates(States.of(AbstractStatefulTest.TestState.INTERMEDIARY_STATE))
+                                .interaction(other -> other.transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE))
+                                .execute()
+                                .unwrap())
+                        .executeAsync()
+                        .get());
+
+        // Assert
+        assertThat(result.get(5L, TimeUnit.SECONDS)).isInstanceOf(InteractionResult.Succeeded.class);
+        assertThat(stateful.state()).isEqualTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+    }
+
+    @Test
+    void Execute_NestedInAsyncInteractionContinuation_RunsDirectly() throws Exception {
+        // Arrange
+        final AbstractStatefulTest.TestStateful stateful = new AbstractStatefulTest.TestStateful();
+
+        // Act
+        final Future<InteractionResult<AbstractStatefulTest.TestState, AbstractStatefulTest.TestStateful>> result =
+                this.executor.submit(() -> stateful.interact()
+                        .outgoingStates(States.of(AbstractStatefulTest.TestState.INTERMEDIARY_STATE))
+                        .asyncInteraction(instance -> CompletableFuture.completedFuture(instance)
+                                .thenApply(other -> other.interact()
+                                        .outgoingStates(States.of(AbstractStatefulTest.TestState.INTERMEDIARY_STATE))
+                                        .interaction(nested -> nested.transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE))
+                                        .execute()
+                                        .unwrap()))
+                        .execute());
+
+        // Assert
+        assertThat(result.get(5L, TimeUnit.SECONDS)).isInstanceOf(InteractionResult.Succeeded.class);
+        assertThat(stateful.state()).isEqualTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+    }
+}
@@ -0,0 +1,261 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class EnumStatesTest {
+
+    @Test
+    void OfEnum_HappyFlow_ReturnsBitmask() {
+        // Act
+        final States<TestState> states = States.ofEnum(TestState.INITIAL_STATE, TestState.END_STATE);
+
+        // Assert
+        assertThat(states).isInstanceOf(RegularEnumStates.class);
+        assertThat(states.contains(TestState.INITIAL_STATE)).isTrue();
+        assertThat(states.contains(TestState.INTERMEDIARY_STATE)).isFalse();
+        assertThat(states.contains(TestState.END_STATE)).isTrue();
+    }
+
+    @Test
+    void WithState_NewState_ReturnsNewInstance() {
+        // Arrange
+        final States<TestState> states = States.ofEnum(TestState.INITIAL_STATE);
+
+        // Act
+        final States<TestState> result = states.withState(TestState.END_STATE);
+
+        // Assert
+        assertThat(result).isEqualTo(States.ofEnum(TestState.INITIAL_STATE, TestState.END_STATE));
+        assertThat(states.contains(TestState.END_STATE)).isFalse();
+    }
+
+    @Test
+    void WithState_ContainedState_ReturnsSameInstance() {
+        // Arrange
+        final States<TestState> states = States.ofEnum(TestState.INITIAL_STATE);
+
+        // Act
+        final States<TestState> result = states.withState(TestState.INITIAL_STATE);
+
+        // Assert
+        assertThat(result).isSameInstanceAs(states);
+    }
+
+    @Test
+    void States_HappyFlow_ReturnsInOrdinalOrder() {
+        // Arrange
+        final States<TestState> states = States.ofEnum(TestState.END_STATE, TestState.INITIAL_STATE);
+
+        // Act & Assert
+        assertThat(states.states().toList()).containsExactly(TestState.INITIAL_STATE, TestState.END_STATE).inOrder();
+        assertThat(states.toString()).isEqualTo("(INITIAL_STATE, END_STATE)");
+    }
+
+    @Test
+    void OfEnum_MoreThan64Constants_ReturnsJumboBitmask() {
+        // Act
+        final States<LargeState> states = States.ofEnum(LargeState.S0, LargeState.S64)
+                .withState(LargeState.S69);
+
+        // Assert
+        assertThat(states).isInstanceOf(JumboEnumStates.class);
+        assertThat(states.contains(LargeState.S0)).isTrue();
+        assertThat(states.contains(LargeState.S1)).isFalse();
+        assertThat(states.contains(LargeState.S64)).isTrue();
+        assertThat(states.contains(LargeState.S69)).isTrue();
+        assertThat(states.states().toList()).containsExactly(LargeState.S0, LargeState.S64, LargeState.S69).inOrder();
+    }
+
+    @Test
+    void Union_EnumStates_CombinesMasks() {
+        // Arrange
+        final States<TestState> first = States.ofEnum(TestState.INITIAL_STATE);
+        final States<TestState> second = States.lazy(() -> States.ofEnum(TestState.END_STATE));
+
+        // Act
+        final States<TestState> result = first.union(second);
+
+        // Assert
+        assertThat(result).isEqualTo(States.ofEnum(TestState.INITIAL_STATE, TestState.END_STATE));
+        assertThat(result.size()).isEqualTo(2);
+    }
+
+    @Test
+    void Intersect_DisjointEnumStates_ReturnsEmpty() {
+        // Arrange
+        final States<TestState> first = States.ofEnum(TestState.INITIAL_STATE, TestState.INTERMEDIARY_STATE);
+        final States<TestState> second = States.ofEnum(TestState.END_STATE);
+
+        // Act
+        final States<TestState> result = first.intersect(second);
+
+        // Assert
+        assertThat(result).isSameInstanceAs(States.of());
+    }
+
+    @Test
+    void Difference_EnumStates_RemovesStates() {
+        // Arrange
+        final States<TestState> first = States.ofEnum(TestState.INITIAL_STATE, TestState.INTERMEDIARY_STATE);
+        final States<TestState> second = States.ofEnum(TestState.INTERMEDIARY_STATE, TestState.END_STATE);
+
+        // Act
+        final States<TestState> result = first.difference(second);
+
+        // Assert
+        assertThat(result).isEqualTo(States.ofEnum(TestState.INITIAL_STATE));
+    }
+
+    @Test
+    void ContainsAll_EnumStates_ComparesMasks() {
+        // Arrange
+        final States<TestState> states = States.ofEnum(TestState.INITIAL_STATE, TestState.END_STATE);
+
+        // Act & Assert
+        assertThat(states.containsAll(States.ofEnum(TestState.END_STATE))).isTrue();
+        assertThat(states.containsAll(States.ofEnum(TestState.INTERMEDIARY_STATE, TestState.END_STATE))).isFalse();
+        assertThat(states.containsAll(States.of())).isTrue();
+    }
+
+    @Test
+    void SetOperations_JumboEnumStates_UseAllWords() {
+        // Arrange
+        final States<LargeState> first = States.ofEnum(LargeState.S0, LargeState.S65);
+        final States<LargeState> second = States.ofEnum(LargeState.S1, LargeState.S65);
+
+        // Act & Assert
+        assertThat(first.union(second)).isEqualTo(States.ofEnum(LargeState.S0, LargeState.S1, LargeState.S65));
+        assertThat(first.intersect(second)).isEqualTo(States.ofEnum(LargeState.S65));
+        assertThat(first.difference(second)).isEqualTo(States.ofEnum(LargeState.S0));
+        assertThat(first.union(second).containsAll(first)).isTrue();
+        assertThat(first.toArray(LargeState[]::new)).asList().containsExactly(LargeState.S0, LargeState.S65).inOrder();
+    }
+
+    @Test
+    void Of_MixedEnumTypes_KeepsEveryState() {
+        // Act
+        final States<SharedState> states = States.of(FirstState.X, SecondState.Q);
+
+        // Assert
+        assertThat(states instanceof EnumStates).isFalse();
+        assertThat(states.size()).isEqualTo(2);
+        assertThat(states.contains(FirstState.X)).isTrue();
+        assertThat(states.contains(FirstState.Y)).isFalse();
+        assertThat(states.contains(SecondState.Q)).isTrue();
+        assertThat(states.contains(SecondState.P)).isFalse();
+    }
+
+    @Test
+    void Of_EnumAndRecordState_KeepsEveryState() {
+        // Arrange
+        final RecordState recordState = new RecordState("record");
+
+        // Act
+        final States<SharedState> states = States.of(FirstState.X, recordState);
+
+        // Assert
+        assertThat(states.size()).isEqualTo(2);
+        assertThat(states.contains(FirstState.X)).isTrue();
+        assertThat(states.contains(recordState)).isTrue();
+    }
+
+    @Test
+    void Contains_ForeignState_ReturnsFalse() {
+        // Arrange
+        final States<SharedState> states = States.of(FirstState.X);
+
+        // Act & Assert
+        assertThat(states).isInstanceOf(RegularEnumStates.class);
+        assertThat(states.contains(SecondState.P)).isFalse();
+        assertThat(states.contains(new RecordState("record"))).isFalse();
+    }
+
+    @Test
+    void Equals_DifferentUniverses_ReturnsFalse() {
+        // Arrange
+        final States<SharedState> first = States.of(FirstState.X);
+        final States<SharedState> second = States.of(SecondState.P);
+        final States<SharedState> records = States.of(new RecordState("record"));
+
+        // Act & Assert
+        assertThat(first).isNotEqualTo(second);
+        assertThat(second).isNotEqualTo(first);
+        assertThat(first).isNotEqualTo(records);
+        assertThat(records).isNotEqualTo(first);
+        assertThat(first.hashCode()).isEqualTo(FirstState.X.hashCode());
+    }
+
+    @Test
+    void WithState_ForeignState_FallsBackToGenericStates() {
+        // Arrange
+        final States<SharedState> states = States.of(FirstState.X);
+
+        // Act
+        final States<SharedState> result = states.withState(SecondState.P);
+
+        // Assert
+        assertThat(result.contains(FirstState.X)).isTrue();
+        assertThat(result.contains(SecondState.P)).isTrue();
+        assertThat(result.contains(FirstState.Y)).isFalse();
+        assertThat(result.withoutState(SecondState.Q)).isSameInstanceAs(result);
+        assertThat(states.withoutState(SecondState.P)).isSameInstanceAs(states);
+    }
+
+
+    enum TestState implements State<TestState> {
+        INITIAL_STATE,
+        INTERMEDIARY_STATE,
+        END_STATE
+    }
+
+    interface SharedState extends State<SharedState> {
+    }
+
+    enum FirstState implements SharedState {
+        X,
+        Y
+    }
+
+    enum SecondState implements SharedState {
+        P,
+        Q
+    }
+
+    record RecordState(String name) implements SharedState {
+    }
+
+    enum LargeState implements State<LargeState> {
+        S0, S1, S2, S3, S4, S5, S6, S7, S8, S9,
+        S10, S11, S12, S13, S14, S15, S16, S17, S18, S19,
+        S20, S21, S22, S23, S24, S25, S26, S27, S28, S29,
+        S30, S31, S32, S33, S34, S35, S36, S37, S38, S39,
+        S40, S41, S42, S43, S44, S45, S46, S47, S48, S49,
+        S50, S51, S52, S53, S54, S55, S56, S57, S58, S59,
+        S60, S61, S62, S63, S64, S65, S66, S67, S68, S69
+    }
+}
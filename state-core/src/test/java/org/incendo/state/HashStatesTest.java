@@ -0,0 +1,103 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class HashStatesTest {
+
+    @Test
+    void Of_ManyStates_ReturnsHashStates() {
+        // Act
+        final States<TestState> states = States.of(TestState.range(0, 32).toArray(new TestState[0]));
+
+        // Assert
+        assertThat(states).isInstanceOf(HashStates.class);
+    }
+
+    @Test
+    void Of_FewStates_ReturnsArrayStates() {
+        // Act
+        final States<TestState> states = States.of(TestState.range(0, StatesImpl.MAX_SIZE));
+
+        // Assert
+        assertThat(states).isInstanceOf(StatesImpl.class);
+    }
+
+    @Test
+    void Of_VarargsAndCollection_AreEqual() {
+        // Arrange
+        final List<TestState> values = TestState.range(0, 32);
+
+        // Act
+        final States<TestState> fromVarargs = States.of(values.toArray(new TestState[0]));
+        final States<TestState> fromCollection = States.of(values);
+
+        // Assert
+        assertThat(fromVarargs).isEqualTo(fromCollection);
+        assertThat(fromVarargs.hashCode()).isEqualTo(fromCollection.hashCode());
+    }
+
+    @Test
+    void Contains_EqualButNotIdenticalState_ReturnsTrue() {
+        // Arrange
+        final States<TestState> states = States.of(TestState.range(0, 32));
+
+        // Act & Assert
+        for (int index = 0; index < 32; index++) {
+            assertThat(states.contains(new TestState(index))).isTrue();
+        }
+        assertThat(states.contains(new TestState(32))).isFalse();
+    }
+
+    @Test
+    void Of_DuplicateStates_AreRemoved() {
+        // Arrange
+        final List<TestState> values = new ArrayList<>(TestState.range(0, 16));
+        values.addAll(TestState.range(0, 16));
+
+        // Act
+        final States<TestState> states = States.of(values.toArray(new TestState[0]));
+
+        // Assert
+        assertThat(states.states().toList()).containsExactlyElementsIn(TestState.range(0, 16));
+    }
+
+
+    record TestState(int id) implements State<TestState> {
+
+        static @NonNull List<TestState> range(final int from, final int to) {
+            final List<TestState> states = new ArrayList<>();
+            for (int id = from; id < to; id++) {
+                states.add(new TestState(id));
+            }
+            return states;
+        }
+    }
+}
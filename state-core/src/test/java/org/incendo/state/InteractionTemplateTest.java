@@ -0,0 +1,133 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import org.incendo.state.StateInteraction.InteractionResult;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InteractionTemplateTest {
+
+    private static final InteractionTemplate<AbstractStatefulTest.TestState, AbstractLockableStatefulTest.TestStateful> ADVANCE =
+            InteractionTemplate.<AbstractStatefulTest.TestState, AbstractLockableStatefulTest.TestStateful>builder()
+                    .incomingStates(States.of(AbstractStatefulTest.TestState.INITIAL_STATE))
+                    .outgoingStates(States.of(AbstractStatefulTest.TestState.INTERMEDIARY_STATE))
+                    .shortCircuitStates(States.of(AbstractStatefulTest.TestState.END_STATE))
+                    .interaction(instance -> instance.transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE))
+                    .build();
+
+    @Test
+    void Execute_ManyInstances_EachSucceeds() {
+        for (int index = 0; index < 10; index++) {
+            // Arrange
+            final AbstractLockableStatefulTest.TestStateful stateful = new AbstractLockableStatefulTest.TestStateful();
+
+            // Act
+            final InteractionTemplate.Status status = ADVANCE.execute(stateful);
+
+            // Assert
+            assertThat(status).isEqualTo(InteractionTemplate.Status.SUCCEEDED);
+            assertThat(stateful.state()).isEqualTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+        }
+    }
+
+    @Test
+    void Execute_IllegalIncomingState_OutcomeDescribesFailure() {
+        // Arrange
+        final AbstractLockableStatefulTest.TestStateful stateful = new AbstractLockableStatefulTest.TestStateful()
+                .transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+        final InteractionTemplate.Outcome<AbstractStatefulTest.TestState, AbstractLockableStatefulTest.TestStateful> outcome =
+                new InteractionTemplate.Outcome<>();
+
+        // Act
+        final InteractionTemplate.Status status = ADVANCE.execute(stateful, outcome);
+
+        // Assert
+        assertThat(status).isEqualTo(InteractionTemplate.Status.ILLEGAL_INCOMING_STATE);
+        assertThat(status.failed()).isTrue();
+        assertThat(outcome.status()).isEqualTo(status);
+        assertThat(outcome.instance()).isSameInstanceAs(stateful);
+        assertThat(outcome.state()).isEqualTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+        assertThat(outcome.toResult()).isInstanceOf(InteractionResult.Failed.IllegalIncomingState.class);
+    }
+
+    @Test
+    void Execute_ShortCircuitState_ShortCircuits() {
+        // Arrange
+        final AbstractLockableStatefulTest.TestStateful stateful = new AbstractLockableStatefulTest.TestStateful()
+                .transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE)
+                .transitionTo(AbstractStatefulTest.TestState.END_STATE);
+
+        // Act
+        final InteractionTemplate.Status status = ADVANCE.execute(stateful);
+
+        // Assert
+        assertThat(status).isEqualTo(InteractionTemplate.Status.SHORT_CIRCUITED);
+    }
+
+    @Test
+    void Execute_IllegalOutgoingState_ReportsFailure() {
+        // Arrange
+        final InteractionTemplate<AbstractStatefulTest.TestState, AbstractLockableStatefulTest.TestStateful> template =
+                InteractionTemplate.<AbstractStatefulTest.TestState, AbstractLockableStatefulTest.TestStateful>builder()
+                        .incomingStates(States.of(AbstractStatefulTest.TestState.INITIAL_STATE))
+                        .outgoingStates(States.of(AbstractStatefulTest.TestState.END_STATE))
+                        .build();
+        final InteractionTemplate.Outcome<AbstractStatefulTest.TestState, AbstractLockableStatefulTest.TestStateful> outcome =
+                new InteractionTemplate.Outcome<>();
+
+        // Act
+        final InteractionTemplate.Status status = template.execute(new AbstractLockableStatefulTest.TestStateful(), outcome);
+
+        // Assert
+        assertThat(status).isEqualTo(InteractionTemplate.Status.ILLEGAL_OUTGOING_STATE);
+        assertThat(outcome.toResult()).isInstanceOf(InteractionResult.Failed.IllegalOutgoingState.class);
+    }
+
+    @Test
+    void On_Instance_ReturnsFullResult() {
+        // Arrange
+        final AbstractLockableStatefulTest.TestStateful stateful = new AbstractLockableStatefulTest.TestStateful();
+
+        // Act
+        final InteractionResult<AbstractStatefulTest.TestState, AbstractLockableStatefulTest.TestStateful> result =
+                ADVANCE.on(stateful).execute();
+
+        // Assert
+        assertThat(result).isInstanceOf(InteractionResult.Succeeded.class);
+    }
+
+    @Test
+    void Build_MissingStates_ThrowsException() {
+        // Arrange
+        final InteractionTemplate.Builder<AbstractStatefulTest.TestState, AbstractLockableStatefulTest.TestStateful> builder =
+                InteractionTemplate.<AbstractStatefulTest.TestState, AbstractLockableStatefulTest.TestStateful>builder()
+                        .incomingStates(States.of(AbstractStatefulTest.TestState.INITIAL_STATE));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+}
@@ -0,0 +1,141 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+/**
+ * Stress tests for the publish-once initialization of {@link LazyStates} and {@link AbstractState}.
+ */
+class LazyStatesTest {
+
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 500;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() {
+        this.executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void teardown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    void BackingStates_ConcurrentFirstAccess_AllThreadsObserveSameInstance() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            // Arrange
+            final AtomicInteger evaluations = new AtomicInteger();
+            final States<TestState> states = States.lazy(() -> {
+                evaluations.incrementAndGet();
+                // A fresh instance every time, so that a torn publication would be observable.
+                return States.of(TestState.END_STATE);
+            });
+
+            // Act
+            final List<States<TestState>> observed = this.race(() -> {
+                assertThat(states.contains(TestState.END_STATE)).isTrue();
+                return LazyStates.resolve(states);
+            });
+
+            // Assert
+            assertThat(evaluations.get()).isAtLeast(1);
+            for (final States<TestState> result : observed) {
+                assertThat(result).isSameInstanceAs(LazyStates.resolve(states));
+            }
+        }
+    }
+
+    @Test
+    void AllowedTransitions_ConcurrentFirstAccess_AllThreadsObserveSameInstance() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            // Arrange
+            final TestState state = new TestState();
+
+            // Act
+            final List<States<TestState>> observed = this.race(state::allowedTransitions);
+
+            // Assert
+            for (final States<TestState> result : observed) {
+                assertThat(result).isSameInstanceAs(state.allowedTransitions());
+            }
+        }
+    }
+
+    /**
+     * Runs the given {@code task} on all threads at once and returns the results.
+     *
+     * @param task task to run
+     * @return the result of each thread
+     */
+    private @NonNull List<States<TestState>> race(final @NonNull Supplier<States<TestState>> task) throws Exception {
+        final CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        final List<Future<States<TestState>>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            futures.add(this.executor.submit(() -> {
+                barrier.await();
+                return task.get();
+            }));
+        }
+        final List<States<TestState>> results = new ArrayList<>();
+        for (final Future<States<TestState>> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+
+    static final class TestState extends AbstractState<TestState> {
+
+        static final TestState END_STATE = new TestState(States.of());
+
+        TestState() {
+        }
+
+        private TestState(final @NonNull States<TestState> allowedTransitions) {
+            super(allowedTransitions);
+        }
+
+        @Override
+        protected @NonNull States<TestState> configureAllowedTransitions() {
+            return States.of(END_STATE);
+        }
+    }
+}
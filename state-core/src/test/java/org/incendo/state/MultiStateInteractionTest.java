@@ -0,0 +1,260 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.incendo.state.StateMachineTest.Phase;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MultiStateInteractionTest {
+
+    private static final int ITERATIONS = 10_000;
+
+    @Test
+    void Execute_HappyFlow_AppliesAllTransitions() {
+        // Arrange
+        final TransitionListenersTest.MachineStateful match = new TransitionListenersTest.MachineStateful(StateMachine.ofEnum(Phase.class));
+        final AbstractLockableStatefulTest.TestStateful player = new AbstractLockableStatefulTest.TestStateful();
+
+        // Act
+        final MultiStateInteraction.Result result = MultiStateInteraction.builder()
+                .participant(match, States.of(Phase.CREATED), States.of(Phase.PAUSED))
+                .participant(player, States.of(AbstractStatefulTest.TestState.INITIAL_STATE))
+                .interaction(transitions -> {
+                    transitions.transitionTo(match, Phase.RUNNING);
+                    transitions.transitionTo(match, Phase.PAUSED);
+                    transitions.transitionTo(player, AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+                })
+                .execute();
+
+        // Assert
+        assertThat(result).isEqualTo(MultiStateInteraction.Result.Succeeded.INSTANCE);
+        assertThat(match.state()).isEqualTo(Phase.PAUSED);
+        assertThat(player.state()).isEqualTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+    }
+
+    @Test
+    void Execute_IllegalIncomingState_InteractionNotInvoked() {
+        // Arrange
+        final AbstractLockableStatefulTest.TestStateful first = new AbstractLockableStatefulTest.TestStateful();
+        final AbstractLockableStatefulTest.TestStateful second = new AbstractLockableStatefulTest.TestStateful();
+        final List<String> invocations = new ArrayList<>();
+
+        // Act
+        final MultiStateInteraction.Result result = MultiStateInteraction.builder()
+                .participant(first, States.of(AbstractStatefulTest.TestState.INITIAL_STATE))
+                .participant(second, States.of(AbstractStatefulTest.TestState.END_STATE))
+                .interaction(transitions -> invocations.add("interaction"))
+                .execute();
+
+        // Assert
+        assertThat(result).isInstanceOf(MultiStateInteraction.Result.IllegalIncomingState.class);
+        assertThat(((MultiStateInteraction.Result.IllegalIncomingState) result).instance()).isSameInstanceAs(second);
+        assertThat(invocations).isEmpty();
+    }
+
+    @Test
+    void Execute_IllegalOutgoingState_NoStateChanged() {
+        // Arrange
+        final AbstractLockableStatefulTest.TestStateful first = new AbstractLockableStatefulTest.TestStateful();
+        final AbstractLockableStatefulTest.TestStateful second = new AbstractLockableStatefulTest.TestStateful();
+
+        // Act
+        final MultiStateInteraction.Result result = MultiStateInteraction.builder()
+                .participant(first, States.of(AbstractStatefulTest.TestState.INITIAL_STATE))
+                .participant(
+                        second,
+                        States.of(AbstractStatefulTest.TestState.INITIAL_STATE),
+                        States.of(AbstractStatefulTest.TestState.END_STATE)
+                )
+                .interaction(transitions -> {
+                    transitions.transitionTo(first, AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+                    transitions.transitionTo(second, AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+                })
+                .execute();
+
+        // Assert
+        assertThat(result).isInstanceOf(MultiStateInteraction.Result.IllegalOutgoingState.class);
+        assertThat(first.state()).isEqualTo(AbstractStatefulTest.TestState.INITIAL_STATE);
+        assertThat(second.state()).isEqualTo(AbstractStatefulTest.TestState.INITIAL_STATE);
+    }
+
+    @Test
+    void Execute_IllegalStagedTransition_ThrowsAndNoStateChanged() {
+        // Arrange
+        final AbstractLockableStatefulTest.TestStateful first = new AbstractLockableStatefulTest.TestStateful();
+        final AbstractLockableStatefulTest.TestStateful second = new AbstractLockableStatefulTest.TestStateful();
+        final MultiStateInteraction interaction = MultiStateInteraction.builder()
+                .participant(first, States.of(AbstractStatefulTest.TestState.INITIAL_STATE))
+                .participant(second, States.of(AbstractStatefulTest.TestState.INITIAL_STATE))
+                .interaction(transitions -> {
+                    transitions.transitionTo(first, AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+                    transitions.transitionTo(second, AbstractStatefulTest.TestState.END_STATE);
+                })
+                .build();
+
+        // Act & Assert
+        assertThrows(IllegalStateTransitionException.class, interaction::execute);
+        assertThat(first.state()).isEqualTo(AbstractStatefulTest.TestState.INITIAL_STATE);
+        assertThat(first.lock().isHeldByCurrentThread()).isFalse();
+    }
+
+    @Test
+    void Participant_Duplicate_ThrowsException() {
+        // Arrange
+        final AbstractLockableStatefulTest.TestStateful stateful = new AbstractLockableStatefulTest.TestStateful();
+        final MultiStateInteraction.Builder builder = MultiStateInteraction.builder()
+                .participant(stateful, States.of(AbstractStatefulTest.TestState.INITIAL_STATE));
+
+        // Act & Assert
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> builder.participant(stateful, States.of(AbstractStatefulTest.TestState.INITIAL_STATE))
+        );
+    }
+
+    @Test
+    void Execute_OppositeParticipantOrder_DoesNotDeadlock() throws Exception {
+        // Arrange
+        final TransitionListenersTest.LockableMachineStateful first = new TransitionListenersTest.LockableMachineStateful();
+        final TransitionListenersTest.LockableMachineStateful second = new TransitionListenersTest.LockableMachineStateful();
+        first.transitionTo(Phase.RUNNING);
+        second.transitionTo(Phase.RUNNING);
+        final MultiStateInteraction forward = toggle(first, second);
+        final MultiStateInteraction backward = toggle(second, first);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // Act
+            final Future<?> forwardTask = executor.submit(() -> {
+                for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+                    forward.execute();
+                }
+            });
+            final Future<?> backwardTask = executor.submit(() -> {
+                for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+                    backward.execute();
+                }
+            });
+            forwardTask.get();
+            backwardTask.get();
+
+            // Assert
+            assertThat(first.state()).isEqualTo(second.state());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void Execute_PendingAsyncInteraction_WaitsForCompletion() throws Exception {
+        // Arrange
+        final AbstractLockableStatefulTest.TestStateful first = new AbstractLockableStatefulTest.TestStateful();
+        final AbstractLockableStatefulTest.TestStateful second = new AbstractLockableStatefulTest.TestStateful();
+        final CompletableFuture<AbstractLockableStatefulTest.TestStateful> pending = new CompletableFuture<>();
+        first.interact()
+                .outgoingStates(States.of(AbstractStatefulTest.TestState.INTERMEDIARY_STATE))
+                .asyncInteraction(instance -> pending)
+                .executeAsync();
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            // Act
+            final Future<MultiStateInteraction.Result> result = executor.submit(() -> MultiStateInteraction.builder()
+                    .participant(first, States.of(AbstractStatefulTest.TestState.INTERMEDIARY_STATE))
+                    .participant(second, States.of(AbstractStatefulTest.TestState.INITIAL_STATE))
+                    .interaction(transitions -> {
+                        transitions.transitionTo(first, AbstractStatefulTest.TestState.END_STATE);
+                        transitions.transitionTo(second, AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+                    })
+                    .execute());
+
+            // Assert
+            assertThrows(TimeoutException.class, () -> result.get(50L, TimeUnit.MILLISECONDS));
+            assertThat(second.state()).isEqualTo(AbstractStatefulTest.TestState.INITIAL_STATE);
+            pending.complete(first.transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE));
+            assertThat(result.get(30L, TimeUnit.SECONDS)).isEqualTo(MultiStateInteraction.Result.Succeeded.INSTANCE);
+            assertThat(first.state()).isEqualTo(AbstractStatefulTest.TestState.END_STATE);
+            assertThat(second.state()).isEqualTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void Execute_NestedInInteractionWithParticipant_RunsDirectly() {
+        // Arrange
+        final AbstractLockableStatefulTest.TestStateful first = new AbstractLockableStatefulTest.TestStateful();
+        final AbstractLockableStatefulTest.TestStateful second = new AbstractLockableStatefulTest.TestStateful();
+
+        // Act
+        first.interact()
+                .incomingStates(States.of(AbstractStatefulTest.TestState.INITIAL_STATE))
+                .outgoingStates(States.of(AbstractStatefulTest.TestState.INTERMEDIARY_STATE))
+                .asyncInteraction(instance -> CompletableFuture.completedFuture(instance)
+                        .thenApply(other -> {
+                            MultiStateInteraction.builder()
+                                    .participant(other, States.of(AbstractStatefulTest.TestState.INITIAL_STATE))
+                                    .participant(second, States.of(AbstractStatefulTest.TestState.INITIAL_STATE))
+                                    .interaction(transitions -> {
+                                        transitions.transitionTo(other, AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+                                        transitions.transitionTo(second, AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+                                    })
+                                    .execute();
+                            return other;
+                        }))
+                .executeAsync()
+                .join();
+
+        // Assert
+        assertThat(first.state()).isEqualTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+        assertThat(second.state()).isEqualTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+    }
+
+    private static MultiStateInteraction toggle(
+            final TransitionListenersTest.LockableMachineStateful first,
+            final TransitionListenersTest.LockableMachineStateful second
+    ) {
+        final States<Phase> states = States.of(Phase.RUNNING, Phase.PAUSED);
+        return MultiStateInteraction.builder()
+                .participant(first, states, states)
+                .participant(second, states, states)
+                .interaction(transitions -> {
+                    final Phase next = transitions.state(first) == Phase.RUNNING ? Phase.PAUSED : Phase.RUNNING;
+                    transitions.transitionTo(first, next);
+                    transitions.transitionTo(second, next);
+                })
+                .build();
+    }
+}
@@ -0,0 +1,238 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.incendo.state.StateInteraction.InteractionResult;
+import org.incendo.state.StateInteraction.RetryPolicy;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OptimisticStateInteractionTest {
+
+    @Test
+    void Execute_HappyFlow_CommitsWithoutHoldingLock() {
+        // Arrange
+        final AbstractLockableStatefulTest.TestStateful stateful = new AbstractLockableStatefulTest.TestStateful();
+        final AtomicInteger lockedInvocations = new AtomicInteger();
+
+        // Act
+        final InteractionResult<AbstractStatefulTest.TestState, AbstractLockableStatefulTest.TestStateful> result = stateful.interact()
+                .optimisticInteraction((instance, state) -> {
+                    if (instance.lock().isHeldByCurrentThread()) {
+                        lockedInvocations.incrementAndGet();
+                    }
+                    return AbstractStatefulTest.TestState.INTERMEDIARY_STATE;
+                })
+                .execute();
+
+        // Assert
+        assertThat(result).isInstanceOf(InteractionResult.Succeeded.class);
+        assertThat(stateful.state()).isEqualTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+        assertThat(lockedInvocations.get()).isEqualTo(0);
+    }
+
+    @Test
+    void Execute_ConcurrentTransition_Retries() {
+        // Arrange
+        final AbstractLockableStatefulTest.TestStateful stateful = new AbstractLockableStatefulTest.TestStateful();
+        final AtomicInteger invocations = new AtomicInteger();
+
+        // Act
+        final InteractionResult<AbstractStatefulTest.TestState, AbstractLockableStatefulTest.TestStateful> result = stateful.interact()
+                .incomingStates(States.of(AbstractStatefulTest.TestState.INITIAL_STATE, AbstractStatefulTest.TestState.INTERMEDIARY_STATE))
+                .outgoingStates(States.of(AbstractStatefulTest.TestState.END_STATE))
+                .optimisticInteraction((instance, state) -> {
+                    if (invocations.incrementAndGet() == 1) {
+                        instance.transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+                    }
+                    return AbstractStatefulTest.TestState.END_STATE;
+                })
+                .execute();
+
+        // Assert
+        assertThat(result).isInstanceOf(InteractionResult.Succeeded.class);
+        assertThat(stateful.state()).isEqualTo(AbstractStatefulTest.TestState.END_STATE);
+        assertThat(invocations.get()).isEqualTo(2);
+    }
+
+    @Test
+    void Execute_AttemptsExhausted_FallsBackToLock() {
+        // Arrange
+        final AbstractLockableStatefulTest.TestStateful stateful = new AbstractLockableStatefulTest.TestStateful();
+        final AtomicInteger lockedInvocations = new AtomicInteger();
+
+        // Act
+        final InteractionResult<AbstractStatefulTest.TestState, AbstractLockableStatefulTest.TestStateful> result = stateful.interact()
+                .incomingStates(States.of(AbstractStatefulTest.TestState.INITIAL_STATE, AbstractStatefulTest.TestState.INTERMEDIARY_STATE))
+                .outgoingStates(States.of(AbstractStatefulTest.TestState.END_STATE))
+                .retryPolicy(new RetryPolicy(1))
+                .optimisticInteraction((instance, state) -> {
+                    if (instance.lock().isHeldByCurrentThread()) {
+                        lockedInvocations.incrementAndGet();
+                    } else {
+                        instance.transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+                    }
+                    return AbstractStatefulTest.TestState.END_STATE;
+                })
+                .execute();
+
+        // Assert
+        assertThat(result).isInstanceOf(InteractionResult.Succeeded.class);
+        assertThat(stateful.state()).isEqualTo(AbstractStatefulTest.TestState.END_STATE);
+        assertThat(lockedInvocations.get()).isEqualTo(1);
+    }
+
+    @Test
+    void Execute_IllegalOutgoingState_StateUnchanged() {
+        // Arrange
+        final AbstractLockableStatefulTest.TestStateful stateful = new AbstractLockableStatefulTest.TestStateful();
+
+        // Act
+        final InteractionResult<AbstractStatefulTest.TestState, AbstractLockableStatefulTest.TestStateful> result = stateful.interact()
+                .outgoingStates(States.of(AbstractStatefulTest.TestState.END_STATE))
+                .optimisticInteraction((instance, state) -> AbstractStatefulTest.TestState.INTERMEDIARY_STATE)
+                .execute();
+
+        // Assert
+        assertThat(result).isInstanceOf(InteractionResult.Failed.IllegalOutgoingState.class);
+        assertThat(stateful.state()).isEqualTo(AbstractStatefulTest.TestState.INITIAL_STATE);
+    }
+
+    @Test
+    void Execute_IllegalIncomingState_InteractionNotInvoked() {
+        // Arrange
+        final AbstractLockableStatefulTest.TestStateful stateful = new AbstractLockableStatefulTest.TestStateful();
+        final AtomicInteger invocations = new AtomicInteger();
+
+        // Act
+        final InteractionResult<AbstractStatefulTest.TestState, AbstractLockableStatefulTest.TestStateful> result = stateful.interact()
+                .incomingStates(States.of(AbstractStatefulTest.TestState.END_STATE))
+                .optimisticInteraction((instance, state) -> {
+                    invocations.incrementAndGet();
+                    return state;
+                })
+                .execute();
+
+        // Assert
+        assertThat(result).isInstanceOf(InteractionResult.Failed.IllegalIncomingState.class);
+        assertThat(invocations.get()).isEqualTo(0);
+    }
+
+    @Test
+    void Execute_AtomicStateful_CommitsUsingCompareAndSet() {
+        // Arrange
+        final AbstractAtomicStatefulTest.TestStateful stateful = new AbstractAtomicStatefulTest.TestStateful();
+
+        // Act
+        final InteractionResult<AbstractStatefulTest.TestState, AbstractAtomicStatefulTest.TestStateful> result = stateful.interact()
+                .optimisticInteraction((instance, state) -> AbstractStatefulTest.TestState.INTERMEDIARY_STATE)
+                .execute();
+
+        // Assert
+        assertThat(result).isInstanceOf(InteractionResult.Succeeded.class);
+        assertThat(stateful.state()).isEqualTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+    }
+
+    @Test
+    void Execute_SlowInteraction_DoesNotBlockWriters() throws Exception {
+        // Arrange
+        final AbstractLockableStatefulTest.TestStateful stateful = new AbstractLockableStatefulTest.TestStateful();
+        final States<AbstractStatefulTest.TestState> incomingStates = States.of(
+                AbstractStatefulTest.TestState.INITIAL_STATE,
+                AbstractStatefulTest.TestState.INTERMEDIARY_STATE
+        );
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            // Act
+            final InteractionResult<AbstractStatefulTest.TestState, AbstractLockableStatefulTest.TestStateful> result = stateful.interact()
+                    .incomingStates(incomingStates)
+                    .outgoingStates(States.of(AbstractStatefulTest.TestState.END_STATE))
+                    .optimisticInteraction((instance, state) -> {
+                        if (state == AbstractStatefulTest.TestState.INITIAL_STATE) {
+                            final Future<?> writer = executor.submit(
+                                    () -> instance.transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE)
+                            );
+                            writer.get(30L, TimeUnit.SECONDS);
+                        }
+                        return AbstractStatefulTest.TestState.END_STATE;
+                    })
+                    .execute();
+
+            // Assert
+            assertThat(result).isInstanceOf(InteractionResult.Succeeded.class);
+            assertThat(stateful.state()).isEqualTo(AbstractStatefulTest.TestState.END_STATE);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void Execute_InteractionQueuedBeforeCommit_WaitsForQueue() throws Exception {
+        // Arrange
+        final AbstractLockableStatefulTest.TestStateful stateful = new AbstractLockableStatefulTest.TestStateful();
+        final CompletableFuture<Void> pending = new CompletableFuture<>();
+        final AtomicInteger invocations = new AtomicInteger();
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            // Act
+            final Future<InteractionResult<AbstractStatefulTest.TestState, AbstractLockableStatefulTest.TestStateful>> result =
+                    executor.submit(() -> stateful.interact()
+                            .outgoingStates(States.of(AbstractStatefulTest.TestState.INTERMEDIARY_STATE))
+                            .optimisticInteraction((instance, state) -> {
+                                if (invocations.getAndIncrement() == 0) {
+                                    InteractionQueue.enqueue(instance, () -> pending);
+                                }
+                                return AbstractStatefulTest.TestState.INTERMEDIARY_STATE;
+                            })
+                            .execute());
+
+            // Assert
+            assertThrows(TimeoutException.class, () -> result.get(50L, TimeUnit.MILLISECONDS));
+            assertThat(stateful.state()).isEqualTo(AbstractStatefulTest.TestState.INITIAL_STATE);
+            pending.complete(null);
+            assertThat(result.get(30L, TimeUnit.SECONDS)).isInstanceOf(InteractionResult.Succeeded.class);
+            assertThat(stateful.state()).isEqualTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+            assertThat(invocations.get()).isEqualTo(2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void RetryPolicy_NegativeAttempts_ThrowsException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new RetryPolicy(-1));
+    }
+}
@@ -0,0 +1,118 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class StateExceptionsTest {
+
+    @AfterEach
+    void teardown() {
+        StateExceptions.stackless(false);
+    }
+
+    @Test
+    void UnexpectedStateException_Constructed_MessageFormattedLazily() {
+        // Arrange
+        final CountingState state = new CountingState();
+        final AbstractStatefulTest.TestStateful stateful = new AbstractStatefulTest.TestStateful();
+
+        // Act
+        final UnexpectedStateException exception = new UnexpectedStateException(States.of(state), state, stateful);
+
+        // Assert
+        assertThat(state.formatted.get()).isEqualTo(0);
+        assertThat(exception.getMessage()).isEqualTo("Expected states '(state)' but was 'state'");
+        assertThat(exception.getMessage()).isSameInstanceAs(exception.getMessage());
+        assertThat(state.formatted.get()).isEqualTo(2);
+    }
+
+    @Test
+    void IllegalStateTransitionException_Constructed_MessageFormattedLazily() {
+        // Arrange
+        final CountingState state = new CountingState();
+        final AbstractStatefulTest.TestStateful stateful = new AbstractStatefulTest.TestStateful();
+
+        // Act
+        final IllegalStateTransitionException exception = new IllegalStateTransitionException(state, state, stateful);
+
+        // Assert
+        assertThat(state.formatted.get()).isEqualTo(0);
+        assertThat(exception.getMessage()).isEqualTo("Cannot transition from state 'state' to state 'state'");
+    }
+
+    @Test
+    void Constructor_StacklessEnabled_NoStackTrace() {
+        // Arrange
+        StateExceptions.stackless(true);
+        final AbstractStatefulTest.TestStateful stateful = new AbstractStatefulTest.TestStateful();
+
+        // Act
+        final IllegalStateTransitionException exception = new IllegalStateTransitionException(
+                AbstractStatefulTest.TestState.INITIAL_STATE,
+                AbstractStatefulTest.TestState.END_STATE,
+                stateful
+        );
+
+        // Assert
+        assertThat(exception.getStackTrace().length).isEqualTo(0);
+    }
+
+    @Test
+    void Constructor_StacklessDisabled_CapturesStackTrace() {
+        // Arrange
+        final AbstractStatefulTest.TestStateful stateful = new AbstractStatefulTest.TestStateful();
+
+        // Act
+        final UnexpectedStateException exception = new UnexpectedStateException(
+                States.of(AbstractStatefulTest.TestState.END_STATE),
+                AbstractStatefulTest.TestState.INITIAL_STATE,
+                stateful
+        );
+
+        // Assert
+        assertThat(exception.getStackTrace().length).isGreaterThan(0);
+    }
+
+    static final class CountingState implements State<CountingState> {
+
+        private final AtomicInteger formatted = new AtomicInteger();
+
+        @Override
+        public @NonNull States<CountingState> allowedTransitions() {
+            return States.of();
+        }
+
+        @Override
+        public String toString() {
+            this.formatted.incrementAndGet();
+            return "state";
+        }
+    }
+}
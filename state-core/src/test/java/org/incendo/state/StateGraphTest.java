@@ -0,0 +1,170 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StateGraphTest {
+
+    @Test
+    void ReachableFrom_Cycle_IncludesWholeCycle() {
+        // Arrange
+        final StateGraph<StateMachineTest.Phase> graph = StateGraph.analyze(StateMachine.ofEnum(StateMachineTest.Phase.class));
+
+        // Act
+        final States<StateMachineTest.Phase> result = graph.reachableFrom(StateMachineTest.Phase.PAUSED);
+
+        // Assert
+        assertThat(result).isEqualTo(States.ofEnum(
+                StateMachineTest.Phase.RUNNING,
+                StateMachineTest.Phase.PAUSED,
+                StateMachineTest.Phase.DONE
+        ));
+    }
+
+    @Test
+    void CanEventuallyReach_HappyFlow_Success() {
+        // Arrange
+        final StateGraph<Job> graph = StateGraph.analyze(StateMachine.ofEnum(Job.class), List.of(Job.NEW));
+
+        // Act & Assert
+        assertThat(graph.canEventuallyReach(Job.NEW, Job.DONE)).isTrue();
+        assertThat(graph.canEventuallyReach(Job.NEW, Job.NEW)).isTrue();
+        assertThat(graph.canEventuallyReach(Job.STUCK, Job.DONE)).isFalse();
+        assertThat(graph.canEventuallyReach(Job.DONE, Job.NEW)).isFalse();
+    }
+
+    @Test
+    void Analyze_DeadAndTerminalStates_AreDetected() {
+        // Act
+        final StateGraph<Job> graph = StateGraph.analyze(StateMachine.ofEnum(Job.class), List.of(Job.NEW));
+
+        // Assert
+        assertThat(graph.isTerminal(Job.DONE)).isTrue();
+        assertThat(graph.isTerminal(Job.STUCK)).isFalse();
+        assertThat(graph.terminalStates()).isEqualTo(States.ofEnum(Job.DONE));
+        assertThat(graph.canTerminate(Job.RUNNING)).isTrue();
+        assertThat(graph.canTerminate(Job.STUCK)).isFalse();
+        assertThat(graph.deadStates()).isEqualTo(States.ofEnum(Job.STUCK));
+        assertThat(graph.isCyclic(Job.STUCK)).isTrue();
+        assertThat(graph.isCyclic(Job.RUNNING)).isFalse();
+    }
+
+    @Test
+    void UnreachableStates_FromRoots_ReturnsOrphans() {
+        // Act
+        final StateGraph<Job> graph = StateGraph.analyze(StateMachine.ofEnum(Job.class), List.of(Job.NEW));
+
+        // Assert
+        assertThat(graph.unreachableStates()).isEqualTo(States.ofEnum(Job.ORPHAN));
+        assertThat(StateGraph.analyze(StateMachine.ofEnum(Job.class)).unreachableStates().empty()).isTrue();
+    }
+
+    @Test
+    void StronglyConnectedComponents_ReverseTopologicalOrder() {
+        // Act
+        final StateGraph<StateMachineTest.Phase> graph = StateGraph.analyze(StateMachine.ofEnum(StateMachineTest.Phase.class));
+
+        // Assert
+        assertThat(graph.stronglyConnectedComponent(StateMachineTest.Phase.RUNNING))
+                .isEqualTo(States.ofEnum(StateMachineTest.Phase.RUNNING, StateMachineTest.Phase.PAUSED));
+        assertThat(graph.stronglyConnectedComponents()).containsExactly(
+                States.ofEnum(StateMachineTest.Phase.DONE),
+                States.ofEnum(StateMachineTest.Phase.RUNNING, StateMachineTest.Phase.PAUSED),
+                States.ofEnum(StateMachineTest.Phase.CREATED)
+        ).inOrder();
+    }
+
+    @Test
+    void CanEventuallyReach_ManyStates_MatchesBreadthFirstSearch() {
+        // Arrange
+        final List<StateMachineTest.ChainState> chain = StateMachineTest.ChainState.chain(150);
+        final StateGraph<StateMachineTest.ChainState> graph = StateGraph.analyze(StateMachine.compile(chain.get(0)));
+
+        // Act & Assert
+        for (final StateMachineTest.ChainState from : chain) {
+            final Set<StateMachineTest.ChainState> reachable = breadthFirstSearch(from);
+            assertThat(graph.reachableFrom(from).size()).isEqualTo(reachable.size());
+            for (final StateMachineTest.ChainState to : chain) {
+                assertThat(graph.canEventuallyReach(from, to)).isEqualTo(reachable.contains(to));
+            }
+        }
+    }
+
+    @Test
+    void IsTerminal_UnknownState_ThrowsException() {
+        // Arrange
+        final StateGraph<AbstractStatefulTest.TestState> graph = StateGraph.analyze(
+                StateMachine.compile(AbstractStatefulTest.TestState.INTERMEDIARY_STATE)
+        );
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> graph.isTerminal(AbstractStatefulTest.TestState.INITIAL_STATE));
+    }
+
+    private static <S extends State<S>> @NonNull Set<S> breadthFirstSearch(final @NonNull S root) {
+        final Set<S> visited = new HashSet<>();
+        final Deque<S> queue = new ArrayDeque<>();
+        visited.add(root);
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            for (final S state : queue.poll().allowedTransitions()) {
+                if (visited.add(state)) {
+                    queue.add(state);
+                }
+            }
+        }
+        return visited;
+    }
+
+    enum Job implements State<Job> {
+        NEW,
+        QUEUED,
+        RUNNING,
+        STUCK,
+        DONE,
+        ORPHAN;
+
+        @Override
+        public @NonNull States<Job> allowedTransitions() {
+            return switch (this) {
+                case NEW -> States.ofEnum(QUEUED);
+                case QUEUED -> States.ofEnum(RUNNING);
+                case RUNNING -> States.ofEnum(DONE, STUCK);
+                case STUCK -> States.ofEnum(STUCK);
+                case DONE -> States.of();
+                case ORPHAN -> States.ofEnum(DONE);
+            };
+        }
+    }
+}
@@ -0,0 +1,254 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.Arrays;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StateMachineTest {
+
+    @Test
+    void OfEnum_AllConstants_IdsAreOrdinals() {
+        // Act
+        final StateMachine<Phase> machine = StateMachine.ofEnum(Phase.class);
+
+        // Assert
+        assertThat(machine.size()).isEqualTo(Phase.values().length);
+        for (final Phase phase : Phase.values()) {
+            assertThat(machine.id(phase)).isEqualTo(phase.ordinal());
+            assertThat(machine.state(phase.ordinal())).isSameInstanceAs(phase);
+        }
+    }
+
+    @Test
+    void CanTransition_EnumMachine_MatchesAllowedTransitions() {
+        // Arrange
+        final StateMachine<Phase> machine = StateMachine.ofEnum(Phase.class);
+
+        // Act & Assert
+        for (final Phase from : Phase.values()) {
+            for (final Phase to : Phase.values()) {
+                assertThat(machine.canTransition(from, to)).isEqualTo(from.allowedTransitions().contains(to));
+                assertThat(machine.canTransition(from.ordinal(), to.ordinal())).isEqualTo(from.allowedTransitions().contains(to));
+            }
+        }
+    }
+
+    @Test
+    void Compile_EnumRoot_ContainsWholeEnum() {
+        // Act
+        final StateMachine<Phase> machine = StateMachine.compile(Phase.DONE);
+
+        // Assert
+        assertThat(machine.size()).isEqualTo(Phase.values().length);
+        assertThat(machine.canTransition(Phase.CREATED, Phase.RUNNING)).isTrue();
+    }
+
+    @Test
+    void Compile_RootsOfDifferentEnums_ContainsEveryRoot() {
+        // Act
+        final StateMachine<EnumStatesTest.SharedState> machine = StateMachine.compile(
+                EnumStatesTest.FirstState.X,
+                EnumStatesTest.SecondState.Q
+        );
+
+        // Assert
+        assertThat(machine.size()).isEqualTo(2);
+        assertThat(machine.id(EnumStatesTest.FirstState.X)).isEqualTo(0);
+        assertThat(machine.id(EnumStatesTest.SecondState.Q)).isEqualTo(1);
+        assertThat(machine.contains(EnumStatesTest.SecondState.P)).isFalse();
+    }
+
+    @Test
+    void Compile_EnumRootOfSharedType_RejectsOtherStates() {
+        // Act
+        final StateMachine<EnumStatesTest.SharedState> machine = StateMachine.compile(EnumStatesTest.FirstState.X);
+
+        // Assert
+        assertThat(machine.id(EnumStatesTest.FirstState.Y)).isEqualTo(1);
+        assertThat(machine.id(EnumStatesTest.SecondState.Q)).isEqualTo(-1);
+        assertThat(machine.id(new EnumStatesTest.RecordState("record"))).isEqualTo(-1);
+        assertThat(machine.contains(EnumStatesTest.SecondState.Q)).isFalse();
+        assertThat(machine.canTransition(EnumStatesTest.FirstState.X, EnumStatesTest.SecondState.Q)).isFalse();
+    }
+
+    @Test
+    void Compile_ReachableStates_AssignsIdsInDiscoveryOrder() {
+        // Act
+        final StateMachine<AbstractStatefulTest.TestState> machine = StateMachine.compile(AbstractStatefulTest.TestState.INITIAL_STATE);
+
+        // Assert
+        assertThat(machine.size()).isEqualTo(3);
+        assertThat(machine.id(AbstractStatefulTest.TestState.INITIAL_STATE)).isEqualTo(0);
+        assertThat(machine.id(AbstractStatefulTest.TestState.INTERMEDIARY_STATE)).isEqualTo(1);
+        assertThat(machine.id(AbstractStatefulTest.TestState.END_STATE)).isEqualTo(2);
+        assertThat(machine.canTransition(AbstractStatefulTest.TestState.INITIAL_STATE, AbstractStatefulTest.TestState.INTERMEDIARY_STATE))
+                .isTrue();
+        assertThat(machine.canTransition(AbstractStatefulTest.TestState.INITIAL_STATE, AbstractStatefulTest.TestState.END_STATE))
+                .isFalse();
+    }
+
+    @Test
+    void Compile_UnreachableState_IsNotContained() {
+        // Act
+        final StateMachine<AbstractStatefulTest.TestState> machine = StateMachine.compile(
+                AbstractStatefulTest.TestState.INTERMEDIARY_STATE
+        );
+
+        // Assert
+        assertThat(machine.contains(AbstractStatefulTest.TestState.INITIAL_STATE)).isFalse();
+        assertThat(machine.id(AbstractStatefulTest.TestState.INITIAL_STATE)).isEqualTo(-1);
+        assertThat(machine.canTransition(AbstractStatefulTest.TestState.INITIAL_STATE, AbstractStatefulTest.TestState.END_STATE))
+                .isFalse();
+    }
+
+    @Test
+    void Compile_ManyStates_MatchesAllowedTransitions() {
+        // Arrange
+        final List<ChainState> chain = ChainState.chain(150);
+
+        // Act
+        final StateMachine<ChainState> machine = StateMachine.compile(chain.get(0));
+
+        // Assert
+        assertThat(machine.size()).isEqualTo(150);
+        for (final ChainState from : chain) {
+            for (final ChainState to : chain) {
+                assertThat(machine.canTransition(from, to)).isEqualTo(from.allowedTransitions().contains(to));
+            }
+        }
+    }
+
+    @Test
+    void CanTransition_IdOutOfBounds_ThrowsException() {
+        // Arrange
+        final StateMachine<Phase> machine = StateMachine.ofEnum(Phase.class);
+
+        // Act & Assert
+        assertThrows(IndexOutOfBoundsException.class, () -> machine.canTransition(0, Phase.values().length));
+    }
+
+    @Test
+    void TransitionTo_StateMachine_ValidatesUsingMachine() {
+        // Arrange
+        final MachineStateful stateful = new MachineStateful(StateMachine.ofEnum(Phase.class));
+
+        // Act
+        stateful.transitionTo(Phase.RUNNING);
+
+        // Assert
+        assertThat(stateful.state()).isEqualTo(Phase.RUNNING);
+        assertThat(stateful.canTransitionTo(Phase.DONE)).isTrue();
+        assertThat(stateful.canTransitionTo(Phase.CREATED)).isFalse();
+        assertThrows(IllegalStateTransitionException.class, () -> stateful.transitionTo(Phase.CREATED));
+    }
+
+    @Test
+    void Constructor_InitialStateNotInMachine_ThrowsException() {
+        // Arrange
+        final StateMachine<AbstractStatefulTest.TestState> machine = StateMachine.compile(
+                AbstractStatefulTest.TestState.INTERMEDIARY_STATE
+        );
+
+        // Act & Assert
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new CompiledStateful(machine, AbstractStatefulTest.TestState.INITIAL_STATE)
+        );
+    }
+
+    enum Phase implements State<Phase> {
+        CREATED,
+        RUNNING,
+        PAUSED,
+        DONE;
+
+        @Override
+        public @NonNull States<Phase> allowedTransitions() {
+            return switch (this) {
+                case CREATED -> States.ofEnum(RUNNING);
+                case RUNNING -> States.ofEnum(PAUSED, DONE);
+                case PAUSED -> States.ofEnum(RUNNING, DONE);
+                case DONE -> States.of();
+            };
+        }
+    }
+
+    record ChainState(int id, List<ChainState> chain) implements State<ChainState> {
+
+        static List<ChainState> chain(final int size) {
+            final ChainState[] states = new ChainState[size];
+            final List<ChainState> chain = Arrays.asList(states);
+            for (int id = 0; id < size; id++) {
+                states[id] = new ChainState(id, chain);
+            }
+            return chain;
+        }
+
+        @Override
+        public @NonNull States<ChainState> allowedTransitions() {
+            if (this.id + 1 == this.chain.size()) {
+                return States.of();
+            }
+            return States.of(this.chain.get(this.id + 1), this.chain.get(this.id / 2));
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            return object instanceof ChainState other && other.id == this.id;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.id;
+        }
+
+        @Override
+        public @NonNull String toString() {
+            return "ChainState{id=" + this.id + '}';
+        }
+    }
+
+    static final class MachineStateful extends AbstractStateful<Phase, MachineStateful> {
+
+        MachineStateful(final @NonNull StateMachine<Phase> machine) {
+            super(machine, Phase.CREATED);
+        }
+    }
+
+    static final class CompiledStateful extends AbstractStateful<AbstractStatefulTest.TestState, CompiledStateful> {
+
+        CompiledStateful(
+                final @NonNull StateMachine<AbstractStatefulTest.TestState> machine,
+                final AbstractStatefulTest.@NonNull TestState initialState
+        ) {
+            super(machine, initialState);
+        }
+    }
+}
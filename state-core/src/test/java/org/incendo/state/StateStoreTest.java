@@ -0,0 +1,145 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StateStoreTest {
+
+    private StateStore<StateMachineTest.Phase> store;
+
+    @BeforeEach
+    void setup() {
+        this.store = StateStore.create(StateMachine.ofEnum(StateMachineTest.Phase.class), 100, StateMachineTest.Phase.CREATED);
+    }
+
+    @Test
+    void Create_InitialState_AllEntitiesInInitialState() {
+        // Assert
+        assertThat(this.store).isInstanceOf(ByteStateStore.class);
+        assertThat(this.store.size()).isEqualTo(100);
+        assertThat(this.store.count(StateMachineTest.Phase.CREATED)).isEqualTo(100);
+        assertThat(this.store.get(42)).isEqualTo(StateMachineTest.Phase.CREATED);
+    }
+
+    @Test
+    void TransitionTo_HappyFlow_Success() {
+        // Act
+        this.store.transitionTo(7, StateMachineTest.Phase.RUNNING);
+
+        // Assert
+        assertThat(this.store.get(7)).isEqualTo(StateMachineTest.Phase.RUNNING);
+        assertThat(this.store.get(8)).isEqualTo(StateMachineTest.Phase.CREATED);
+    }
+
+    @Test
+    void TransitionTo_IllegalTransition_ThrowsException() {
+        // Act
+        final IllegalStateTransitionException exception = assertThrows(
+                IllegalStateTransitionException.class,
+                () -> this.store.transitionTo(7, StateMachineTest.Phase.DONE)
+        );
+
+        // Assert
+        assertThat(exception.from()).isEqualTo(StateMachineTest.Phase.CREATED);
+        assertThat(exception.stateful().state()).isEqualTo(StateMachineTest.Phase.CREATED);
+        assertThat(exception.stateful()).isEqualTo(this.store.entity(7));
+    }
+
+    @Test
+    void Transition_UnexpectedState_ThrowsException() {
+        // Act
+        final UnexpectedStateException exception = assertThrows(
+                UnexpectedStateException.class,
+                () -> this.store.transition(7, StateMachineTest.Phase.RUNNING, StateMachineTest.Phase.DONE)
+        );
+
+        // Assert
+        assertThat(exception.actual()).isEqualTo(StateMachineTest.Phase.CREATED);
+        assertThat(this.store.get(7)).isEqualTo(StateMachineTest.Phase.CREATED);
+    }
+
+    @Test
+    void TransitionAll_HappyFlow_OnlyMatchingEntitiesTransitioned() {
+        // Arrange
+        this.store.transitionTo(3, StateMachineTest.Phase.RUNNING);
+        this.store.transitionTo(5, StateMachineTest.Phase.RUNNING);
+
+        // Act
+        final int result = this.store.transitionAll(StateMachineTest.Phase.RUNNING, StateMachineTest.Phase.DONE);
+
+        // Assert
+        assertThat(result).isEqualTo(2);
+        final List<Integer> done = new ArrayList<>();
+        this.store.forEach(StateMachineTest.Phase.DONE, done::add);
+        assertThat(done).containsExactly(3, 5).inOrder();
+        assertThat(this.store.count(StateMachineTest.Phase.CREATED)).isEqualTo(98);
+    }
+
+    @Test
+    void TransitionAll_IllegalTransition_NothingTransitioned() {
+        // Act & Assert
+        assertThrows(
+                IllegalStateTransitionException.class,
+                () -> this.store.transitionAll(StateMachineTest.Phase.CREATED, StateMachineTest.Phase.DONE)
+        );
+        assertThat(this.store.count(StateMachineTest.Phase.CREATED)).isEqualTo(100);
+    }
+
+    @Test
+    void Entity_TransitionTo_UpdatesStore() {
+        // Arrange
+        final MutableStateful<StateMachineTest.Phase, ?> entity = this.store.entity(11);
+
+        // Act
+        entity.transitionTo(StateMachineTest.Phase.RUNNING);
+
+        // Assert
+        assertThat(this.store.get(11)).isEqualTo(StateMachineTest.Phase.RUNNING);
+        assertThat(entity.canTransitionTo(StateMachineTest.Phase.DONE)).isTrue();
+    }
+
+    @Test
+    void Create_ManyStates_UsesShortStore() {
+        // Arrange
+        final List<StateMachineTest.ChainState> chain = StateMachineTest.ChainState.chain(300);
+        final StateStore<StateMachineTest.ChainState> store = StateStore.create(StateMachine.compile(chain.get(0)), 10, chain.get(0));
+
+        // Act
+        for (int state = 1; state < 300; state++) {
+            store.transition(4, chain.get(state - 1), chain.get(state));
+        }
+
+        // Assert
+        assertThat(store).isInstanceOf(ShortStateStore.class);
+        assertThat(store.get(4)).isEqualTo(chain.get(299));
+        assertThat(store.stateId(4)).isEqualTo(299);
+    }
+}
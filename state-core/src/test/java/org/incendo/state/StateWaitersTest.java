@@ -0,0 +1,154 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StateWaitersTest {
+
+    private static final int ROUNDS = 1_000;
+
+    private ExecutorService executor;
+    private AbstractStatefulTest.TestStateful stateful;
+
+    @BeforeEach
+    void setup() {
+        this.executor = Executors.newFixedThreadPool(2);
+        this.stateful = new AbstractStatefulTest.TestStateful();
+    }
+
+    @AfterEach
+    void teardown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    void OnState_AlreadyInState_CompletedImmediately() {
+        // Act
+        final CompletableFuture<AbstractStatefulTest.TestState> result = this.stateful.onState(
+                States.of(AbstractStatefulTest.TestState.INITIAL_STATE)
+        );
+
+        // Assert
+        assertThat(result.getNow(null)).isEqualTo(AbstractStatefulTest.TestState.INITIAL_STATE);
+    }
+
+    @Test
+    void OnState_Transition_CompletedByTransition() {
+        // Arrange
+        final CompletableFuture<AbstractStatefulTest.TestState> result = this.stateful.onState(
+                States.of(AbstractStatefulTest.TestState.END_STATE)
+        );
+        this.stateful.transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+        assertThat(result.isDone()).isFalse();
+
+        // Act
+        this.stateful.transitionTo(AbstractStatefulTest.TestState.END_STATE);
+
+        // Assert
+        assertThat(result.getNow(null)).isEqualTo(AbstractStatefulTest.TestState.END_STATE);
+    }
+
+    @Test
+    void AwaitState_OtherThreadTransitions_Wakes() throws Exception {
+        // Arrange
+        final Future<AbstractStatefulTest.TestState> result = this.executor.submit(
+                () -> this.stateful.awaitState(States.of(AbstractStatefulTest.TestState.INTERMEDIARY_STATE), Duration.ofSeconds(30L))
+        );
+
+        // Act
+        this.stateful.transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+
+        // Assert
+        assertThat(result.get(30L, TimeUnit.SECONDS)).isEqualTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+    }
+
+    @Test
+    void AwaitState_Timeout_ThrowsException() {
+        // Act & Assert
+        assertThrows(
+                TimeoutException.class,
+                () -> this.stateful.awaitState(States.of(AbstractStatefulTest.TestState.END_STATE), Duration.ofMillis(10L))
+        );
+    }
+
+    @Test
+    void Register_Cancelled_Unregistered() {
+        // Arrange
+        final StateWaiters<AbstractStatefulTest.TestState> waiters = new StateWaiters<>();
+        final CompletableFuture<AbstractStatefulTest.TestState> first = waiters.register(
+                States.of(AbstractStatefulTest.TestState.END_STATE),
+                () -> AbstractStatefulTest.TestState.INITIAL_STATE
+        );
+        final CompletableFuture<AbstractStatefulTest.TestState> second = waiters.register(
+                States.of(AbstractStatefulTest.TestState.INTERMEDIARY_STATE),
+                () -> AbstractStatefulTest.TestState.INITIAL_STATE
+        );
+
+        // Act
+        first.cancel(false);
+
+        // Assert
+        assertThat(waiters.size()).isEqualTo(1);
+        waiters.notify(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+        assertThat(second.isDone()).isTrue();
+        assertThat(waiters.size()).isEqualTo(0);
+    }
+
+    @Test
+    void OnState_ConcurrentTransition_NeverMissed() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            // Arrange
+            final AbstractAtomicStatefulTest.TestStateful stateful = new AbstractAtomicStatefulTest.TestStateful();
+            final CyclicBarrier barrier = new CyclicBarrier(2);
+
+            // Act
+            final Future<CompletableFuture<AbstractStatefulTest.TestState>> result = this.executor.submit(() -> {
+                barrier.await();
+                return stateful.onState(States.of(AbstractStatefulTest.TestState.INTERMEDIARY_STATE));
+            });
+            final Future<?> transition = this.executor.submit(() -> {
+                barrier.await();
+                return stateful.transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+            });
+
+            // Assert
+            transition.get();
+            assertThat(result.get().get(30L, TimeUnit.SECONDS)).isEqualTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+        }
+    }
+}
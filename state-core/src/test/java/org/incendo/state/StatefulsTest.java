@@ -0,0 +1,221 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.incendo.state.StateMachineTest.Phase;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StatefulsTest {
+
+    @Test
+    void TransitionAll_MixedStates_TransitionsMatchingInstances() {
+        // Arrange
+        final StripedStateLocks locks = StripedStateLocks.create(4);
+        final List<StripedStateLocksTest.StripedStateful> statefuls = new ArrayList<>();
+        for (int index = 0; index < 100; index++) {
+            final StripedStateLocksTest.StripedStateful stateful = new StripedStateLocksTest.StripedStateful(locks);
+            if (index % 3 == 0) {
+                stateful.transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+            }
+            statefuls.add(stateful);
+        }
+
+        // Act
+        final BitSet result = Statefuls.transitionAll(
+                statefuls,
+                AbstractStatefulTest.TestState.INITIAL_STATE,
+                AbstractStatefulTest.TestState.INTERMEDIARY_STATE
+        );
+
+        // Assert
+        assertThat(result.cardinality()).isEqualTo(66);
+        for (int index = 0; index < statefuls.size(); index++) {
+            assertThat(result.get(index)).isEqualTo(index % 3 != 0);
+            assertThat(statefuls.get(index).state()).isEqualTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+        }
+    }
+
+    @Test
+    void TransitionAll_AtomicInstances_TransitionsMatchingInstances() {
+        // Arrange
+        final AbstractAtomicStatefulTest.TestStateful first = new AbstractAtomicStatefulTest.TestStateful();
+        final AbstractAtomicStatefulTest.TestStateful second = new AbstractAtomicStatefulTest.TestStateful()
+                .transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+
+        // Act
+        final BitSet result = Statefuls.transitionAll(
+                List.of(first, second),
+                AbstractStatefulTest.TestState.INITIAL_STATE,
+                AbstractStatefulTest.TestState.INTERMEDIARY_STATE
+        );
+
+        // Assert
+        assertThat(result.get(0)).isTrue();
+        assertThat(result.get(1)).isFalse();
+        assertThat(first.state()).isEqualTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+    }
+
+    @Test
+    void TransitionAll_Listeners_InvokedForTransitionedInstances() {
+        // Arrange
+        final List<Stateful<Phase, ?>> events = new ArrayList<>();
+        final StateMachine<Phase> stateMachine = StateMachine.ofEnum(Phase.class);
+        final StateMachine<Phase> observedMachine = stateMachine.withListeners(
+                TransitionListeners.builder(stateMachine)
+                        .onTransition(Phase.CREATED, Phase.RUNNING, (stateful, from, to) -> events.add(stateful))
+                        .build()
+        );
+        final TransitionListenersTest.MachineStateful first = new TransitionListenersTest.MachineStateful(observedMachine);
+        final TransitionListenersTest.MachineStateful second = new TransitionListenersTest.MachineStateful(observedMachine);
+        second.transitionTo(Phase.RUNNING);
+        events.clear();
+
+        // Act
+        Statefuls.transitionAll(List.of(first, second), Phase.CREATED, Phase.RUNNING);
+
+        // Assert
+        assertThat(events).containsExactly(first);
+    }
+
+    @Test
+    void TransitionAll_IllegalTransition_ThrowsExceptionBeforeTransitioning() {
+        // Arrange
+        final AbstractStatefulTest.TestStateful first = new AbstractStatefulTest.TestStateful();
+        final AbstractStatefulTest.TestStateful second = new AbstractStatefulTest.TestStateful();
+
+        // Act & Assert
+        assertThrows(
+                IllegalStateTransitionException.class,
+                () -> Statefuls.transitionAll(
+                        List.of(first, second),
+                        AbstractStatefulTest.TestState.INITIAL_STATE,
+                        AbstractStatefulTest.TestState.END_STATE
+                )
+        );
+        assertThat(first.state()).isEqualTo(AbstractStatefulTest.TestState.INITIAL_STATE);
+        assertThat(second.state()).isEqualTo(AbstractStatefulTest.TestState.INITIAL_STATE);
+    }
+
+    @Test
+    void TransitionAll_IllegalTransitionWithoutMatches_ReturnsEmpty() {
+        // Arrange
+        final AbstractStatefulTest.TestStateful stateful = new AbstractStatefulTest.TestStateful();
+
+        // Act
+        final BitSet result = Statefuls.transitionAll(
+                List.of(stateful),
+                AbstractStatefulTest.TestState.END_STATE,
+                AbstractStatefulTest.TestState.INITIAL_STATE
+        );
+
+        // Assert
+        assertThat(result.isEmpty()).isTrue();
+    }
+
+    @Test
+    void TransitionAll_CanTransitionToOverridden_ThrowsExceptionBeforeTransitioning() {
+        // Arrange
+        final AbstractStatefulTest.TestStateful first = new AbstractStatefulTest.TestStateful();
+        final RestrictedStateful second = new RestrictedStateful();
+
+        // Act & Assert
+        assertThrows(
+                IllegalStateTransitionException.class,
+                () -> Statefuls.transitionAll(
+                        List.of(first, second),
+                        AbstractStatefulTest.TestState.INITIAL_STATE,
+                        AbstractStatefulTest.TestState.INTERMEDIARY_STATE
+                )
+        );
+        assertThat(first.state()).isEqualTo(AbstractStatefulTest.TestState.INITIAL_STATE);
+        assertThat(second.state()).isEqualTo(AbstractStatefulTest.TestState.INITIAL_STATE);
+    }
+
+    @Test
+    void TransitionAll_OtherImplementationRejects_ThrowsExceptionBeforeTransitioning() {
+        // Arrange
+        final AbstractAtomicStatefulTest.TestStateful first = new AbstractAtomicStatefulTest.TestStateful();
+        final RestrictedDelegatingStateful second = new RestrictedDelegatingStateful(
+                MutableStateful.of(AbstractStatefulTest.TestState.INITIAL_STATE)
+        );
+
+        // Act & Assert
+        assertThrows(
+                IllegalStateTransitionException.class,
+                () -> Statefuls.transitionAll(
+                        List.of(first, second),
+                        AbstractStatefulTest.TestState.INITIAL_STATE,
+                        AbstractStatefulTest.TestState.INTERMEDIARY_STATE
+                )
+        );
+        assertThat(first.state()).isEqualTo(AbstractStatefulTest.TestState.INITIAL_STATE);
+        assertThat(second.state()).isEqualTo(AbstractStatefulTest.TestState.INITIAL_STATE);
+    }
+
+    static final class RestrictedStateful extends AbstractStateful<AbstractStatefulTest.TestState, RestrictedStateful> {
+
+        RestrictedStateful() {
+            super(AbstractStatefulTest.TestState.INITIAL_STATE);
+        }
+
+        @Override
+        public boolean canTransitionTo(final AbstractStatefulTest.@NonNull TestState state) {
+            return false;
+        }
+    }
+
+    private record RestrictedDelegatingStateful(@NonNull MutableStateful<AbstractStatefulTest.TestState, ?> delegate)
+            implements MutableStateful<AbstractStatefulTest.TestState, RestrictedDelegatingStateful> {
+
+        @Override
+        public AbstractStatefulTest.@NonNull TestState state() {
+            return this.delegate.state();
+        }
+
+        @Override
+        public boolean canTransitionTo(final AbstractStatefulTest.@NonNull TestState state) {
+            return false;
+        }
+
+        @Override
+        public @NonNull RestrictedDelegatingStateful transitionTo(final AbstractStatefulTest.@NonNull TestState state) {
+            throw new IllegalStateTransitionException(this.state(), state, this);
+        }
+
+        @Override
+        public @NonNull RestrictedDelegatingStateful transition(
+                final AbstractStatefulTest.@NonNull TestState currentState,
+                final AbstractStatefulTest.@NonNull TestState newState
+        ) {
+            throw new IllegalStateTransitionException(currentState, newState, this);
+        }
+    }
+}
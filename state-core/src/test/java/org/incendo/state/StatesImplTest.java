@@ -90,6 +90,109 @@ class StatesImplTest {
         assertThat(result).isFalse();
     }
 
+    @Test
+    void Of_DuplicateStates_AreRemoved() {
+        // Act
+        final States<TestState> states = States.of(TestState.INITIAL_STATE, TestState.END_STATE, TestState.INITIAL_STATE);
+
+        // Assert
+        assertThat(states).isEqualTo(States.of(TestState.END_STATE, TestState.INITIAL_STATE));
+        assertThat(states.states().toList()).containsExactly(TestState.INITIAL_STATE, TestState.END_STATE).inOrder();
+    }
+
+    @Test
+    void WithState_ContainedState_ReturnsSameInstance() {
+        // Arrange
+        final States<TestState> states = States.of(TestState.INITIAL_STATE);
+
+        // Act
+        final States<TestState> result = states.withState(TestState.INITIAL_STATE);
+
+        // Assert
+        assertThat(result).isSameInstanceAs(states);
+    }
+
+    @Test
+    void Union_HappyFlow_ContainsBoth() {
+        // Arrange
+        final States<TestState> first = States.of(TestState.INITIAL_STATE);
+        final States<TestState> second = States.of(TestState.INTERMEDIARY_STATE, TestState.INITIAL_STATE);
+
+        // Act
+        final States<TestState> result = first.union(second);
+
+        // Assert
+        assertThat(result).isSameInstanceAs(second);
+        assertThat(first.union(States.of(TestState.END_STATE)).size()).isEqualTo(2);
+    }
+
+    @Test
+    void Intersect_HappyFlow_RetainsCommonStates() {
+        // Arrange
+        final States<TestState> first = States.of(TestState.INITIAL_STATE, TestState.END_STATE);
+        final States<TestState> second = States.of(TestState.INTERMEDIARY_STATE, TestState.END_STATE);
+
+        // Act
+        final States<TestState> result = first.intersect(second);
+
+        // Assert
+        assertThat(result).isEqualTo(States.of(TestState.END_STATE));
+    }
+
+    @Test
+    void Difference_HappyFlow_RemovesStates() {
+        // Arrange
+        final States<TestState> first = States.of(TestState.INITIAL_STATE, TestState.END_STATE);
+        final States<TestState> second = States.of(TestState.INITIAL_STATE, TestState.END_STATE);
+
+        // Act
+        final States<TestState> result = first.difference(second);
+
+        // Assert
+        assertThat(result).isSameInstanceAs(States.of());
+    }
+
+    @Test
+    void Intersect_SubsetOfOther_ReturnsSameInstance() {
+        // Arrange
+        final States<TestState> first = States.of(TestState.INITIAL_STATE, TestState.END_STATE);
+        final States<TestState> second = States.of(TestState.INITIAL_STATE, TestState.INTERMEDIARY_STATE, TestState.END_STATE);
+
+        // Act & Assert
+        assertThat(first.intersect(second)).isSameInstanceAs(first);
+        assertThat(first.difference(States.of(TestState.INTERMEDIARY_STATE))).isSameInstanceAs(first);
+        assertThat(second.difference(first)).isEqualTo(States.of(TestState.INTERMEDIARY_STATE));
+    }
+
+    @Test
+    void Union_PartialOverlap_ContainsEachStateOnce() {
+        // Arrange
+        final States<TestState> first = States.of(TestState.INITIAL_STATE, TestState.END_STATE);
+        final States<TestState> second = States.of(TestState.INTERMEDIARY_STATE, TestState.END_STATE);
+
+        // Act
+        final States<TestState> result = first.union(second);
+
+        // Assert
+        assertThat(result.size()).isEqualTo(3);
+        assertThat(result.containsAll(first)).isTrue();
+        assertThat(result.containsAll(second)).isTrue();
+        assertThat(first.containsAll(result)).isFalse();
+        assertThat(first.union(States.of(TestState.END_STATE))).isSameInstanceAs(first);
+    }
+
+    @Test
+    void Iterator_HappyFlow_ReturnsAllStates() {
+        // Arrange
+        final States<TestState> states = States.of(TestState.INITIAL_STATE, TestState.END_STATE);
+
+        // Act & Assert
+        assertThat(states).containsExactly(TestState.INITIAL_STATE, TestState.END_STATE).inOrder();
+        assertThat(states.toArray(TestState[]::new)).asList().containsExactly(TestState.INITIAL_STATE, TestState.END_STATE).inOrder();
+        assertThat(states.containsAll(States.of(TestState.END_STATE))).isTrue();
+        assertThat(states.containsAll(States.of(TestState.INTERMEDIARY_STATE))).isFalse();
+    }
+
 
     static final class TestState extends AbstractState<TestState> {
 
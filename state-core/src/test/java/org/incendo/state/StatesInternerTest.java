@@ -0,0 +1,181 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class StatesInternerTest {
+
+    @Test
+    void Canonical_EqualContents_ReturnsSameInstance() {
+        // Arrange
+        final States<HashStatesTest.TestState> fromVarargs = States.of(
+                new HashStatesTest.TestState(1),
+                new HashStatesTest.TestState(2)
+        );
+        final States<HashStatesTest.TestState> fromCollection = States.of(
+                List.of(new HashStatesTest.TestState(2), new HashStatesTest.TestState(1))
+        );
+
+        // Act
+        final States<HashStatesTest.TestState> first = States.canonical(fromVarargs);
+        final States<HashStatesTest.TestState> second = States.canonical(fromCollection);
+
+        // Assert
+        assertThat(first).isSameInstanceAs(fromVarargs);
+        assertThat(second).isSameInstanceAs(first);
+    }
+
+    @Test
+    void Canonical_DifferentImplementations_ReturnsSameInstance() {
+        // Arrange
+        final List<HashStatesTest.TestState> values = HashStatesTest.TestState.range(100, 120);
+        States<HashStatesTest.TestState> incremental = States.of();
+        for (final HashStatesTest.TestState state : values) {
+            incremental = incremental.withState(state);
+        }
+        final States<HashStatesTest.TestState> hashed = States.of(values);
+
+        // Act
+        final States<HashStatesTest.TestState> first = States.canonical(hashed);
+        final States<HashStatesTest.TestState> second = States.canonical(incremental);
+
+        // Assert
+        assertThat(incremental).isInstanceOf(TrieStates.class);
+        assertThat(incremental).isEqualTo(hashed);
+        assertThat(incremental.hashCode()).isEqualTo(hashed.hashCode());
+        assertThat(second).isSameInstanceAs(first);
+    }
+
+    @Test
+    void Canonical_LazyStates_ReturnsResolvedInstance() {
+        // Arrange
+        final States<EnumStatesTest.TestState> canonical = States.canonical(States.ofEnum(EnumStatesTest.TestState.END_STATE));
+
+        // Act
+        final States<EnumStatesTest.TestState> result = States.canonical(
+                States.lazy(() -> States.ofEnum(EnumStatesTest.TestState.END_STATE))
+        );
+
+        // Assert
+        assertThat(result).isSameInstanceAs(canonical);
+    }
+
+    @Test
+    void Canonical_EmptyStates_ReturnsSharedEmptyInstance() {
+        // Act
+        final States<EnumStatesTest.TestState> result = States.canonical(
+                States.ofEnum(EnumStatesTest.TestState.END_STATE).withoutState(EnumStatesTest.TestState.END_STATE)
+        );
+
+        // Assert
+        assertThat(result).isSameInstanceAs(States.of());
+    }
+
+    @Test
+    void Equals_LazyAndEmptyStates_AreSymmetric() {
+        // Arrange
+        final States<EnumStatesTest.TestState> states = States.ofEnum(EnumStatesTest.TestState.END_STATE);
+        final States<EnumStatesTest.TestState> lazy = States.lazy(() -> states);
+
+        // Act & Assert
+        assertThat(lazy).isEqualTo(states);
+        assertThat(states).isEqualTo(lazy);
+        assertThat(lazy.hashCode()).isEqualTo(states.hashCode());
+        final States<EnumStatesTest.TestState> empty = States.of();
+        final States<EnumStatesTest.TestState> lazyEmpty = States.lazy(States::of);
+        assertThat(lazyEmpty).isEqualTo(empty);
+        assertThat(empty).isEqualTo(lazyEmpty);
+    }
+
+    @Test
+    void Canonical_UnreachableInstances_AreReclaimed() throws InterruptedException {
+        // Arrange
+        final int before = StatesInterner.size();
+        final List<States<HashStatesTest.TestState>> states = new ArrayList<>();
+        for (int id = 0; id < 1_000; id++) {
+            states.add(States.canonical(States.of(new HashStatesTest.TestState(10_000 + id))));
+        }
+        assertThat(StatesInterner.size()).isAtLeast(before + 1_000);
+
+        // Act
+        states.clear();
+        for (int attempt = 0; attempt < 50 && StatesInterner.size() >= before + 1_000; attempt++) {
+            System.gc();
+            Thread.sleep(10L);
+        }
+
+        // Assert
+        assertThat(StatesInterner.size()).isLessThan(before + 1_000);
+    }
+
+    @Test
+    void AllowedTransitions_LazyTransitions_ResolvedOnlyByStateMachine() {
+        // Arrange
+        final AtomicInteger resolutions = new AtomicInteger();
+        final LinkedState end = new LinkedState(States.of());
+        final LinkedState start = new LinkedState(States.lazy(() -> {
+            resolutions.incrementAndGet();
+            return States.of(end);
+        }));
+
+        // Act
+        final States<LinkedState> beforeCompilation = start.allowedTransitions();
+        final int resolutionsBeforeCompilation = resolutions.get();
+        StateMachine.compile(start);
+
+        // Assert
+        assertThat(beforeCompilation).isInstanceOf(LazyStates.class);
+        assertThat(resolutionsBeforeCompilation).isEqualTo(0);
+        assertThat(start.allowedTransitions()).isSameInstanceAs(States.canonical(States.of(end)));
+    }
+
+    @Test
+    void AllowedTransitions_EqualTransitions_SharedAfterCompilation() {
+        // Arrange
+        final LinkedState end = new LinkedState(States.of());
+        final LinkedState first = new LinkedState(States.of(end));
+        final LinkedState second = new LinkedState(States.of(end));
+        final LinkedState root = new LinkedState(States.of(first, second));
+
+        // Act
+        StateMachine.compile(root);
+
+        // Assert
+        assertThat(first.allowedTransitions()).isSameInstanceAs(second.allowedTransitions());
+    }
+
+
+    static final class LinkedState extends AbstractState<LinkedState> {
+
+        LinkedState(final States<LinkedState> allowedTransitions) {
+            super(allowedTransitions);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StripedStateLocksTest {
+
+    private static final int INSTANCES = 1_000;
+
+    @Test
+    void Create_NotPowerOfTwo_RoundsUp() {
+        // Act & Assert
+        assertThat(StripedStateLocks.create(1).stripes()).isEqualTo(1);
+        assertThat(StripedStateLocks.create(5).stripes()).isEqualTo(8);
+        assertThat(StripedStateLocks.create(64).stripes()).isEqualTo(64);
+        assertThrows(IllegalArgumentException.class, () -> StripedStateLocks.create(0));
+    }
+
+    @Test
+    void Constructor_EqualKeys_ShareLock() {
+        // Arrange
+        final StripedStateLocks locks = StripedStateLocks.create(16);
+
+        // Act
+        final KeyedStateful first = new KeyedStateful(locks, "key");
+        final KeyedStateful second = new KeyedStateful(locks, "key");
+
+        // Assert
+        assertThat(first.lock()).isSameInstanceAs(second.lock());
+    }
+
+    @Test
+    void Interaction_SharedStripe_OtherInstanceRemainsUsable() {
+        // Arrange
+        final StripedStateLocks locks = StripedStateLocks.create(1);
+        final StripedStateful first = new StripedStateful(locks);
+        final StripedStateful second = new StripedStateful(locks);
+
+        // Act
+        first.interact()
+                .interaction(instance -> {
+                    second.transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+                    return instance.transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+                })
+                .execute()
+                .unwrap();
+
+        // Assert
+        assertThat(first.lock()).isSameInstanceAs(second.lock());
+        assertThat(first.state()).isEqualTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+        assertThat(second.state()).isEqualTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+        assertThat(first.lock().isHeldByCurrentThread()).isFalse();
+    }
+
+    @Test
+    void Lock_ManyStripedInstances_UsePooledLocksOnly() {
+        // Arrange
+        final StripedStateLocks locks = StripedStateLocks.create(64);
+        final Set<StateLock> striped = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Set<StateLock> owned = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        // Act
+        for (int index = 0; index < INSTANCES; index++) {
+            striped.add(new StripedStateful(locks).lock());
+            owned.add(new AbstractLockableStatefulTest.TestStateful().lock());
+        }
+
+        // Assert
+        assertThat(striped.size()).isAtMost(locks.stripes());
+        assertThat(owned.size()).isEqualTo(INSTANCES);
+    }
+
+    static final class StripedStateful extends AbstractLockableStateful<AbstractStatefulTest.TestState, StripedStateful> {
+
+        StripedStateful(final @NonNull StripedStateLocks locks) {
+            super(locks, AbstractStatefulTest.TestState.INITIAL_STATE);
+        }
+    }
+
+    static final class KeyedStateful extends AbstractLockableStateful<AbstractStatefulTest.TestState, KeyedStateful> {
+
+        KeyedStateful(final @NonNull StripedStateLocks locks, final @NonNull Object key) {
+            super(locks, key, AbstractStatefulTest.TestState.INITIAL_STATE);
+        }
+    }
+}
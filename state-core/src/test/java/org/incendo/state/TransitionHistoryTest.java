@@ -0,0 +1,155 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.incendo.state.StateMachineTest.Phase;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransitionHistoryTest {
+
+    private static final StateMachine<Phase> STATE_MACHINE = StateMachine.ofEnum(Phase.class);
+
+    @Test
+    void Snapshot_Transitions_RecordedInOrder() {
+        // Arrange
+        final TransitionListenersTest.MachineStateful stateful = new TransitionListenersTest.MachineStateful(STATE_MACHINE);
+        final TransitionHistory<Phase> history = stateful.enableHistory(8);
+
+        // Act
+        stateful.transitionTo(Phase.RUNNING);
+        stateful.transition(Phase.RUNNING, Phase.PAUSED);
+        stateful.tryTransitionTo(Phase.DONE);
+
+        // Assert
+        final List<TransitionHistory.Entry<Phase>> entries = history.snapshot();
+        assertThat(entries).hasSize(3);
+        assertThat(entries.get(0).from()).isEqualTo(Phase.CREATED);
+        assertThat(entries.get(0).to()).isEqualTo(Phase.RUNNING);
+        assertThat(entries.get(1).to()).isEqualTo(Phase.PAUSED);
+        assertThat(entries.get(2).from()).isEqualTo(Phase.PAUSED);
+        assertThat(entries.get(2).to()).isEqualTo(Phase.DONE);
+        assertThat(entries.get(2).sequence()).isEqualTo(2L);
+        assertThat(entries.get(2).threadId()).isEqualTo(Thread.currentThread().getId());
+        assertThat(entries.get(1).nanoTime()).isAtLeast(entries.get(0).nanoTime());
+    }
+
+    @Test
+    void Snapshot_CapacityExceeded_RetainsMostRecent() {
+        // Arrange
+        final TransitionListenersTest.MachineStateful stateful = new TransitionListenersTest.MachineStateful(STATE_MACHINE);
+        final TransitionHistory<Phase> history = stateful.enableHistory(3);
+        stateful.transitionTo(Phase.RUNNING);
+
+        // Act
+        for (int index = 0; index < 10; index++) {
+            stateful.transitionTo(stateful.state() == Phase.RUNNING ? Phase.PAUSED : Phase.RUNNING);
+        }
+
+        // Assert
+        final List<TransitionHistory.Entry<Phase>> entries = history.snapshot();
+        assertThat(history.capacity()).isEqualTo(4);
+        assertThat(history.recorded()).isEqualTo(11L);
+        assertThat(entries).hasSize(4);
+        assertThat(entries.get(0).sequence()).isEqualTo(7L);
+        assertThat(entries.get(3).sequence()).isEqualTo(10L);
+    }
+
+    @Test
+    void EnableHistory_WithoutStateMachine_CompilesStates() {
+        // Arrange
+        final AbstractLockableStatefulTest.TestStateful stateful = new AbstractLockableStatefulTest.TestStateful();
+        final TransitionHistory<AbstractStatefulTest.TestState> history = stateful.enableHistory(2);
+
+        // Act
+        stateful.transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+
+        // Assert
+        assertThat(history.snapshot().get(0).to()).isEqualTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+    }
+
+    @Test
+    void DisableHistory_Transition_NotRecorded() {
+        // Arrange
+        final TransitionListenersTest.MachineStateful stateful = new TransitionListenersTest.MachineStateful(STATE_MACHINE);
+        final TransitionHistory<Phase> history = stateful.enableHistory(2);
+        stateful.disableHistory();
+
+        // Act
+        stateful.transitionTo(Phase.RUNNING);
+
+        // Assert
+        assertThat(stateful.history()).isNull();
+        assertThat(history.recorded()).isEqualTo(0L);
+    }
+
+    @Test
+    void EnableHistory_InvalidCapacity_ThrowsException() {
+        // Arrange
+        final TransitionListenersTest.MachineStateful stateful = new TransitionListenersTest.MachineStateful(STATE_MACHINE);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> stateful.enableHistory(0));
+    }
+
+    @Test
+    void Snapshot_ConcurrentWriter_OnlyConsistentEntries() throws Exception {
+        // Arrange
+        final TransitionListenersTest.MachineStateful stateful = new TransitionListenersTest.MachineStateful(STATE_MACHINE);
+        stateful.transitionTo(Phase.RUNNING);
+        final TransitionHistory<Phase> history = stateful.enableHistory(16);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            final Future<?> writer = executor.submit(() -> {
+                while (running.get()) {
+                    stateful.transitionTo(stateful.state() == Phase.RUNNING ? Phase.PAUSED : Phase.RUNNING);
+                }
+            });
+
+            // Act & Assert
+            for (int iteration = 0; iteration < 1_000; iteration++) {
+                long previousSequence = -1L;
+                for (final TransitionHistory.Entry<Phase> entry : history.snapshot()) {
+                    assertThat(entry.sequence()).isGreaterThan(previousSequence);
+                    assertThat(entry.from()).isEqualTo(entry.sequence() % 2 == 0 ? Phase.RUNNING : Phase.PAUSED);
+                    assertThat(entry.to()).isEqualTo(entry.sequence() % 2 == 0 ? Phase.PAUSED : Phase.RUNNING);
+                    previousSequence = entry.sequence();
+                }
+            }
+            running.set(false);
+            writer.get();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.incendo.state.StateInteraction.InteractionResult;
+import org.incendo.state.StateMachineTest.Phase;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransitionListenersTest {
+
+    private static final StateMachine<Phase> STATE_MACHINE = StateMachine.ofEnum(Phase.class);
+
+    @Test
+    void Dispatch_MixedRegistrations_InvokedFromMostSpecific() {
+        // Arrange
+        final List<String> events = new ArrayList<>();
+        final TransitionListeners<Phase> listeners = TransitionListeners.builder(STATE_MACHINE)
+                .onAny((stateful, from, to) -> events.add("any"))
+                .onEnter(Phase.DONE, (stateful, from, to) -> events.add("enter"))
+                .onTransition(Phase.RUNNING, Phase.DONE, (stateful, from, to) -> events.add("edge"))
+                .build();
+        final MachineStateful stateful = new MachineStateful(STATE_MACHINE);
+
+        // Act
+        listeners.dispatch(stateful, Phase.RUNNING, Phase.DONE);
+        listeners.dispatch(stateful, Phase.PAUSED, Phase.DONE);
+        listeners.dispatch(stateful, Phase.RUNNING, Phase.PAUSED);
+
+        // Assert
+        assertThat(events).containsExactly("edge", "enter", "any", "enter", "any", "any").inOrder();
+    }
+
+    @Test
+    void Build_NoListeners_SharesEmptyArrays() {
+        // Act
+        final TransitionListeners<Phase> listeners = TransitionListeners.builder(STATE_MACHINE).build();
+
+        // Assert
+        assertThat(listeners.listeners(Phase.CREATED, Phase.RUNNING)).isEmpty();
+        assertThat(listeners.listeners(Phase.CREATED, Phase.RUNNING))
+                .isSameInstanceAs(listeners.listeners(Phase.PAUSED, Phase.DONE));
+    }
+
+    @Test
+    void OnTransition_UnknownTransition_ThrowsException() {
+        // Arrange
+        final TransitionListeners.Builder<Phase> builder = TransitionListeners.builder(STATE_MACHINE);
+
+        // Act & Assert
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> builder.onTransition(Phase.DONE, Phase.CREATED, (stateful, from, to) -> { })
+        );
+    }
+
+    @Test
+    void TransitionTo_InstanceListeners_Invoked() {
+        // Arrange
+        final List<Phase> events = new ArrayList<>();
+        final MachineStateful stateful = new MachineStateful(STATE_MACHINE).listeners(
+                TransitionListeners.builder(STATE_MACHINE)
+                        .onAny((instance, from, to) -> events.add(from))
+                        .onAny((instance, from, to) -> events.add(to))
+                        .build()
+        );
+
+        // Act
+        stateful.transitionTo(Phase.RUNNING);
+        stateful.transition(Phase.RUNNING, Phase.PAUSED);
+
+        // Assert
+        assertThat(events).containsExactly(Phase.CREATED, Phase.RUNNING, Phase.RUNNING, Phase.PAUSED).inOrder();
+    }
+
+    @Test
+    void TransitionTo_GlobalListeners_InvokedForEveryInstance() {
+        // Arrange
+        final List<Stateful<Phase, ?>> events = new ArrayList<>();
+        final StateMachine<Phase> stateMachine = STATE_MACHINE.withListeners(
+                TransitionListeners.builder(STATE_MACHINE)
+                        .onEnter(Phase.RUNNING, (stateful, from, to) -> events.add(stateful))
+                        .build()
+        );
+        final MachineStateful first = new MachineStateful(stateMachine);
+        final AtomicMachineStateful second = new AtomicMachineStateful(stateMachine);
+        final MachineStateful unobserved = new MachineStateful(STATE_MACHINE);
+
+        // Act
+        first.transitionTo(Phase.RUNNING);
+        second.transitionTo(Phase.RUNNING);
+        unobserved.transitionTo(Phase.RUNNING);
+
+        // Assert
+        assertThat(events).containsExactly(first, second).inOrder();
+    }
+
+    @Test
+    void Async_TransitionTo_OffloadedToExecutor() {
+        // Arrange
+        final List<Runnable> tasks = new ArrayList<>();
+        final List<Phase> events = new ArrayList<>();
+        final MachineStateful stateful = new MachineStateful(STATE_MACHINE).listeners(
+                TransitionListeners.builder(STATE_MACHINE)
+                        .onAny(TransitionListener.async(tasks::add, (instance, from, to) -> events.add(to)))
+                        .build()
+        );
+
+        // Act
+        stateful.transitionTo(Phase.RUNNING);
+
+        // Assert
+        assertThat(events).isEmpty();
+        assertThat(tasks).hasSize(1);
+        tasks.get(0).run();
+        assertThat(events).containsExactly(Phase.RUNNING);
+    }
+
+    @Test
+    void Execute_InteractionTransitions_InvokedWhileHoldingLock() {
+        // Arrange
+        final List<Boolean> events = new ArrayList<>();
+        final LockableMachineStateful stateful = new LockableMachineStateful();
+        stateful.listeners(
+                TransitionListeners.builder(STATE_MACHINE)
+                        .onAny((instance, from, to) -> events.add(stateful.lock().isHeldByCurrentThread()))
+                        .build()
+        );
+
+        // Act
+        final InteractionResult<Phase, LockableMachineStateful> result = stateful.interact()
+                .outgoingStates(States.of(Phase.DONE))
+                .interaction(instance -> instance.transitionTo(Phase.RUNNING).transitionTo(Phase.DONE))
+                .execute();
+
+        // Assert
+        assertThat(result).isInstanceOf(InteractionResult.Succeeded.class);
+        assertThat(events).containsExactly(true, true);
+    }
+
+    static final class MachineStateful extends AbstractStateful<Phase, MachineStateful> {
+
+        MachineStateful(final StateMachine<Phase> stateMachine) {
+            super(stateMachine, Phase.CREATED);
+        }
+    }
+
+    static final class AtomicMachineStateful extends AbstractAtomicStateful<Phase, AtomicMachineStateful> {
+
+        AtomicMachineStateful(final StateMachine<Phase> stateMachine) {
+            super(stateMachine, Phase.CREATED);
+        }
+    }
+
+    static final class LockableMachineStateful extends AbstractLockableStateful<Phase, LockableMachineStateful> {
+
+        LockableMachineStateful() {
+            super(STATE_MACHINE, Phase.CREATED);
+        }
+    }
+}
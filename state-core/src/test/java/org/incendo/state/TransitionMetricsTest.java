@@ -0,0 +1,212 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.incendo.state.StateInteraction.InteractionResult;
+import org.incendo.state.StateMachineTest.Phase;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TransitionMetricsTest {
+
+    private static final StateMachine<Phase> STATE_MACHINE = StateMachine.ofEnum(Phase.class);
+
+    @Test
+    void Metrics_NoMetrics_Noop() {
+        // Arrange
+        final TransitionListenersTest.MachineStateful stateful = new TransitionListenersTest.MachineStateful(STATE_MACHINE);
+
+        // Act
+        stateful.transitionTo(Phase.RUNNING);
+
+        // Assert
+        assertThat(STATE_MACHINE.metrics()).isSameInstanceAs(TransitionMetrics.<Phase>noop());
+        assertThat(stateful.metrics()).isSameInstanceAs(TransitionMetrics.<Phase>noop());
+    }
+
+    @Test
+    void WithMetrics_Listeners_Retained() {
+        // Arrange
+        final TransitionListeners<Phase> listeners = TransitionListeners.builder(STATE_MACHINE).build();
+        final CountingTransitionMetrics<Phase> metrics = TransitionMetrics.counting(STATE_MACHINE);
+
+        // Act
+        final StateMachine<Phase> machine = STATE_MACHINE.withListeners(listeners).withMetrics(metrics);
+
+        // Assert
+        assertThat(machine.listeners()).isSameInstanceAs(listeners);
+        assertThat(machine.metrics()).isSameInstanceAs(metrics);
+    }
+
+    @Test
+    void Transition_CountingMetrics_CountedPerEdge() {
+        // Arrange
+        final CountingTransitionMetrics<Phase> metrics = TransitionMetrics.counting(STATE_MACHINE);
+        final TransitionListenersTest.MachineStateful stateful =
+                new TransitionListenersTest.MachineStateful(STATE_MACHINE.withMetrics(metrics));
+
+        // Act
+        stateful.transitionTo(Phase.RUNNING);
+        stateful.transition(Phase.RUNNING, Phase.PAUSED);
+        stateful.tryTransitionTo(Phase.RUNNING);
+        stateful.tryTransition(Phase.RUNNING, Phase.PAUSED);
+
+        // Assert
+        assertThat(metrics.transitions(Phase.CREATED, Phase.RUNNING)).isEqualTo(1L);
+        assertThat(metrics.transitions(Phase.RUNNING, Phase.PAUSED)).isEqualTo(2L);
+        assertThat(metrics.transitions(Phase.PAUSED, Phase.RUNNING)).isEqualTo(1L);
+        assertThat(metrics.transitions(Phase.PAUSED, Phase.DONE)).isEqualTo(0L);
+        assertThat(metrics.transitions()).isEqualTo(4L);
+        assertThat(metrics.lockAcquisitions()).isEqualTo(4L);
+    }
+
+    @Test
+    void Transition_Rejected_CountedAsFailures() {
+        // Arrange
+        final CountingTransitionMetrics<Phase> metrics = TransitionMetrics.counting(STATE_MACHINE);
+        final TransitionListenersTest.MachineStateful stateful =
+                new TransitionListenersTest.MachineStateful(STATE_MACHINE.withMetrics(metrics));
+
+        // Act
+        assertThrows(IllegalStateTransitionException.class, () -> stateful.transitionTo(Phase.DONE));
+        stateful.tryTransitionTo(Phase.PAUSED);
+        assertThrows(UnexpectedStateException.class, () -> stateful.transition(Phase.RUNNING, Phase.PAUSED));
+        stateful.tryTransition(Phase.PAUSED, Phase.RUNNING);
+
+        // Assert
+        assertThat(metrics.illegalTransitions(Phase.CREATED, Phase.DONE)).isEqualTo(1L);
+        assertThat(metrics.illegalTransitions(Phase.CREATED, Phase.PAUSED)).isEqualTo(1L);
+        assertThat(metrics.illegalTransitions()).isEqualTo(2L);
+        assertThat(metrics.unexpectedStates(Phase.CREATED)).isEqualTo(2L);
+        assertThat(metrics.transitions()).isEqualTo(0L);
+    }
+
+    @Test
+    void Execute_Interactions_CountedAndTimed() {
+        // Arrange
+        final CountingTransitionMetrics<Phase> metrics = TransitionMetrics.counting(STATE_MACHINE);
+        final MeteredStateful stateful = new MeteredStateful(STATE_MACHINE.withMetrics(metrics));
+        final StateInteraction<Phase, MeteredStateful> start = stateful.interact()
+                .incomingStates(States.of(Phase.CREATED))
+                .outgoingStates(States.of(Phase.RUNNING))
+                .shortCircuitStates(States.of(Phase.RUNNING))
+                .interaction(instance -> instance.transitionTo(Phase.RUNNING))
+                .build();
+        final StateInteraction<Phase, MeteredStateful> stop = stateful.interact()
+                .incomingStates(States.of(Phase.PAUSED))
+                .outgoingStates(States.of(Phase.DONE))
+                .interaction(instance -> instance.transitionTo(Phase.DONE))
+                .build();
+
+        // Act
+        final InteractionResult<Phase, MeteredStateful> started = start.execute();
+        final InteractionResult<Phase, MeteredStateful> shortCircuited = start.execute();
+        final InteractionResult<Phase, MeteredStateful> stopped = stop.execute();
+
+        // Assert
+        assertThat(started).isInstanceOf(InteractionResult.Succeeded.class);
+        assertThat(shortCircuited).isInstanceOf(InteractionResult.ShortCircuited.class);
+        assertThat(stopped).isInstanceOf(InteractionResult.Failed.IllegalIncomingState.class);
+        assertThat(metrics.interactions()).isEqualTo(1L);
+        assertThat(metrics.shortCircuits(Phase.RUNNING)).isEqualTo(1L);
+        assertThat(metrics.unexpectedStates(Phase.RUNNING)).isEqualTo(1L);
+        assertThat(metrics.transitions(Phase.CREATED, Phase.RUNNING)).isEqualTo(1L);
+        assertThat(metrics.maxInteractionNanos()).isAtMost(metrics.interactionNanos());
+    }
+
+    @Test
+    void TransitionTo_ContendedLock_WaitRecorded() throws Exception {
+        // Arrange
+        final CountingTransitionMetrics<Phase> metrics = TransitionMetrics.counting(STATE_MACHINE);
+        final MeteredStateful stateful = new MeteredStateful(STATE_MACHINE.withMetrics(metrics));
+        final CountDownLatch locked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            final Future<InteractionResult<Phase, MeteredStateful>> holder = executor.submit(() -> stateful.interact()
+                    .incomingStates(States.of(Phase.CREATED))
+                    .outgoingStates(States.of(Phase.CREATED))
+                    .interaction(instance -> {
+                        locked.countDown();
+                        release.await();
+                        return instance;
+                    })
+                    .execute());
+            locked.await();
+
+            // Act
+            final Thread releaser = new Thread(() -> {
+                try {
+                    Thread.sleep(20L);
+                } catch (final InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                }
+                release.countDown();
+            });
+            releaser.start();
+            stateful.transitionTo(Phase.RUNNING);
+            holder.get();
+            releaser.join();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertThat(metrics.contendedLockAcquisitions()).isAtLeast(1L);
+        assertThat(metrics.maxLockWaitNanos()).isGreaterThan(0L);
+        assertThat(metrics.lockWaitNanos()).isAtLeast(metrics.maxLockWaitNanos());
+    }
+
+    @Test
+    void Reset_CountedEvents_AllZero() {
+        // Arrange
+        final CountingTransitionMetrics<Phase> metrics = TransitionMetrics.counting(STATE_MACHINE);
+        final TransitionListenersTest.MachineStateful stateful =
+                new TransitionListenersTest.MachineStateful(STATE_MACHINE.withMetrics(metrics));
+        stateful.transitionTo(Phase.RUNNING);
+        stateful.tryTransitionTo(Phase.CREATED);
+
+        // Act
+        metrics.reset();
+
+        // Assert
+        assertThat(metrics.transitions()).isEqualTo(0L);
+        assertThat(metrics.illegalTransitions()).isEqualTo(0L);
+        assertThat(metrics.lockAcquisitions()).isEqualTo(0L);
+    }
+
+    static final class MeteredStateful extends AbstractLockableStateful<Phase, MeteredStateful> {
+
+        MeteredStateful(final StateMachine<Phase> stateMachine) {
+            super(stateMachine, Phase.CREATED);
+        }
+    }
+}
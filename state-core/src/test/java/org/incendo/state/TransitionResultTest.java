@@ -0,0 +1,99 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.incendo.state.StateMachineTest.Phase;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class TransitionResultTest {
+
+    private static final StateMachine<Phase> STATE_MACHINE = StateMachine.ofEnum(Phase.class);
+
+    @Test
+    void TryTransition_AbstractStateful_ReturnsResults() {
+        assertTryTransitions(new TransitionListenersTest.MachineStateful(STATE_MACHINE));
+    }
+
+    @Test
+    void TryTransition_AbstractLockableStateful_ReturnsResults() {
+        assertTryTransitions(new TransitionListenersTest.LockableMachineStateful());
+    }
+
+    @Test
+    void TryTransition_AbstractAtomicStateful_ReturnsResults() {
+        assertTryTransitions(new TransitionListenersTest.AtomicMachineStateful(STATE_MACHINE));
+    }
+
+    @Test
+    void TryTransition_AbstractIntStateful_ReturnsResults() {
+        assertTryTransitions(new AbstractIntStatefulTest.IntStateful(Phase.CREATED));
+    }
+
+    @Test
+    void TryTransition_StateStoreEntity_ReturnsResults() {
+        assertTryTransitions(StateStore.create(STATE_MACHINE, 1, Phase.CREATED).entity(0));
+    }
+
+    @Test
+    void TryTransition_DefaultImplementation_ReturnsResults() {
+        assertTryTransitions(new DelegatingStateful(new TransitionListenersTest.MachineStateful(STATE_MACHINE)));
+    }
+
+    private static void assertTryTransitions(final MutableStateful<Phase, ?> stateful) {
+        assertThat(stateful.tryExpectState(Phase.CREATED)).isEqualTo(TransitionResult.SUCCESS);
+        assertThat(stateful.tryExpectState(Phase.RUNNING)).isEqualTo(TransitionResult.UNEXPECTED_STATE);
+
+        assertThat(stateful.tryTransitionTo(Phase.DONE)).isEqualTo(TransitionResult.ILLEGAL_TRANSITION);
+        assertThat(stateful.tryTransition(Phase.RUNNING, Phase.PAUSED)).isEqualTo(TransitionResult.UNEXPECTED_STATE);
+        assertThat(stateful.tryTransition(Phase.CREATED, Phase.DONE)).isEqualTo(TransitionResult.ILLEGAL_TRANSITION);
+        assertThat(stateful.state()).isEqualTo(Phase.CREATED);
+
+        assertThat(stateful.tryTransitionTo(Phase.RUNNING)).isEqualTo(TransitionResult.SUCCESS);
+        assertThat(stateful.tryTransition(Phase.RUNNING, Phase.DONE)).isEqualTo(TransitionResult.SUCCESS);
+        assertThat(stateful.state()).isEqualTo(Phase.DONE);
+    }
+
+    private record DelegatingStateful(@NonNull MutableStateful<Phase, ?> delegate) implements MutableStateful<Phase, DelegatingStateful> {
+
+        @Override
+        public @NonNull Phase state() {
+            return this.delegate.state();
+        }
+
+        @Override
+        public @NonNull DelegatingStateful transitionTo(final @NonNull Phase state) {
+            this.delegate.transitionTo(state);
+            return this;
+        }
+
+        @Override
+        public @NonNull DelegatingStateful transition(final @NonNull Phase currentState, final @NonNull Phase newState) {
+            this.delegate.transition(currentState, newState);
+            return this;
+        }
+    }
+}
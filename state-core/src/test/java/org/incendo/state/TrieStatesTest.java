@@ -0,0 +1,189 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TrieStatesTest {
+
+    @Test
+    void WithState_ExceedsArraySize_ReturnsTrieStates() {
+        // Arrange
+        States<TestState> states = States.of();
+
+        // Act
+        for (final TestState state : TestState.range(0, StatesImpl.MAX_SIZE + 1)) {
+            states = states.withState(state);
+        }
+
+        // Assert
+        assertThat(states).isInstanceOf(TrieStates.class);
+        assertThat(states).isEqualTo(States.of(TestState.range(0, StatesImpl.MAX_SIZE + 1)));
+    }
+
+    @Test
+    void WithState_ManyStates_ContainsAll() {
+        // Arrange
+        final List<TestState> values = TestState.range(0, 2_000);
+
+        // Act
+        final States<TestState> states = this.build(values);
+
+        // Assert
+        assertThat(states.states().toList()).containsExactlyElementsIn(values);
+        for (final TestState state : values) {
+            assertThat(states.contains(new TestState(state.id(), state.hash()))).isTrue();
+        }
+        assertThat(states.contains(TestState.of(2_000))).isFalse();
+    }
+
+    @Test
+    void WithState_PreviousInstance_IsUnchanged() {
+        // Arrange
+        final States<TestState> states = this.build(TestState.range(0, 100));
+
+        // Act
+        final States<TestState> result = states.withState(TestState.of(100));
+
+        // Assert
+        assertThat(result.contains(TestState.of(100))).isTrue();
+        assertThat(states.contains(TestState.of(100))).isFalse();
+        assertThat(states).isEqualTo(States.of(TestState.range(0, 100)));
+    }
+
+    @Test
+    void WithoutState_ManyStates_RemovesAll() {
+        // Arrange
+        final List<TestState> values = TestState.range(0, 500);
+        States<TestState> states = this.build(values);
+
+        // Act
+        for (int index = 0; index < values.size(); index += 2) {
+            states = states.withoutState(values.get(index));
+        }
+
+        // Assert
+        for (int index = 0; index < values.size(); index++) {
+            assertThat(states.contains(values.get(index))).isEqualTo(index % 2 == 1);
+        }
+        assertThat(states.withoutState(values.get(0))).isSameInstanceAs(states);
+    }
+
+    @Test
+    void WithoutState_LastState_ReturnsEmpty() {
+        // Arrange
+        States<TestState> states = this.build(TestState.range(0, 20));
+
+        // Act
+        for (final TestState state : TestState.range(0, 20)) {
+            states = states.withoutState(state);
+        }
+
+        // Assert
+        assertThat(states.empty()).isTrue();
+        assertThat(states).isSameInstanceAs(States.of());
+    }
+
+    @Test
+    void WithState_CollidingHashes_AreKeptApart() {
+        // Arrange
+        final List<TestState> values = new ArrayList<>();
+        for (int id = 0; id < 50; id++) {
+            values.add(new TestState(id, id % 3));
+        }
+
+        // Act
+        States<TestState> states = this.build(values);
+        states = states.withoutState(values.get(0)).withoutState(values.get(3));
+
+        // Assert
+        assertThat(states.contains(values.get(0))).isFalse();
+        assertThat(states.contains(values.get(3))).isFalse();
+        assertThat(states.contains(values.get(6))).isTrue();
+        assertThat(states.states().count()).isEqualTo(48L);
+    }
+
+    @Test
+    void Iterator_ManyStates_MatchesForEachOrder() {
+        // Arrange
+        final List<TestState> values = TestState.range(0, 2_000);
+        for (int id = 2_000; id < 2_010; id++) {
+            values.add(new TestState(id, 7));
+        }
+        final States<TestState> states = this.build(values);
+        final List<TestState> expected = new ArrayList<>();
+        states.forEach(expected::add);
+
+        // Act
+        final List<TestState> iterated = new ArrayList<>();
+        final Iterator<TestState> iterator = states.iterator();
+        while (iterator.hasNext()) {
+            iterated.add(iterator.next());
+        }
+
+        // Assert
+        assertThat(iterated).isEqualTo(expected);
+        assertThat(iterated).containsExactlyElementsIn(values);
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    private States<TestState> build(final List<TestState> values) {
+        States<TestState> states = States.of();
+        for (final TestState state : values) {
+            states = states.withState(state);
+        }
+        return states;
+    }
+
+
+    /**
+     * State with a configurable hash code, so that collisions can be tested.
+     */
+    record TestState(int id, int hash) implements State<TestState> {
+
+        static List<TestState> range(final int from, final int to) {
+            final List<TestState> states = new ArrayList<>();
+            for (int id = from; id < to; id++) {
+                states.add(of(id));
+            }
+            return states;
+        }
+
+        static TestState of(final int id) {
+            return new TestState(id, id * 0x9E3779B9);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+}
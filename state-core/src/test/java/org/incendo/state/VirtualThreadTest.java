@@ -0,0 +1,129 @@
+//
+// MIT License
+//
+// Copyright (c) 2024 Incendo
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+package org.incendo.state;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Verifies that blocking inside an interaction does not pin virtual threads to their carrier threads.
+ *
+ * <p>Virtual threads are created reflectively, so that the tests compile against the Java 17 baseline. They are skipped
+ * when running on an older runtime.</p>
+ */
+class VirtualThreadTest {
+
+    private static final int THREADS = 5_000;
+
+    @Test
+    void Execute_BlockingInteractions_AllVirtualThreadsRunConcurrently() throws Exception {
+        // Arrange
+        final CountDownLatch entered = new CountDownLatch(THREADS);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+
+        final ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        try {
+            // Act
+            for (int thread = 0; thread < THREADS; thread++) {
+                final AbstractLockableStatefulTest.TestStateful stateful = new AbstractLockableStatefulTest.TestStateful();
+                futures.add(executor.submit(() -> stateful.interact()
+                        .interaction(instance -> {
+                            entered.countDown();
+                            release.await();
+                            return instance.transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+                        })
+                        .execute()
+                        .unwrap()));
+            }
+
+            // Assert
+            final boolean allEntered = entered.await(30L, TimeUnit.SECONDS);
+            release.countDown();
+            assertThat(allEntered).isTrue();
+            for (final Future<?> future : futures) {
+                assertThat(future.get(30L, TimeUnit.SECONDS)).isNotNull();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void TransitionTo_SharedLocks_AllVirtualThreadsComplete() throws Exception {
+        // Arrange
+        final StripedStateLocks locks = StripedStateLocks.create(1);
+        final StripedStateLocksTest.StripedStateful blocker = new StripedStateLocksTest.StripedStateful(locks);
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+
+        final ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        try {
+            // Hold the only stripe, so that every other thread blocks on it.
+            futures.add(executor.submit(() -> blocker.interact()
+                    .interaction(instance -> {
+                        entered.countDown();
+                        release.await();
+                        return instance.transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE);
+                    })
+                    .execute()
+                    .unwrap()));
+            entered.await();
+
+            // Act
+            for (int thread = 0; thread < THREADS; thread++) {
+                final StripedStateLocksTest.StripedStateful stateful = new StripedStateLocksTest.StripedStateful(locks);
+                futures.add(executor.submit(() -> stateful.transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE)));
+            }
+            // A thread that is not blocked on the stripe must still be able to run.
+            final Future<?> unrelated = executor.submit(() -> new AbstractStatefulTest.TestStateful()
+                    .transitionTo(AbstractStatefulTest.TestState.INTERMEDIARY_STATE));
+
+            // Assert
+            assertThat(unrelated.get(30L, TimeUnit.SECONDS)).isNotNull();
+            release.countDown();
+            for (final Future<?> future : futures) {
+                assertThat(future.get(30L, TimeUnit.SECONDS)).isNotNull();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static @NonNull ExecutorService newVirtualThreadPerTaskExecutor() throws ReflectiveOperationException {
+        assumeTrue(Runtime.version().feature() >= 21, "Virtual threads require Java 21");
+        return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    }
+}